@@ -0,0 +1,63 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// token issue/parse and the servlet auth filter, i.e. what every authenticated request pays
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;                                      // jwt.cache.enabled
+
+    private JwtService jwt;
+    private JwtAuthFilter filter;
+    private String token;
+    private MockHttpServletRequest request;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        jwt = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwt, "secret", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(jwt, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(jwt, "cacheEnabled", cached);
+        ReflectionTestUtils.setField(jwt, "cacheMaxSize", 10_000L);
+        jwt.init();
+        filter = new JwtAuthFilter(jwt, new SimpleMeterRegistry());
+        token = jwt.issue("user-123", Map.of("role", "USER"));
+        request = new MockHttpServletRequest("POST", "/api/predictions");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwt.issue("user-123", Map.of("role", "USER"));
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return jwt.parse(token);
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        filter.doFilterInternal(request, new MockHttpServletResponse(), chain);
+        Object auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();                   // as the security chain does after each request
+        return auth;
+    }
+}
@@ -0,0 +1,182 @@
+package za.co.houseiq.houseiqbackend.prediction.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
+
+// Jackson (de)serialisation of the prediction API types and Spring Data mapping of Prediction to and from BSON;
+// the *Page benchmarks materialise and serialise one history page as whole Predictions vs projected PredictionViews,
+// and the legacy* ones read documents whose features are still the pre-PropertyFeatures long-keyed map
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredictionMappingBenchmark {
+
+    private ObjectMapper json;
+    private MappingMongoConverter bson;
+
+    private PredictRequestDto request;
+    private CreatePredictionDto dto;
+    private Prediction prediction;
+    private byte[] requestJson;
+    private byte[] dtoJson;
+    private byte[] predictionJson;
+    private Document predictionDoc;
+    private Document legacyDoc;
+    private List<Document> fullPage;
+    private List<Document> summaryPage;
+    private List<Document> legacyPage;
+
+    @Param("50")
+    public int pageSize;
+
+    @Setup
+    public void setUp() throws Exception {
+        json = Jackson2ObjectMapperBuilder.json().build();     // same modules and defaults as the Boot-configured mapper
+
+        MongoMappingContext context = new MongoMappingContext();
+        MongoCustomConversions conversions = new MongoCustomConversions(PredictionConverters.all());   // as registered by MongoConfig
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        bson = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        bson.setCustomConversions(conversions);
+        bson.afterPropertiesSet();
+
+        Instant now = Instant.parse("2025-01-01T10:00:00Z");
+        PropertyFeatures features = new PropertyFeatures(3, 2, 120.5, 8, 4);
+        Map<String, Double> explanations = Map.of("area_sqm", 0.41, "location_index", 0.27, "bedrooms", 0.14, "bathrooms", 0.1, "age_years", 0.08);
+        request = PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
+        prediction = Prediction.builder()
+            .id("65a1f0c2e4b0a1b2c3d4e5f6").ownerId("user-123").features(features)
+            .predictedPrice(1_850_000.0).modelVersion("v1").explanations(explanations).topExplanations(PredictionView.top(explanations))
+            .createdAt(now).updatedAt(now).version(1)
+            .build();
+        dto = CreatePredictionDto.builder()
+            .id(prediction.getId()).features(features).predicted_price(1_850_000.0).model_version("v1")
+            .explanations(explanations).createdAt(now).updatedAt(now).version(1)
+            .build();
+
+        requestJson = json.writeValueAsBytes(request);
+        dtoJson = json.writeValueAsBytes(dto);
+        predictionJson = json.writeValueAsBytes(prediction);
+        predictionDoc = toBson();
+        legacyDoc = new Document(predictionDoc);
+        legacyDoc.put("features", new Document(features.toMap()));
+
+        Document projected = new Document("_id", predictionDoc.get("_id"));
+        Document.parse(PredictionView.FIELDS).keySet().forEach(path -> copy(path, predictionDoc, projected));
+        fullPage = Collections.nCopies(pageSize, predictionDoc);
+        summaryPage = Collections.nCopies(pageSize, projected);
+        legacyPage = Collections.nCopies(pageSize, legacyDoc);
+        System.out.printf("%n%d rows: BSON %d -> %d bytes, JSON %d -> %d bytes; one document %d bytes (legacy features %d)%n", pageSize,
+            pageSize * bsonBytes(predictionDoc), pageSize * bsonBytes(projected),
+            fullPage().length, summaryPage().length, bsonBytes(predictionDoc), bsonBytes(legacyDoc));
+    }
+
+    @Benchmark
+    public byte[] requestToJson() throws Exception {
+        return json.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public PredictRequestDto requestFromJson() throws Exception {
+        return json.readValue(requestJson, PredictRequestDto.class);
+    }
+
+    @Benchmark
+    public byte[] createPredictionDtoToJson() throws Exception {
+        return json.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public CreatePredictionDto createPredictionDtoFromJson() throws Exception {
+        return json.readValue(dtoJson, CreatePredictionDto.class);
+    }
+
+    @Benchmark
+    public byte[] predictionToJson() throws Exception {
+        return json.writeValueAsBytes(prediction);
+    }
+
+    @Benchmark
+    public Prediction predictionFromJson() throws Exception {
+        return json.readValue(predictionJson, Prediction.class);
+    }
+
+    @Benchmark
+    public Document predictionToBson() {
+        return toBson();
+    }
+
+    @Benchmark
+    public Prediction predictionFromBson() {
+        return bson.read(Prediction.class, predictionDoc);
+    }
+
+    @Benchmark
+    public Prediction predictionFromLegacyBson() {
+        return bson.read(Prediction.class, legacyDoc);
+    }
+
+    @Benchmark
+    public byte[] fullPage() throws Exception {
+        List<Prediction> rows = new ArrayList<>(pageSize);
+        for (Document d : fullPage) rows.add(bson.read(Prediction.class, d));
+        return json.writeValueAsBytes(rows);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws Exception {
+        List<PredictionView> rows = new ArrayList<>(pageSize);
+        for (Document d : summaryPage) rows.add(PredictionView.of(bson.read(Prediction.class, d)));     // as the view queries read them
+        return json.writeValueAsBytes(rows);
+    }
+
+    @Benchmark
+    public byte[] legacyFullPage() throws Exception {
+        List<Prediction> rows = new ArrayList<>(pageSize);
+        for (Document d : legacyPage) rows.add(bson.read(Prediction.class, d));
+        return json.writeValueAsBytes(rows);
+    }
+
+    // what the server sends back for a projected find: only the listed (possibly dotted) paths
+    private static void copy(String path, Document from, Document to) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            to.put(path, from.get(path));
+            return;
+        }
+        String head = path.substring(0, dot);
+        Document nested = (Document) to.computeIfAbsent(head, k -> new Document());
+        nested.put(path.substring(dot + 1), from.get(head, Document.class).get(path.substring(dot + 1)));
+    }
+
+    private static int bsonBytes(Document doc) {
+        return new RawBsonDocument(doc, new DocumentCodec()).getByteBuffer().remaining();
+    }
+
+    private Document toBson() {
+        Document doc = new Document();
+        bson.write(prediction, doc);
+        return doc;
+    }
+}
@@ -0,0 +1,35 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+// the CPU part of PredictionService.createPrediction: feature map, entity and response DTO (no ML call, no Mongo)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredictionBenchmark {
+
+    private final PredictRequestDto request = PredictRequestDto.builder()
+        .bedrooms(3).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
+    private final PredictResponseDto ml = new PredictResponseDto(1_850_000.0, "v1",
+        Map.of("area_sqm", 0.41, "location_index", 0.27, "bedrooms", 0.14, "bathrooms", 0.1, "age_years", 0.08));
+
+    @Benchmark
+    public Map<String, Object> features() {
+        return PredictionService.toFeatures(request);
+    }
+
+    @Benchmark
+    public CreatePredictionDto createPrediction() {
+        Map<String, Object> features = PredictionService.toFeatures(request);
+        return PredictionService.toDto(PredictionService.newPrediction("user-123", features, ml, Instant.now()));
+    }
+}
@@ -3,9 +3,7 @@ package za.co.houseiq.houseiqbackend.auth;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 import za.co.houseiq.houseiqbackend.auth.dto.AuthResponse;
 import za.co.houseiq.houseiqbackend.auth.dto.LoginRequest;
@@ -20,8 +18,7 @@ import za.co.houseiq.houseiqbackend.prediction.repo.UserRepository;
 public class AuthController {
 
     private final UserRepository users;
-    private final PasswordEncoder encoder;
-    private final AuthenticationManager authManager;
+    private final PasswordHasher hasher;                // BCrypt off the request threads, bounded
     private final JwtService jwt;
 
     @PostMapping("/register")
@@ -32,7 +29,7 @@ public class AuthController {
         }
         User u = users.save(User.builder()
             .email(req.getEmail())
-            .passwordHash(encoder.encode(req.getPassword()))
+            .passwordHash(hasher.encode(req.getPassword()))
             .name(req.getName())
             .role("USER")
             .build());
@@ -47,9 +44,11 @@ public class AuthController {
 
     @PostMapping("/login")
     public AuthResponse login(@Valid @RequestBody LoginRequest req) {
-        // will throw if bad creds
-        authManager.authenticate(new UsernamePasswordAuthenticationToken(req.getEmail(), req.getPassword()));
-        User u = users.findByEmail(req.getEmail()).orElseThrow();
+        // one lookup; the same document is checked and used for the token
+        User u = users.findByEmail(req.getEmail()).orElse(null);
+        if (!hasher.matches(req.getPassword(), u == null ? null : u.getPasswordHash())) {
+            throw new BadCredentialsException("Bad credentials");      // same answer and timing for unknown emails
+        }
         String token = jwt.issue(u.getId(), java.util.Map.of(
             "email", u.getEmail(),
             "name", u.getName(),
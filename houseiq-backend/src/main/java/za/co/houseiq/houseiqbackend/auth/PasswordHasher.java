@@ -0,0 +1,110 @@
+package za.co.houseiq.houseiqbackend.auth;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.config.PasswordHashingProperties;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a login storm cannot take every request thread.
+ * The pool has one worker per CPU (auth.password.threads) and a bounded queue; when the queue is
+ * full or a hash waits longer than auth.password.timeout the caller gets 503 LOGIN_OVERLOADED
+ * straight away. Unknown emails are checked against a dummy hash so both cases take as long.
+ */
+@Slf4j
+@Component
+public class PasswordHasher implements DisposableBean {
+    private final PasswordEncoder encoder;
+    private final PasswordHashingProperties cfg;
+    private final ThreadPoolExecutor pool;
+    private final String dummyHash;                             // for unknown users, never matches a real password
+
+    private final Timer verifyTime;
+    private final Timer encodeTime;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder encoder, PasswordHashingProperties cfg, MeterRegistry meters) {
+        this.encoder = encoder;
+        this.cfg = cfg;
+        int threads = cfg.getThreads() > 0 ? cfg.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(cfg.getQueueCapacity()),
+            r -> Thread.ofPlatform().name("password-hash-" + seq.incrementAndGet()).daemon().unstarted(r),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = encoder.encode("dummy-password-for-timing");
+        this.verifyTime = Timer.builder("houseiq.auth.password.hash").tag("op", "verify").register(meters);
+        this.encodeTime = Timer.builder("houseiq.auth.password.hash").tag("op", "encode").register(meters);
+        this.queueWait = Timer.builder("houseiq.auth.password.queue.wait").publishPercentileHistogram().register(meters);
+        this.rejected = Counter.builder("houseiq.auth.password.rejected").register(meters);
+        Gauge.builder("houseiq.auth.password.queue.depth", pool, p -> p.getQueue().size()).register(meters);
+    }
+
+    /** Checks the password against a stored hash; a null hash (unknown user) costs the same and returns false. */
+    public boolean matches(String raw, String hash) {
+        boolean known = hash != null;
+        boolean ok = run(verifyTime, () -> encoder.matches(raw, known ? hash : dummyHash));
+        return known && ok;
+    }
+
+    public String encode(String raw) {
+        return run(encodeTime, () -> encoder.encode(raw));
+    }
+
+    private <T> T run(Timer hashTime, Callable<T> hash) {
+        long queued = System.nanoTime();
+        Future<T> result;
+        try {
+            result = pool.submit(() -> {
+                long start = System.nanoTime();
+                queueWait.record(start - queued, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.call();
+                } finally {
+                    hashTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw overloaded();
+        }
+        try {
+            return result.get(cfg.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);                                // still queued: never runs
+            rejected.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ServiceUnavailableException overloaded() {
+        return new ServiceUnavailableException("LOGIN_OVERLOADED", "Too many logins in progress, retry shortly");
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
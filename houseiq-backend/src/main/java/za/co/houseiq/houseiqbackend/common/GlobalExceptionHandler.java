@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 @RestControllerAdvice                           // global advice for all RestControllers, methods with @ExceptinoHandler will intercept exceptions and build responses
 public class GlobalExceptionHandler {
@@ -16,6 +17,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(new ApiError("VALIDATION_ERROR", msg)); // return
     }
 
+    @ExceptionHandler(WebExchangeBindException.class)               // same for @Valid bodies on the reactive stack
+    public ResponseEntity<ApiError> handleReactiveValidation(WebExchangeBindException ex) {
+        String msg = ex.getAllErrors().stream()
+            .findFirst().map(e -> e.getDefaultMessage()).orElse("Validation error");
+        return ResponseEntity.badRequest().body(new ApiError("VALIDATION_ERROR", msg));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)            // overloaded queue or unhealthy dependency, client may retry
+    public ResponseEntity<ApiError> handleUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)        // HTTP 503
+            .body(new ApiError(ex.getCode(), ex.getMessage()));
+    }
+
+    @ExceptionHandler(UpstreamException.class)                      // dependency failed or timed out
+    public ResponseEntity<ApiError> handleUpstream(UpstreamException ex) {
+        return ResponseEntity.status(ex.getStatus())                        // HTTP 502 / 504
+            .body(new ApiError(ex.getCode(), ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)                       // catches generic runtime errors
     public ResponseEntity<ApiError> handleRuntime(RuntimeException ex) {    //
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)                // HTTP 400
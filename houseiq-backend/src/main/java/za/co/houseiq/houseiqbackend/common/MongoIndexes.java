@@ -0,0 +1,50 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.prediction.model.CachedPrediction;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob;
+
+/**
+ * Creates the @CompoundIndex/@Indexed indexes of the listed documents once the app is up. Boot's
+ * auto-index-creation is off, and the listings (page numbers and PageCursor seeks), the prediction_cache
+ * TTL and the cache purge by model version depend on them.
+ * Runs in the background and only logs on failure, so a slow or absent Mongo never blocks startup.
+ * activity_logs is not listed: ActivityTimeSeries creates it as a time-series collection first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexes {
+    static final List<Class<?>> DOCUMENTS = List.of(Prediction.class, ScoringJob.class, CachedPrediction.class);
+
+    private final MongoTemplate mongo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureOnStartup() {
+        Thread.ofVirtual().name("mongo-indexes").start(this::ensure);
+    }
+
+    void ensure() {
+        DOCUMENTS.forEach(type -> ensure(mongo, type));
+    }
+
+    public static void ensure(MongoTemplate mongo, Class<?> type) {
+        var resolver = new MongoPersistentEntityIndexResolver(mongo.getConverter().getMappingContext());
+        for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+            try {
+                mongo.indexOps(type).createIndex(index);         // no-op when it already exists
+            } catch (RuntimeException e) {
+                log.warn("Could not ensure index {} on {}: {}", index.getIndexOptions().get("name"), type.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Position in a newest-first listing: the (createdAt, _id) of the last item returned. The next page
+ * seeks past it on the { ownerId, createdAt: -1, _id: -1 } index instead of skipping, so every page
+ * costs the same however deep it is. Clients only see it as an opaque base64 string.
+ */
+public record PageCursor(Instant createdAt, ObjectId id) {
+
+    public String encode() {
+        String raw = createdAt.toEpochMilli() + ":" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Null for the first page (no or empty cursor); IllegalArgumentException (400) for anything we did not issue. */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int sep = raw.indexOf(':');
+            return new PageCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, sep))), new ObjectId(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /** One more than the page size, so the query itself tells whether there is a next page. */
+    public static Pageable probe(int size) {
+        return PageRequest.ofSize(size + 1);
+    }
+
+    // cuts the probe row off and builds the cursor from the last item kept
+    public static <T> PageResponse<T> page(List<T> fetched, int size, Function<T, Instant> createdAt, Function<T, String> id) {
+        if (fetched.size() <= size) {
+            return new PageResponse<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        T last = items.get(size - 1);
+        return new PageResponse<>(items, new PageCursor(createdAt.apply(last), new ObjectId(id.apply(last))).encode());
+    }
+}
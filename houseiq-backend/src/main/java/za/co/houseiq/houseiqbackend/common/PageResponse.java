@@ -1,4 +1,13 @@
 package za.co.houseiq.houseiqbackend.common;
 
-public class PageResponse {
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one keyset page: pass nextCursor back as ?cursor= for the next one, null on the last page
+@Data @NoArgsConstructor @AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
 }
@@ -0,0 +1,19 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import lombok.Getter;
+
+// thrown when a dependency or an internal queue cannot take more work; mapped to HTTP 503
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final String code;          // error code returned in ApiError
+
+    public ServiceUnavailableException(String code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    public ServiceUnavailableException(String code, String message, Throwable cause) {
+        super(message, cause);
+        this.code = code;
+    }
+}
@@ -0,0 +1,106 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency of one request pipeline stage, tagged outcome (success/error) and model_version, with a
+ * percentile histogram so Prometheus can compute p50/p95/p99 across instances. The Timer for each tag
+ * combination is registered on first use and kept here, so recording costs a map lookup, a nanoTime
+ * and a histogram update: no Timer.builder, Tags or Meter.Id per call. Model versions come from the
+ * ML service; past MAX_MODEL_VERSIONS distinct values they are recorded as "other".
+ */
+public final class StageTimer {
+    public static final String NO_MODEL = "none";           // stages that do not score
+    static final int MAX_MODEL_VERSIONS = 16;
+    private static final String OTHER = "other";
+
+    private final MeterRegistry meters;
+    private final String name;
+    private final Tags tags;
+    private final Map<String, Timer> success = new ConcurrentHashMap<>();
+    private final Map<String, Timer> error = new ConcurrentHashMap<>();
+
+    /** {@code tags} are fixed key/value pairs of this stage, e.g. "method", "create". */
+    public StageTimer(MeterRegistry meters, String name, String... tags) {
+        this.meters = meters;
+        this.name = name;
+        this.tags = Tags.of(tags);
+        timer(true, NO_MODEL);                              // the series exist before the first request
+        timer(false, NO_MODEL);
+    }
+
+    /** Records the time since {@code startNanos} (a System.nanoTime()); a null model version counts as "none". */
+    public void record(long startNanos, boolean ok, String modelVersion) {
+        timer(ok, modelVersion).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(long startNanos, boolean ok) {
+        record(startNanos, ok, NO_MODEL);
+    }
+
+    /** A stage body; {@code E} lets it throw a checked exception such as IOException. */
+    @FunctionalInterface
+    public interface Stage<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /** Runs the stage and records it: success with the result's model version, or error when it throws. */
+    public <T, E extends Exception> T time(Stage<T, E> stage, Function<? super T, String> modelVersion) throws E {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = stage.run();
+        } catch (Exception | Error e) {
+            record(start, false);
+            throw e;
+        }
+        record(start, true, modelVersion.apply(result));
+        return result;
+    }
+
+    public <T, E extends Exception> T time(Stage<T, E> stage) throws E {
+        return time(stage, result -> NO_MODEL);
+    }
+
+    public void time(Runnable stage) {
+        time(() -> {
+            stage.run();
+            return null;
+        });
+    }
+
+    Timer timer(boolean ok, String modelVersion) {
+        String version = modelVersion == null ? NO_MODEL : modelVersion;
+        Map<String, Timer> byVersion = ok ? success : error;
+        Timer t = byVersion.get(version);
+        return t != null ? t : register(byVersion, ok, version);
+    }
+
+    private synchronized Timer register(Map<String, Timer> byVersion, boolean ok, String version) {
+        Timer t = byVersion.get(version);
+        if (t != null) {
+            return t;
+        }
+        if (byVersion.size() >= MAX_MODEL_VERSIONS) {
+            version = OTHER;                                // not cached per version, so the map stays bounded
+            t = byVersion.get(OTHER);
+            if (t != null) {
+                return t;
+            }
+        }
+        t = Timer.builder(name)
+            .tags(tags)
+            .tag("outcome", ok ? "success" : "error")
+            .tag("model_version", version)
+            .publishPercentileHistogram()
+            .register(meters);
+        byVersion.put(version, t);
+        return t;
+    }
+}
@@ -0,0 +1,17 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// a dependency failed or did not answer in time: 502 or 504, not the client's fault
+@Getter
+public class UpstreamException extends RuntimeException {
+    private final HttpStatus status;    // BAD_GATEWAY or GATEWAY_TIMEOUT
+    private final String code;          // error code returned in ApiError
+
+    public UpstreamException(HttpStatus status, String code, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+        this.code = code;
+    }
+}
@@ -1,15 +1,20 @@
 package za.co.houseiq.houseiqbackend.common.activity;
 
+import java.time.Instant;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.core.Authentication;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
 
 @RestController
 @RequestMapping("/api/activity")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)   // reactive profile: Reactive*Controller
 @RequiredArgsConstructor
 public class ActivityController {
     private final ActivityLogService service;
@@ -21,6 +26,23 @@ public class ActivityController {
         String ownerId = (String) auth.getPrincipal();
         return service.list(ownerId, page, size);
     }
-}
 
+    // ?cursor= (empty for the first page) switches to keyset pages: { items, nextCursor }
+    @GetMapping(params = "cursor")
+    public PageResponse<ActivityLog> page(Authentication auth,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.page(ownerId, cursor, size);
+    }
 
+    // hour/day buckets: rollups for older ranges, raw events for recent ones
+    @GetMapping("/counts")
+    public List<ActivityCounts> counts(Authentication auth,
+                                  @RequestParam(defaultValue = "day") String granularity,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.counts(ownerId, granularity, from, to);
+    }
+}
@@ -0,0 +1,14 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.time.Instant;
+import java.util.Map;
+import lombok.*;
+
+// one bucket of GET /api/activity/counts, from rollups or live raw events depending on its age
+@Data @NoArgsConstructor @AllArgsConstructor
+public class ActivityCounts {
+    private Instant start;
+    private ActivityRollup.Granularity granularity;
+    private Map<String, Long> counts;
+    private long total;
+}
@@ -6,13 +6,16 @@ import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document("activity_logs")
-@CompoundIndex(name = "owner_created_idx", def = "{ 'ownerId': 1, 'createdAt': -1 }")
+@TimeSeries(timeField = "createdAt", metaField = "ownerId", granularity = Granularity.MINUTES)   // created by ActivityTimeSeries
+@CompoundIndex(name = "owner_created_id_idx", def = "{ 'ownerId': 1, 'createdAt': -1, '_id': -1 }")   // _id: keyset tie-breaker
 public class ActivityLog {
     @Id
     private String id;
@@ -1,11 +1,20 @@
 package za.co.houseiq.houseiqbackend.common.activity;
 
+import java.time.Instant;
 import java.util.List;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 public interface ActivityLogRepository extends MongoRepository<ActivityLog, String> {
     List<ActivityLog> findByOwnerIdOrderByCreatedAtDesc(String ownerId, Pageable pageable);
+
+    // keyset pages (PageCursor): newest first with _id as tie-breaker, both served by owner_created_id_idx
+    List<ActivityLog> findByOwnerIdOrderByCreatedAtDescIdDesc(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<ActivityLog> findPageAfter(String ownerId, Instant createdAt, ObjectId id, Pageable pageable);
 }
 
 
@@ -1,17 +1,26 @@
 package za.co.houseiq.houseiqbackend.common.activity;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import za.co.houseiq.houseiqbackend.common.PageCursor;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
 
 @Service
 @RequiredArgsConstructor
 public class ActivityLogService {
+    static final Duration DEFAULT_RANGE = Duration.ofDays(30);      // counts() without from
+
     private final ActivityLogRepository repo;
+    private final ActivityLogWriter writer;     // write-behind, batched insertMany
+    private final ActivityRollups rollups;
 
+    // queued, the request does not wait for the Mongo write
     public void record(String ownerId, String action, Map<String, Object> details) {
         ActivityLog log = ActivityLog.builder()
             .ownerId(ownerId)
@@ -19,12 +28,36 @@ public class ActivityLogService {
             .details(details)
             .createdAt(Instant.now())
             .build();
-        repo.save(log);
+        writer.submit(log);
     }
 
+    // reads do not flush the writer: entries recorded in the last flush interval may not be listed yet
     public List<ActivityLog> list(String ownerId, int page, int size) {
         return repo.findByOwnerIdOrderByCreatedAtDesc(ownerId, PageRequest.of(page, size));
     }
-}
 
+    // keyset page after the cursor (null = newest)
+    public PageResponse<ActivityLog> page(String ownerId, String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<ActivityLog> fetched = after == null
+            ? repo.findByOwnerIdOrderByCreatedAtDescIdDesc(ownerId, PageCursor.probe(size))
+            : repo.findPageAfter(ownerId, after.createdAt(), after.id(), PageCursor.probe(size));
+        return PageCursor.page(fetched, size, ActivityLog::getCreatedAt, ActivityLog::getId);
+    }
 
+    // per hour/day action counts over [from, to); defaults to the last 30 days
+    public List<ActivityCounts> counts(String ownerId, String granularity, Instant from, Instant to) {
+        ActivityRollup.Granularity g = granularity(granularity);
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+        return rollups.counts(ownerId, g, start, end);
+    }
+
+    static ActivityRollup.Granularity granularity(String value) {
+        try {
+            return ActivityRollup.Granularity.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("granularity must be hour or day");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.config.ActivityWriterProperties;
+import za.co.houseiq.houseiqbackend.config.ActivityWriterProperties.OverflowPolicy;
+
+/**
+ * Write-behind buffer for activity logs: requests enqueue into a bounded lock-free queue and a
+ * background thread writes them with one insertMany per batch (activity.writer.batch-size) or
+ * per flush interval, whichever comes first. When the queue is full the overflow policy decides
+ * between dropping, briefly blocking the caller, or sampling. Remaining entries are flushed on shutdown.
+ */
+@Slf4j
+@Component
+@DependsOn("activityTimeSeries")                     // activity_logs is a time-series collection before the first insert
+public class ActivityLogWriter implements DisposableBean {
+    private final ActivityLogRepository repo;
+    private final ActivityWriterProperties cfg;
+    private final ConcurrentLinkedQueue<ActivityLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();    // CLQ.size() is O(n)
+    private final AtomicLong sampleSeq = new AtomicLong();
+    private final Thread flusher;
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter dropped;
+    private final Counter sampled;
+    private final Counter failed;
+
+    private volatile boolean running = true;
+
+    public ActivityLogWriter(ActivityLogRepository repo, ActivityWriterProperties cfg, MeterRegistry meters) {
+        this.repo = repo;
+        this.cfg = cfg;
+        this.flushTimer = Timer.builder("houseiq.activity.flush").publishPercentileHistogram().register(meters);
+        this.flushSize = DistributionSummary.builder("houseiq.activity.flush.size").register(meters);
+        this.dropped = Counter.builder("houseiq.activity.dropped").tag("reason", "overflow").register(meters);
+        this.sampled = Counter.builder("houseiq.activity.dropped").tag("reason", "sampled").register(meters);
+        this.failed = Counter.builder("houseiq.activity.dropped").tag("reason", "write_error").register(meters);
+        Gauge.builder("houseiq.activity.queue.depth", size, AtomicInteger::get).register(meters);
+        this.flusher = Thread.ofPlatform().name("activity-log-writer").daemon().start(this::run);
+    }
+
+    /** Queues one entry, never waits on Mongo. BLOCK may wait up to block-timeout for queue space. */
+    public void submit(ActivityLog entry) {
+        admit(entry, cfg.getOverflowPolicy());
+    }
+
+    /** Same as {@link #submit} but never waits, for event-loop callers: BLOCK behaves like DROP. */
+    public void trySubmit(ActivityLog entry) {
+        admit(entry, cfg.getOverflowPolicy() == OverflowPolicy.BLOCK ? OverflowPolicy.DROP : cfg.getOverflowPolicy());
+    }
+
+    /** Writes everything queued so far on the calling thread; used on shutdown and by tests. */
+    public void flush() {
+        List<ActivityLog> batch = new ArrayList<>(Math.min(size.get(), cfg.getBatchSize()));
+        ActivityLog next;
+        while ((next = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(next);
+            if (batch.size() == cfg.getBatchSize()) {
+                write(batch);
+                batch = new ArrayList<>(cfg.getBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    public int depth() {
+        return size.get();
+    }
+
+    private void admit(ActivityLog entry, OverflowPolicy policy) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        switch (policy) {
+            case DROP -> {
+                if (!tryEnqueue(entry)) dropped.increment();
+            }
+            case SAMPLE -> {
+                if (size.get() >= cfg.getQueueCapacity() / 2 && sampleSeq.incrementAndGet() % cfg.getSampleRate() != 0) {
+                    sampled.increment();                                    // under pressure keep 1 in sampleRate
+                } else if (!tryEnqueue(entry)) {
+                    dropped.increment();
+                }
+            }
+            case BLOCK -> {
+                long deadline = System.nanoTime() + cfg.getBlockTimeout().toNanos();
+                while (!tryEnqueue(entry)) {
+                    if (System.nanoTime() > deadline) {
+                        dropped.increment();
+                        return;
+                    }
+                    LockSupport.unpark(flusher);                            // make room
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        }
+    }
+
+    private boolean tryEnqueue(ActivityLog entry) {
+        int n = size.incrementAndGet();
+        if (n > cfg.getQueueCapacity()) {
+            size.decrementAndGet();
+            return false;
+        }
+        queue.offer(entry);
+        if (n == cfg.getBatchSize()) {
+            LockSupport.unpark(flusher);                                    // a full batch is ready
+        }
+        return true;
+    }
+
+    private void run() {
+        long intervalNanos = cfg.getFlushInterval().toNanos();
+        while (running) {
+            if (size.get() < cfg.getBatchSize()) {
+                LockSupport.parkNanos(this, intervalNanos);                 // woken early by a full batch
+            }
+            flush();
+        }
+    }
+
+    private void write(List<ActivityLog> batch) {
+        long start = System.nanoTime();
+        try {
+            repo.insert(batch);                                             // one insertMany
+            flushSize.record(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("Dropped {} activity log entries, write failed: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(cfg.getShutdownTimeout().toMillis());
+        flush();                                                            // whatever arrived after the last pass
+    }
+}
@@ -0,0 +1,32 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.time.Instant;
+import java.util.Map;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// per-owner action counts for one hour or day, recomputed from the finer level so re-running a rollup is harmless
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("activity_rollups")
+@CompoundIndex(name = "owner_granularity_bucket_idx", def = "{ 'ownerId': 1, 'granularity': 1, 'bucketStart': -1 }")
+public class ActivityRollup {
+    public enum Granularity { HOUR, DAY }
+
+    @Id
+    private String id;                          // ownerId|granularity|bucketStart millis
+
+    private String ownerId;
+    private Granularity granularity;
+    private Instant bucketStart;
+    private Map<String, Long> counts;           // action -> events
+    private long total;
+
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s")
+    private Instant expiresAt;                  // null (kept) for daily rollups
+}
@@ -0,0 +1,277 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityRollup.Granularity;
+import za.co.houseiq.houseiqbackend.config.ActivityStorageProperties;
+
+/**
+ * Compacts raw activity events into per-owner hourly counts, and hourly counts into daily ones.
+ * Each level has a watermark in activity_rollup_state: everything before it is rolled up, and a pass
+ * only closes buckets that ended at least rollup-grace ago. Buckets are recomputed from the finer
+ * level and upserted whole, so a pass that dies halfway is simply redone. counts() serves rollups
+ * below the watermarks and aggregates raw events live above them.
+ */
+@Slf4j
+@Component
+public class ActivityRollups implements DisposableBean {
+    static final String STATE = "activity_rollup_state";
+    static final int MAX_HOURS_PER_PASS = 48;                   // bounds one aggregation after a long outage
+
+    private final MongoTemplate mongo;
+    private final ActivityStorageProperties cfg;
+    private final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("activity-rollup").daemon().factory());
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final Timer passTimer;
+    private final Counter hourBuckets;
+    private final Counter dayBuckets;
+    private final Counter failed;
+
+    public ActivityRollups(MongoTemplate mongo, ActivityStorageProperties cfg, MeterRegistry meters) {
+        this.mongo = mongo;
+        this.cfg = cfg;
+        this.passTimer = Timer.builder("houseiq.activity.rollup").register(meters);
+        this.hourBuckets = Counter.builder("houseiq.activity.rollup.buckets").tag("granularity", "hour").register(meters);
+        this.dayBuckets = Counter.builder("houseiq.activity.rollup.buckets").tag("granularity", "day").register(meters);
+        this.failed = Counter.builder("houseiq.activity.rollup.failed").register(meters);
+    }
+
+    // called by ActivityTimeSeries once the collection exists (and any legacy data is migrated)
+    void start() {
+        if (!cfg.isRollupEnabled() || !started.compareAndSet(false, true)) {
+            return;
+        }
+        long every = cfg.getRollupInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, every, TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            passTimer.record(() -> run(Instant.now()));
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Activity rollup pass failed, retrying next interval: {}", e.getMessage());
+        }
+    }
+
+    /** One pass: completed hours since the hourly watermark, then completed days since the daily one. */
+    void run(Instant now) {
+        Instant settled = now.minus(cfg.getRollupGrace());
+        Instant hourFrom = watermark(Granularity.HOUR);
+        if (hourFrom == null) {
+            hourFrom = earliestRaw().orElse(settled).truncatedTo(ChronoUnit.HOURS);
+        }
+        Instant hourTo = min(settled.truncatedTo(ChronoUnit.HOURS), hourFrom.plus(MAX_HOURS_PER_PASS, ChronoUnit.HOURS));
+        if (hourTo.isAfter(hourFrom)) {
+            rollupHours(mongo.getCollectionName(ActivityLog.class), hourFrom, hourTo);
+        }
+        setWatermark(Granularity.HOUR, max(hourFrom, hourTo));
+
+        Instant dayFrom = watermark(Granularity.DAY);
+        if (dayFrom == null) {
+            dayFrom = min(earliestHourly().orElse(hourFrom), hourFrom).truncatedTo(ChronoUnit.DAYS);
+        }
+        Instant dayTo = max(hourFrom, hourTo).truncatedTo(ChronoUnit.DAYS);
+        if (dayTo.isAfter(dayFrom)) {
+            rollupDays(dayFrom, dayTo);
+        }
+        setWatermark(Granularity.DAY, max(dayFrom, dayTo));
+    }
+
+    /** Recomputes the hourly buckets in [from, to) from raw events in {@code source}. */
+    void rollupHours(String source, Instant from, Instant to) {
+        List<Document> pipeline = List.of(
+            new Document("$match", new Document("createdAt", range(from, to))),
+            new Document("$group", new Document("_id", new Document("ownerId", "$ownerId")
+                    .append("bucket", truncate("$createdAt", "hour")).append("action", "$action"))
+                .append("n", new Document("$sum", 1L))),
+            regroup());
+        hourBuckets.increment(upsert(Granularity.HOUR, mongo.getCollection(source).aggregate(pipeline).allowDiskUse(true)));
+    }
+
+    /** Recomputes the daily buckets in [from, to) from the hourly ones. */
+    void rollupDays(Instant from, Instant to) {
+        List<Document> pipeline = List.of(
+            new Document("$match", new Document("granularity", Granularity.HOUR.name()).append("bucketStart", range(from, to))),
+            new Document("$project", new Document("ownerId", 1)
+                .append("day", truncate("$bucketStart", "day")).append("c", new Document("$objectToArray", "$counts"))),
+            new Document("$unwind", "$c"),
+            new Document("$group", new Document("_id", new Document("ownerId", "$ownerId")
+                    .append("bucket", "$day").append("action", "$c.k"))
+                .append("n", new Document("$sum", "$c.v"))),
+            regroup());
+        dayBuckets.increment(upsert(Granularity.DAY, mongo.getCollection(rollupCollection()).aggregate(pipeline).allowDiskUse(true)));
+    }
+
+    /**
+     * Per-bucket counts for one owner over [from, to), oldest first. Buckets below the rollup
+     * watermarks come from activity_rollups, the rest is aggregated from raw events on the fly.
+     */
+    public List<ActivityCounts> counts(String ownerId, Granularity granularity, Instant from, Instant to) {
+        from = from.truncatedTo(unit(granularity));
+        Instant hourMark = Optional.ofNullable(watermark(Granularity.HOUR)).orElse(Instant.EPOCH);
+        if (granularity == Granularity.HOUR) {
+            return hours(ownerId, from, to, hourMark);
+        }
+        Instant dayMark = min(Optional.ofNullable(watermark(Granularity.DAY)).orElse(Instant.EPOCH), hourMark);
+        List<ActivityCounts> days = new ArrayList<>(rolled(ownerId, Granularity.DAY, from, min(to, dayMark)));
+        days.addAll(fold(hours(ownerId, max(from, dayMark), to, hourMark), Granularity.DAY));
+        return days;
+    }
+
+    private List<ActivityCounts> hours(String ownerId, Instant from, Instant to, Instant hourMark) {
+        if (!to.isAfter(from)) {
+            return List.of();
+        }
+        List<ActivityCounts> hours = new ArrayList<>(rolled(ownerId, Granularity.HOUR, from, min(to, hourMark)));
+        Instant liveFrom = max(from, hourMark);
+        if (to.isAfter(liveFrom)) {
+            List<Document> pipeline = List.of(
+                new Document("$match", new Document("ownerId", ownerId).append("createdAt", range(liveFrom, to))),
+                new Document("$group", new Document("_id", new Document("bucket", truncate("$createdAt", "hour"))
+                        .append("action", "$action"))
+                    .append("n", new Document("$sum", 1L))),
+                new Document("$group", new Document("_id", "$_id.bucket")
+                    .append("counts", new Document("$push", new Document("k", "$_id.action").append("v", "$n")))
+                    .append("total", new Document("$sum", "$n"))),
+                new Document("$sort", new Document("_id", 1)));
+            for (Document d : mongo.getCollection(mongo.getCollectionName(ActivityLog.class)).aggregate(pipeline)) {
+                hours.add(new ActivityCounts(d.getDate("_id").toInstant(), Granularity.HOUR, actionCounts(d), total(d)));
+            }
+        }
+        return hours;
+    }
+
+    private List<ActivityCounts> rolled(String ownerId, Granularity granularity, Instant from, Instant to) {
+        if (!to.isAfter(from)) {
+            return List.of();
+        }
+        Query q = Query.query(Criteria.where("ownerId").is(ownerId).and("granularity").is(granularity)
+                .and("bucketStart").gte(from).lt(to))
+            .with(Sort.by("bucketStart"));
+        return mongo.find(q, ActivityRollup.class).stream()
+            .map(r -> new ActivityCounts(r.getBucketStart(), granularity, r.getCounts(), r.getTotal()))
+            .toList();
+    }
+
+    // sums consecutive finer buckets into coarser ones; input is ordered by start
+    static List<ActivityCounts> fold(List<ActivityCounts> buckets, Granularity granularity) {
+        Map<Instant, ActivityCounts> folded = new LinkedHashMap<>();
+        for (ActivityCounts b : buckets) {
+            ActivityCounts into = folded.computeIfAbsent(b.getStart().truncatedTo(unit(granularity)),
+                start -> new ActivityCounts(start, granularity, new TreeMap<>(), 0));
+            b.getCounts().forEach((action, n) -> into.getCounts().merge(action, n, Long::sum));
+            into.setTotal(into.getTotal() + b.getTotal());
+        }
+        return new ArrayList<>(folded.values());
+    }
+
+    private int upsert(Granularity granularity, Iterable<Document> buckets) {
+        BulkOperations bulk = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class);
+        Instant expiresAt = granularity == Granularity.HOUR ? Instant.now().plus(cfg.getHourlyRetention()) : null;
+        int n = 0;
+        for (Document b : buckets) {
+            Document key = b.get("_id", Document.class);
+            String ownerId = key.getString("ownerId");
+            Instant start = key.getDate("bucket").toInstant();
+            bulk.upsert(Query.query(Criteria.where("_id").is(ownerId + "|" + granularity + "|" + start.toEpochMilli())),
+                new Update().set("ownerId", ownerId).set("granularity", granularity).set("bucketStart", start)
+                    .set("counts", actionCounts(b)).set("total", total(b)).set("expiresAt", expiresAt));
+            n++;
+        }
+        if (n > 0) {
+            bulk.execute();
+        }
+        return n;
+    }
+
+    // the shared second $group: one document per (owner, bucket) with its action counts
+    private static Document regroup() {
+        return new Document("$group", new Document("_id", new Document("ownerId", "$_id.ownerId").append("bucket", "$_id.bucket"))
+            .append("counts", new Document("$push", new Document("k", "$_id.action").append("v", "$n")))
+            .append("total", new Document("$sum", "$n")));
+    }
+
+    private static long total(Document bucket) {
+        return ((Number) bucket.get("total")).longValue();
+    }
+
+    private static Map<String, Long> actionCounts(Document bucket) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Document kv : bucket.getList("counts", Document.class)) {
+            counts.merge(String.valueOf(kv.get("k")), ((Number) kv.get("v")).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    private Instant watermark(Granularity granularity) {
+        Document state = mongo.getCollection(STATE).find(new Document("_id", granularity.name())).first();
+        return state == null ? null : state.getDate("until").toInstant();
+    }
+
+    private void setWatermark(Granularity granularity, Instant until) {
+        mongo.upsert(Query.query(Criteria.where("_id").is(granularity.name())),
+            new Update().set("until", until), STATE);
+    }
+
+    private Optional<Instant> earliestRaw() {
+        Document first = mongo.getCollection(mongo.getCollectionName(ActivityLog.class)).find()
+            .sort(new Document("createdAt", 1)).projection(new Document("createdAt", 1)).first();
+        return Optional.ofNullable(first).map(d -> d.getDate("createdAt").toInstant());
+    }
+
+    private Optional<Instant> earliestHourly() {
+        Document first = mongo.getCollection(rollupCollection()).find(new Document("granularity", Granularity.HOUR.name()))
+            .sort(new Document("bucketStart", 1)).projection(new Document("bucketStart", 1)).first();
+        return Optional.ofNullable(first).map(d -> d.getDate("bucketStart").toInstant());
+    }
+
+    private String rollupCollection() {
+        return mongo.getCollectionName(ActivityRollup.class);
+    }
+
+    private static Document range(Instant from, Instant to) {
+        return new Document("$gte", Date.from(from)).append("$lt", Date.from(to));
+    }
+
+    private static Document truncate(String field, String unit) {
+        return new Document("$dateTrunc", new Document("date", field).append("unit", unit));
+    }
+
+    private static ChronoUnit unit(Granularity granularity) {
+        return granularity == Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
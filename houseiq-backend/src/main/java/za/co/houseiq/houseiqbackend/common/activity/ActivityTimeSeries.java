@@ -0,0 +1,190 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.CollectionOptions.TimeSeriesOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.common.MongoIndexes;
+import za.co.houseiq.houseiqbackend.config.ActivityStorageProperties;
+
+/**
+ * Keeps activity_logs a time-series collection (metaField ownerId, timeField createdAt) whose raw
+ * events expire after activity.storage.raw-retention. The collection is prepared while the context
+ * starts, before ActivityLogWriter (which depends on this bean) can make Mongo create a plain one.
+ * A plain collection left by an older release is renamed to activity_logs_legacy. Once the app is
+ * ready, the legacy events still within retention are copied back in the background and the older
+ * ones are rolled up, then the rollup job starts. The copy records its progress in
+ * activity_migrations under a lease, so a restart (of any instance) resumes it; when it is done the
+ * legacy collection can be dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityTimeSeries {
+    static final String LEGACY_SUFFIX = "_legacy";
+    static final String MIGRATIONS = "activity_migrations";
+    private static final int COPY_BATCH = 1_000;
+    private static final Duration LEASE = Duration.ofMinutes(10);  // renewed per batch; a dead instance's copy is resumed after it
+
+    private final MongoTemplate mongo;
+    private final ActivityStorageProperties cfg;
+    private final ActivityRollups rollups;
+
+    @PostConstruct
+    public void prepare() {
+        try {
+            ensure();
+        } catch (RuntimeException e) {
+            log.warn("Could not prepare the activity time-series collection: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        Thread.ofVirtual().name("activity-time-series").start(() -> {
+            try {
+                if (migrate()) {
+                    rollups.start();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not migrate the legacy activity log: {}", e.getMessage());
+            }
+        });
+    }
+
+    void ensure() {
+        String name = mongo.getCollectionName(ActivityLog.class);
+        Document info = collectionInfo(name);
+        if (info != null && !"timeseries".equals(info.getString("type"))) {
+            String legacy = name + LEGACY_SUFFIX;
+            if (collectionInfo(legacy) != null) {
+                log.warn("{} is a plain collection but {} still exists; drop or merge {} to switch to time series", name, legacy, legacy);
+                return;
+            }
+            mongo.getCollection(name).renameCollection(new MongoNamespace(mongo.getDb().getName(), legacy));
+            log.info("Renamed plain {} to {} before switching to a time-series collection", name, legacy);
+            info = null;
+        }
+
+        long expireAfter = cfg.getRawRetention().toSeconds();
+        if (info == null) {
+            mongo.createCollection(ActivityLog.class, CollectionOptions.empty().timeSeries(
+                TimeSeriesOptions.timeSeries("createdAt").metaField("ownerId")
+                    .granularity(cfg.getGranularity()).expireAfter(cfg.getRawRetention())));
+        } else if (!Long.valueOf(expireAfter).equals(asLong(info.get("options", Document.class).get("expireAfterSeconds")))) {
+            mongo.getDb().runCommand(new Document("collMod", name).append("expireAfterSeconds", expireAfter));
+            log.info("Set {} expireAfterSeconds to {}", name, expireAfter);
+        }
+        MongoIndexes.ensure(mongo, ActivityLog.class);
+        MongoIndexes.ensure(mongo, ActivityRollup.class);
+    }
+
+    /**
+     * Copies and rolls up activity_logs_legacy if it has not been done yet; false while another
+     * instance holds the migration, which then starts the rollup job itself.
+     */
+    boolean migrate() {
+        String target = mongo.getCollectionName(ActivityLog.class);
+        String legacy = target + LEGACY_SUFFIX;
+        if (collectionInfo(legacy) == null) {
+            return true;
+        }
+        MongoCollection<Document> progress = mongo.getCollection(MIGRATIONS);
+        Document state = claim(progress, legacy);
+        if (state == null) {
+            return !inProgress(progress, legacy);
+        }
+
+        // recent legacy events become raw events again, in _id order from where the last run stopped
+        MongoCollection<Document> from = mongo.getCollection(legacy);
+        MongoCollection<Document> to = mongo.getCollection(target);
+        Document recent = new Document("createdAt", new Document("$gte", state.getDate("cutoff")));
+        if (state.get("lastId") != null) {
+            recent.append("_id", new Document("$gt", state.get("lastId")));
+        }
+        List<Document> batch = new ArrayList<>(COPY_BATCH);
+        long copied = 0;
+        for (Document d : from.find(recent).sort(new Document("_id", 1))) {
+            batch.add(d);
+            if (batch.size() == COPY_BATCH) {
+                copied += copy(batch, to, progress, legacy);
+                batch = new ArrayList<>(COPY_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            copied += copy(batch, to, progress, legacy);
+        }
+
+        // the whole legacy range is rolled up per hour; buckets are upserted whole, so a rerun is harmless
+        Document first = from.find(new Document("createdAt", new Document("$ne", null)))
+            .sort(new Document("createdAt", 1)).projection(new Document("createdAt", 1)).first();
+        if (first != null) {
+            rollups.rollupHours(legacy, first.getDate("createdAt").toInstant(), Instant.now());
+        }
+        progress.updateOne(new Document("_id", legacy), new Document("$set", new Document("done", true)).append("$unset", new Document("leaseUntil", "")));
+        log.info("Copied {} recent events from {} into {} and rolled up the rest; {} can be dropped", copied, legacy, target, legacy);
+        return true;
+    }
+
+    // the progress document, taken under a fresh lease; null when the migration is done or leased elsewhere
+    private Document claim(MongoCollection<Document> progress, String legacy) {
+        Instant now = Instant.now();
+        Date cutoff = Date.from(now.minus(cfg.getRawRetention()).truncatedTo(ChronoUnit.HOURS));     // whole hours, the rollup redoes them
+        try {
+            return progress.findOneAndUpdate(
+                Filters.and(Filters.eq("_id", legacy), Filters.ne("done", true),
+                    Filters.or(Filters.exists("leaseUntil", false), Filters.lt("leaseUntil", Date.from(now)))),
+                Updates.combine(Updates.set("leaseUntil", Date.from(now.plus(LEASE))), Updates.setOnInsert("cutoff", cutoff)),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        } catch (MongoCommandException | MongoWriteException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                return null;                                    // exists, but done or leased: the upsert lost
+            }
+            throw e;
+        }
+    }
+
+    private static boolean inProgress(MongoCollection<Document> progress, String legacy) {
+        Document state = progress.find(new Document("_id", legacy)).first();
+        return state != null && !state.getBoolean("done", false);
+    }
+
+    // an unordered insert, then the resume point: a crash in between repeats at most this batch
+    private static int copy(List<Document> batch, MongoCollection<Document> to, MongoCollection<Document> progress, String legacy) {
+        to.insertMany(batch, new InsertManyOptions().ordered(false));
+        progress.updateOne(new Document("_id", legacy), Updates.combine(
+            Updates.set("lastId", batch.get(batch.size() - 1).get("_id")),
+            Updates.set("leaseUntil", Date.from(Instant.now().plus(LEASE)))));
+        return batch.size();
+    }
+
+    private Document collectionInfo(String name) {
+        return mongo.getDb().listCollections().filter(new Document("name", name)).first();
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number n ? n.longValue() : null;
+    }
+}
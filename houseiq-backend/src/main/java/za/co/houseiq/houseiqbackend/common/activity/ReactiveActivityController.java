@@ -0,0 +1,50 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.Authentication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
+
+// /api/activity on the reactive stack, same contract as ActivityController
+@RestController
+@RequestMapping("/api/activity")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveActivityController {
+    private final ReactiveActivityLogService service;
+
+    @GetMapping
+    public Flux<ActivityLog> list(Authentication auth,
+                                  @RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.list(ownerId, page, size);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<PageResponse<ActivityLog>> page(Authentication auth,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.page(ownerId, cursor, size);
+    }
+
+    // hour/day buckets: rollups for older ranges, raw events for recent ones
+    @GetMapping("/counts")
+    public Mono<List<ActivityCounts>> counts(Authentication auth,
+                                  @RequestParam(defaultValue = "day") String granularity,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.counts(ownerId, granularity, from, to);
+    }
+}
@@ -0,0 +1,18 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.time.Instant;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveActivityLogRepository extends ReactiveMongoRepository<ActivityLog, String> {
+    Flux<ActivityLog> findByOwnerIdOrderByCreatedAtDesc(String ownerId, Pageable pageable);
+
+    // keyset pages (PageCursor): newest first with _id as tie-breaker, both served by owner_created_id_idx
+    Flux<ActivityLog> findByOwnerIdOrderByCreatedAtDescIdDesc(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    Flux<ActivityLog> findPageAfter(String ownerId, Instant createdAt, ObjectId id, Pageable pageable);
+}
@@ -0,0 +1,55 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import za.co.houseiq.houseiqbackend.common.PageCursor;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
+
+// non-blocking ActivityLogService for the reactive profile
+@Service
+@RequiredArgsConstructor
+public class ReactiveActivityLogService {
+    private final ReactiveActivityLogRepository repo;
+    private final ActivityLogWriter writer;     // shared write-behind queue
+    private final ActivityRollups rollups;      // blocking MongoTemplate aggregations
+
+    // queued without waiting, safe on the event loop
+    public Mono<Void> record(String ownerId, String action, Map<String, Object> details) {
+        return Mono.fromRunnable(() -> writer.trySubmit(ActivityLog.builder()
+            .ownerId(ownerId)
+            .action(action)
+            .details(details)
+            .createdAt(Instant.now())
+            .build()));
+    }
+
+    // like ActivityLogService, reads do not wait for queued entries to be written
+    public Flux<ActivityLog> list(String ownerId, int page, int size) {
+        return repo.findByOwnerIdOrderByCreatedAtDesc(ownerId, PageRequest.of(page, size));
+    }
+
+    public Mono<PageResponse<ActivityLog>> page(String ownerId, String cursor, int size) {
+        return Mono.fromCallable(() -> PageCursor.decode(cursor))
+            .map(after -> repo.findPageAfter(ownerId, after.createdAt(), after.id(), PageCursor.probe(size)))
+            .defaultIfEmpty(repo.findByOwnerIdOrderByCreatedAtDescIdDesc(ownerId, PageCursor.probe(size)))
+            .flatMap(Flux::collectList)
+            .map(fetched -> PageCursor.page(fetched, size, ActivityLog::getCreatedAt, ActivityLog::getId));
+    }
+
+    public Mono<List<ActivityCounts>> counts(String ownerId, String granularity, Instant from, Instant to) {
+        return Mono.fromCallable(() -> {
+                ActivityRollup.Granularity g = ActivityLogService.granularity(granularity);
+                Instant end = to == null ? Instant.now() : to;
+                Instant start = from == null ? end.minus(ActivityLogService.DEFAULT_RANGE) : from;
+                return rollups.counts(ownerId, g, start, end);
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
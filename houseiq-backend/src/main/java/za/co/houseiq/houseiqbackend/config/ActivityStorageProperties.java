@@ -0,0 +1,19 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "activity.storage")           // bind activity.storage.*
+public class ActivityStorageProperties {
+    private Duration rawRetention = Duration.ofDays(30);        // time-series expireAfterSeconds for raw events
+    private Granularity granularity = Granularity.MINUTES;      // time-series bucketing, per owner
+    private boolean rollupEnabled = true;
+    private Duration rollupInterval = Duration.ofMinutes(15);   // how often completed hours/days are rolled up
+    private Duration rollupGrace = Duration.ofMinutes(1);       // wait for write-behind stragglers before closing an hour
+    private Duration hourlyRetention = Duration.ofDays(180);    // hourly rollups expire, daily ones are kept
+}
@@ -0,0 +1,22 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "activity.writer")            // bind activity.writer.*
+public class ActivityWriterProperties {
+    /** What record() does when the queue is full */
+    public enum OverflowPolicy { DROP, BLOCK, SAMPLE }
+
+    private int queueCapacity = 10_000;                         // entries waiting to be written
+    private int batchSize = 500;                                // flush as soon as this many are queued
+    private Duration flushInterval = Duration.ofMillis(200);    // ...or after this long
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private Duration blockTimeout = Duration.ofMillis(50);      // BLOCK: max wait for space, then drop
+    private int sampleRate = 10;                                // SAMPLE: keep 1 in N once the queue is half full
+    private Duration shutdownTimeout = Duration.ofSeconds(10);  // max wait for the final flush
+}
@@ -0,0 +1,15 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "predictions.feature-migration")     // bind predictions.feature-migration.*
+public class FeatureMigrationProperties {
+    private boolean enabled = true;                                    // rewrite legacy map-shaped features on startup
+    private int batchSize = 1000;                                      // documents per read and per bulk write
+    private Duration pause = Duration.ofMillis(50);                    // between batches, to stay out of the way of live traffic
+}
@@ -1,25 +1,32 @@
 package za.co.houseiq.houseiqbackend.config;
 
-import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AbstractAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)   // reactive mode uses JwtAuthWebFilter
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwt;
+    private final Timer authenticated;      // houseiq.auth.filter: token check incl. the verified-token cache
+    private final Timer rejected;
+
+    public JwtAuthFilter(JwtService jwt, MeterRegistry meters) {
+        this.jwt = jwt;
+        this.authenticated = authTimer(meters, "success");
+        this.rejected = authTimer(meters, "error");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
@@ -28,23 +35,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String auth = req.getHeader("Authorization");
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
+            long start = System.nanoTime();
             try {
-                Claims c = jwt.parse(token);
-                String userId = c.getSubject();
-                String role = String.valueOf(c.get("role", String.class));
-
-                var authToken = new AbstractAuthenticationToken(
-                    List.of(new SimpleGrantedAuthority("ROLE_" + (role == null ? "USER" : role)))
-                ) {
-                    @Override public Object getCredentials() { return token; }
-                    @Override public Object getPrincipal() { return userId; }
-                };
-                authToken.setAuthenticated(true);
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                SecurityContextHolder.getContext().setAuthentication(jwt.authenticate(token));
+                authenticated.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             } catch (Exception ignored) {
                 // invalid token → stay unauthenticated; Security will block later
+                rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
         }
         chain.doFilter(req, res);
     }
+
+    private static Timer authTimer(MeterRegistry meters, String outcome) {
+        return Timer.builder("houseiq.auth.filter").tag("outcome", outcome).publishPercentileHistogram().register(meters);
+    }
 }
@@ -0,0 +1,38 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link JwtAuthFilter}: puts the bearer token's Authentication into the
+ * Reactor context for the rest of the chain. Registered by ReactiveSecurityConfig, not as a bean,
+ * so it only runs inside the security filter chain.
+ */
+@RequiredArgsConstructor
+public class JwtAuthWebFilter implements WebFilter {
+
+    private final JwtService jwt;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String auth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (auth != null && auth.startsWith("Bearer ")) {
+            Authentication authentication;
+            try {
+                authentication = jwt.authenticate(auth.substring(7));
+            } catch (Exception ignored) {
+                // invalid token → stay unauthenticated; Security will block later
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        }
+        return chain.filter(exchange);
+    }
+}
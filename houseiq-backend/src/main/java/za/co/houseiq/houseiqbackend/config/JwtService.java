@@ -1,16 +1,34 @@
 package za.co.houseiq.houseiqbackend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtService {
@@ -20,12 +38,43 @@ public class JwtService {
     @Value("${jwt.ttl.seconds:86400}") // 24h
     private long ttlSeconds;
 
+    @Value("${jwt.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private final MeterRegistry meters;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter verifySaved;                      // estimated seconds of verification skipped by hits
+    private final Timer verifyTime;
+
     private Key key;
+    private JwtParser parser;                               // immutable and thread-safe, built once
+    private Cache<ByteBuffer, Verified> verified;           // keyed by SHA-256 of the token, never the token itself
+
+    // what a verified token boils down to; the entry lives until the token's own exp
+    record Verified(String subject, String role, Authentication authentication, Instant expiresAt) {}
+
+    public JwtService(MeterRegistry meters) {
+        this.meters = meters;
+        this.cacheHits = Counter.builder("houseiq.auth.jwt.cache.hits").register(meters);
+        this.cacheMisses = Counter.builder("houseiq.auth.jwt.cache.misses").register(meters);
+        this.verifySaved = Counter.builder("houseiq.auth.jwt.cache.saved").baseUnit("seconds").register(meters);
+        this.verifyTime = Timer.builder("houseiq.auth.jwt.verify").register(meters);
+    }
 
     @PostConstruct
     void init() {
         // Secret to HMAC key; for dev we accept shorter secrets
         key = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verified = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(Expiry.creating((ByteBuffer k, Verified v) -> Duration.between(Instant.now(), v.expiresAt())))
+            .build();
+        Gauge.builder("houseiq.auth.jwt.cache.size", verified, Cache::estimatedSize).register(meters);
     }
 
     public String issue(String subject, Map<String, Object> claims) {
@@ -40,7 +89,74 @@ public class JwtService {
     }
 
     public io.jsonwebtoken.Claims parse(String jwt) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-            .parseClaimsJws(jwt).getBody();
+        return parser.parseClaimsJws(jwt).getBody();
+    }
+
+    // validated token → authenticated principal (userId) with ROLE_<role>; shared by the servlet and reactive filters.
+    // Throws a JwtException when the token is invalid or expired. Only valid tokens are cached.
+    public Authentication authenticate(String token) {
+        if (!cacheEnabled) {
+            return verify(token).authentication();
+        }
+        ByteBuffer digest = digest(token);
+        Verified hit = verified.getIfPresent(digest);
+        if (hit != null) {
+            cacheHits.increment();
+            verifySaved.increment(verifyTime.mean(TimeUnit.SECONDS));
+            return hit.authentication();
+        }
+        cacheMisses.increment();
+        Verified v = verify(token);
+        verified.put(digest, v);
+        return v.authentication();
+    }
+
+    private Verified verify(String token) {
+        long start = System.nanoTime();
+        io.jsonwebtoken.Claims c = parse(token);
+        verifyTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        String userId = c.getSubject();
+        String role = c.get("role", String.class);
+        Instant exp = c.getExpiration() != null ? c.getExpiration().toInstant() : Instant.now().plusSeconds(ttlSeconds);
+        return new Verified(userId, role, new JwtAuthentication(userId, role), exp);
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);             // every JRE ships SHA-256
+        }
+    }
+
+    // shared between requests via the cache, so it cannot be changed after construction.
+    // Credentials are not kept: the raw token must not outlive the request in memory.
+    private static final class JwtAuthentication extends AbstractAuthenticationToken {
+        private final String userId;
+
+        JwtAuthentication(String userId, String role) {
+            super(List.of(new SimpleGrantedAuthority("ROLE_" + (role == null ? "USER" : role))));
+            this.userId = userId;
+            super.setAuthenticated(true);
+        }
+
+        @Override public Object getCredentials() { return null; }
+        @Override public Object getPrincipal() { return userId; }
+
+        @Override
+        public void setAuthenticated(boolean authenticated) {
+            throw new UnsupportedOperationException("JWT authentication is immutable");
+        }
+
+        @Override
+        public void setDetails(Object details) {
+            throw new UnsupportedOperationException("JWT authentication is immutable");
+        }
+
+        @Override
+        public void eraseCredentials() {
+            // nothing to erase
+        }
     }
 }
@@ -1,7 +1,11 @@
 package za.co.houseiq.houseiqbackend.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import lombok.Data;
 
 @Data                                                               // Lombok auto init
@@ -10,4 +14,129 @@ import lombok.Data;
 public class MlClientProperties {                                   // automatically set baseUrl from application.yml
     /** Base URL of the FastAPI ML service, e.g. http://ml:8000 */
     private String baseUrl;                                         // holds ML service base URL
+
+    /** ML replicas balanced client-side; empty means baseUrl only */
+    private List<String> endpoints = new ArrayList<>();             // ml.endpoints=http://ml-1:8000,http://ml-2:8000
+
+    /** Replica selection, health probing and slow start for ml.endpoints (ml.balancing.*) */
+    private Balancing balancing = new Balancing();
+
+    /** Outbound HTTP transport to the ML service: pool, timeouts, protocol, compression (ml.http.*) */
+    private Http http = new Http();
+
+    /** Encoding of scoring calls: JSON, or the compact binary format when the ML service offers it (ml.wire.*) */
+    private Wire wire = new Wire();
+
+    /** Hedged second request for slow single predictions (ml.hedging.*) */
+    private Hedging hedging = new Hedging();
+
+    /** Fail fast with 503 while the ML service keeps failing (ml.circuit-breaker.*) */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /** Where predictions are computed: HTTP calls to the ML service, or the in-JVM forest with HTTP as fallback */
+    public enum Engine { HTTP, LOCAL }
+
+    private Engine engine = Engine.HTTP;                            // ml.engine
+
+    /** Exported forest for ml.engine=local (ml.local.*) */
+    private Local local = new Local();
+
+    /** Precomputed price grid answering most predictions without the model (ml.grid.*) */
+    private Grid grid = new Grid();
+
+    /** Prediction result cache in front of the ML service (ml.cache.*) */
+    private Cache cache = new Cache();
+
+    /** Single-flight coalescing of identical in-flight requests (ml.coalescing.*) */
+    private Coalescing coalescing = new Coalescing();
+
+    /** Opt-in micro-batching of concurrent calls into /predict/batch (ml.batching.*) */
+    private Batching batching = new Batching();
+
+    @Data
+    public static class Http {
+        private int maxConnections = 200;                           // pooled connections to the ML service
+        private int pendingAcquireMaxCount = 1000;                  // callers waiting for a connection before 503
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);   // max wait for a connection before 503
+        private Duration maxIdleTime = Duration.ofSeconds(4);       // below uvicorn's 5s keep-alive, so the server never closes first
+        private Duration maxLifeTime = Duration.ofMinutes(5);       // recycle connections so new replicas get traffic
+        private Duration evictInterval = Duration.ofSeconds(5);     // background sweep of idle/expired connections
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(10);      // max silence between two reads on a connection
+        private Duration responseTimeout = Duration.ofSeconds(10);  // max wait for the response after the request is sent
+        private boolean h2c = false;                                // offer HTTP/2 cleartext upgrade, HTTP/1.1 otherwise
+        private boolean acceptCompressed = true;                    // send Accept-Encoding: gzip and inflate responses
+        private DataSize compressRequestsOver = DataSize.ofKilobytes(32);  // gzip /predict/batch bodies at least this big
+    }
+
+    @Data
+    public static class Balancing {
+        private Duration probeInterval = Duration.ofSeconds(5);     // GET /health on every replica
+        private Duration probeTimeout = Duration.ofSeconds(1);
+        private int ejectAfterFailures = 3;                         // consecutive failed probes before a replica gets no traffic
+        private Duration slowStart = Duration.ofSeconds(30);        // a returning replica ramps up to its full share over this
+    }
+
+    public enum WireFormat { JSON, BINARY }
+
+    @Data
+    public static class Wire {
+        private WireFormat format = WireFormat.JSON;                // ml.wire.format; BINARY falls back to JSON until negotiated
+        private Duration renegotiateAfter = Duration.ofSeconds(30); // retry /health negotiation after a failure or a rejected call
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;                            // ml.hedging.enabled
+        private double percentile = 0.95;                           // hedge once a call is slower than this share of recent calls
+        private Duration initialDelay = Duration.ofMillis(200);     // used until min-samples latencies have been seen
+        private Duration minDelay = Duration.ofMillis(10);          // never hedge sooner than this
+        private long minSamples = 100;
+        private double maxRatio = 0.1;                              // hedges per call, so a slow ML service gets at most 10% extra load
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = true;                             // ml.circuit-breaker.enabled
+        private int windowSize = 50;                                // outcomes of the last N calls
+        private int minimumCalls = 20;                              // no decision before this many calls in the window
+        private double failureRateThreshold = 0.5;                  // open at this failure share
+        private Duration openDuration = Duration.ofSeconds(10);     // fail fast with 503 this long, then let probes through
+        private int halfOpenCalls = 3;                              // probes that must all succeed to close again
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;                             // ml.cache.enabled
+        private long maxSize = 10_000;                              // L1 entries kept in-process
+        private Duration ttl = Duration.ofMinutes(30);              // L1 time-to-live after write
+        private double areaStep = 0.01;                             // area_sqm is rounded to this step when building keys
+        private boolean sharedEnabled = false;                      // L2 in the prediction_cache Mongo collection
+        private Duration sharedTtl = Duration.ofHours(24);          // L2 expiry, enforced by a TTL index
+    }
+
+    @Data
+    public static class Coalescing {
+        private boolean enabled = true;                             // ml.coalescing.enabled
+    }
+
+    @Data
+    public static class Batching {
+        private boolean enabled = false;                            // ml.batching.enabled
+        private Duration window = Duration.ofMillis(5);             // how long the first call of a batch waits for company
+        private int maxBatchSize = 64;                              // a batch is sent as soon as it is this big
+        private int maxQueueDepth = 1024;                           // calls beyond this are rejected with 503
+    }
+
+    @Data
+    public static class Local {
+        private String modelPath = "model_forest.bin";              // written by houseiq-ml/train.py
+    }
+
+    @Data
+    public static class Grid {
+        private boolean enabled = false;                            // ml.grid.enabled
+        private String path = "price_grid.bin";                     // written by houseiq-ml/build_price_grid.py
+        private double maxRelativeGap = 0.02;                       // neighbouring samples further apart than this go to the live model
+    }
 }
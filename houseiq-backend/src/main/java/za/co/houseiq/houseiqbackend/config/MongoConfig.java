@@ -0,0 +1,16 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import za.co.houseiq.houseiqbackend.prediction.model.PredictionConverters;
+
+@Configuration
+public class MongoConfig {
+
+    // replaces Boot's default (empty) conversions; used by both MongoTemplate and ReactiveMongoTemplate
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(PredictionConverters.all());
+    }
+}
@@ -0,0 +1,15 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "auth.password")              // bind auth.password.*
+public class PasswordHashingProperties {
+    private int threads = 0;                                    // BCrypt workers, 0 = one per CPU
+    private int queueCapacity = 100;                            // hashes waiting for a worker before logins get 503
+    private Duration timeout = Duration.ofSeconds(5);           // max wait (queue + hash) per request
+}
@@ -0,0 +1,18 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "predictions.import")         // bind predictions.import.*
+public class PredictionImportProperties {
+    private int chunkSize = 500;                                // rows per ML batch call and per bulk insert
+    private int concurrency = 4;                                // chunks being scored at once, across all imports
+    private int maxErrors = 1000;                               // row-level errors kept per job, the rest are only counted
+    private Duration retention = Duration.ofHours(1);           // finished jobs stay pollable this long
+    private DataSize maxUploadSize = DataSize.ofMegabytes(200); // largest upload spooled to disk, a bigger one is rejected
+}
@@ -0,0 +1,31 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Reactive profile: handler methods that return a plain value (auth, batch, import status, admin) run
+ * on the application task executor (spring.task.execution.*) instead of the Netty event loop, where
+ * their Mongo calls, BCrypt waits and MlClient.block() would stall or be rejected. Boot only does this
+ * by itself when virtual threads are enabled. Handlers returning Mono/Flux stay on the event loop.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBlockingConfig implements WebFluxConfigurer {
+
+    private final AsyncTaskExecutor executor;
+
+    public ReactiveBlockingConfig(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(executor);
+    }
+}
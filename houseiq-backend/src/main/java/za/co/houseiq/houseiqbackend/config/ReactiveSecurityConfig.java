@@ -0,0 +1,73 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+
+/**
+ * Security for the reactive profile (WebFlux on Netty). Same rules as {@link SecurityConfig}:
+ * stateless JWT bearer auth, open auth/health endpoints, ADMIN-only /api/admin.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // backs reactiveAuthManager; AuthController.login checks passwords itself through PasswordHasher
+    @Bean
+    AuthenticationManager authManager(UserDetailsService users, PasswordEncoder encoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(users);
+        provider.setPasswordEncoder(encoder);
+        return new ProviderManager(provider);
+    }
+
+    // also keeps Boot from creating its default in-memory user
+    @Bean
+    ReactiveAuthenticationManager reactiveAuthManager(AuthenticationManager authManager) {
+        return new ReactiveAuthenticationManagerAdapter(authManager);
+    }
+
+    @Bean
+    SecurityWebFilterChain reactiveFilterChain(ServerHttpSecurity http, JwtService jwt,
+                                               CorsConfigurationSource reactiveCorsConfigurationSource) {
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource))
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())   // stateless, no session
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN))) // 403 like the servlet chain
+            .authorizeExchange(reg -> reg
+                .pathMatchers("/actuator/health", "/actuator/health/**", "/api/health").permitAll()
+                .pathMatchers("/actuator/**").hasRole("ADMIN")     // metrics and prometheus: scrape with an ADMIN token
+                .pathMatchers(HttpMethod.POST, "/api/auth/register", "/api/auth/login").permitAll()
+                .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .pathMatchers("/api/admin/**").hasRole("ADMIN")
+                .anyExchange().authenticated()
+            )
+            .addFilterAt(new JwtAuthWebFilter(jwt), SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+}
@@ -0,0 +1,22 @@
+package za.co.houseiq.houseiqbackend.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "scoring.jobs")               // bind scoring.jobs.*
+public class ScoringJobProperties {
+    private boolean workersEnabled = true;                      // false: this instance only accepts and serves jobs
+    private int workers = 2;                                    // jobs processed at once on this instance
+    private Duration pollInterval = Duration.ofSeconds(2);      // idle worker wait between claim attempts
+    private Duration leaseDuration = Duration.ofSeconds(60);    // a job whose lease is not renewed this long is reclaimed
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private int maxAttempts = 3;                                // claims before a job that keeps losing its worker is failed
+    private int chunkSize = 500;                                // rows per ML batch call and per write
+    private int maxItems = 50_000;                              // items per submitted job (stored in the job document)
+    private int maxErrors = 1000;                               // row-level errors kept per job
+    private Duration retention = Duration.ofDays(7);            // finished jobs expire after this
+}
@@ -1,5 +1,6 @@
 package za.co.houseiq.houseiqbackend.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,6 +13,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)   // reactive mode: ReactiveSecurityConfig
 public class SecurityConfig {
 
     private final CorsConfigurationSource corsConfigurationSource;
@@ -36,9 +38,11 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource))
             .authorizeHttpRequests(reg -> reg
-                .requestMatchers("/actuator/**", "/api/health").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/api/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")     // metrics and prometheus: scrape with an ADMIN token
                 .requestMatchers(HttpMethod.POST, "/api/auth/register", "/api/auth/login").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwt, org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
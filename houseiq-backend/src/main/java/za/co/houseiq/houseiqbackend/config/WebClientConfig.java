@@ -1,18 +1,48 @@
 package za.co.houseiq.houseiqbackend.config;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration                                              // create bean for injection
 public class WebClientConfig {
+    @Bean(destroyMethod = "dispose")                        // closes pooled connections on shutdown
+    public ConnectionProvider mlConnectionProvider(MlClientProperties props) {
+        MlClientProperties.Http http = props.getHttp();
+        return ConnectionProvider.builder("ml")
+            .maxConnections(http.getMaxConnections())
+            .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+            .maxIdleTime(http.getMaxIdleTime())
+            .maxLifeTime(http.getMaxLifeTime())
+            .evictInBackground(http.getEvictInterval())
+            .metrics(true)                                  // reactor.netty.connection.provider.* gauges, name=ml
+            .build();
+    }
+
     @Bean                                                   // registers a singleton WebClient for injection
-    public WebClient webClient() {
+    public WebClient webClient(ConnectionProvider mlConnectionProvider, MlClientProperties props) {
+        MlClientProperties.Http http = props.getHttp();
+        HttpClient client = HttpClient.create(mlConnectionProvider)                 // uses Reactor Netty as HTTP engine
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+            .responseTimeout(http.getResponseTimeout())
+            .doOnConnected(c -> c.addHandlerLast(new ReadTimeoutHandler(http.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)))
+            .compress(http.isAcceptCompressed())
+            .metrics(true, Function.identity());            // reactor.netty.http.client.* timers, tagged by path
+        if (http.isH2c()) {
+            client = client.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);         // upgrade when the server agrees
+        }
         return WebClient.builder()
-            .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))   // uses Reactor Netty as HTTP engine
+            .clientConnector(new ReactorClientHttpConnector(client))
             .exchangeStrategies(ExchangeStrategies.builder()                        // configures codecs and memory limits for encoding and decoding
                 .codecs(c -> c.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))    // cap in-memory to 2mb for JSON responses
                 .build())
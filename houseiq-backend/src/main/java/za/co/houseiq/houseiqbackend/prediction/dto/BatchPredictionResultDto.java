@@ -0,0 +1,20 @@
+package za.co.houseiq.houseiqbackend.prediction.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class BatchPredictionResultDto {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<Item> results;                 // one entry per submitted item, same order as the request
+
+    @Data @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class Item {
+        private int index;                      // position of the item in the request
+        private String status;                  // CREATED / INVALID / FAILED
+        private CreatePredictionDto prediction; // set when status is CREATED
+        private String error;                   // set when status is INVALID or FAILED
+    }
+}
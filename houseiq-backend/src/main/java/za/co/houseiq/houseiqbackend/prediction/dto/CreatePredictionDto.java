@@ -3,11 +3,12 @@ package za.co.houseiq.houseiqbackend.prediction.dto;
 import java.time.Instant;
 import java.util.Map;
 import lombok.*;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
 
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
 public class CreatePredictionDto {
     private String id;
-    private Map<String, Object> features;
+    private PropertyFeatures features;
     private double predicted_price;
     private String model_version;
     private Map<String, Double> explanations;
@@ -0,0 +1,30 @@
+package za.co.houseiq.houseiqbackend.prediction.dto;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.*;
+
+// progress of one CSV import, as returned by POST and GET /api/predictions/import
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ImportJobDto {
+    private String id;
+    private String status;                      // READING / SCORING / COMPLETED / FAILED
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long rowsRead;                      // data rows parsed so far
+    private long rowsSaved;
+    private long rowsInvalid;                   // failed parsing or PredictRequestDto constraints
+    private long rowsFailed;                    // ML or insert failure
+    private long rowsPending;                   // valid rows not scored yet
+    private double rowsPerSecond;               // saved rows over elapsed time
+    private List<RowError> errors;              // first predictions.import.max-errors errors
+    private boolean errorsTruncated;
+    private String error;                       // set when the upload itself broke off (status FAILED)
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class RowError {
+        private long line;                      // line in the file, header is line 1
+        private String status;                  // INVALID / FAILED
+        private String error;
+    }
+}
@@ -0,0 +1,11 @@
+package za.co.houseiq.houseiqbackend.prediction.dto;
+
+import java.util.List;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+// items are validated one by one in the service so that a bad row is reported instead of failing the batch
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class PredictBatchRequestDto {
+    @NotEmpty @Size(max = 500) private List<PredictRequestDto> items;
+}
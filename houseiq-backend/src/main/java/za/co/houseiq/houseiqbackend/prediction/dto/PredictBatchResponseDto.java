@@ -0,0 +1,10 @@
+package za.co.houseiq.houseiqbackend.prediction.dto;
+
+import java.util.List;
+import lombok.*;
+
+// response of the ML service /predict/batch endpoint, one entry per submitted row in the same order
+@Data @NoArgsConstructor @AllArgsConstructor
+public class PredictBatchResponseDto {
+    private List<PredictResponseDto> predictions;
+}
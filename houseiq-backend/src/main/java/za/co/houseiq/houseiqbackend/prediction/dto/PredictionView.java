@@ -1,17 +1,39 @@
 package za.co.houseiq.houseiqbackend.prediction.dto;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import lombok.*;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
 
-@Data @NoArgsConstructor @AllArgsConstructor @Builder
-public class PredictionView {
-    private String id;
-    private String ownerId;
-    private Map<String, Object> features;
-    private double predicted_price;
-    private String model_version;
-    private Instant createdAt;
-    private Instant updatedAt;
-    private int version;
+// history list row: read with a field-projected query (FIELDS), so ownerId, updatedAt, version and the
+// full explanations never leave Mongo. The top factors are stored with each prediction (top()) and
+// projected as they are; GET /api/predictions?view=full still returns whole Predictions
+public record PredictionView(
+        String id,
+        double predictedPrice,
+        String modelVersion,
+        Instant createdAt,
+        PropertyFeatures features,
+        Map<String, Double> explanations) {         // Prediction.topExplanations: TOP_FACTORS largest first
+
+    public static final String FIELDS = "{ 'predictedPrice': 1, 'modelVersion': 1, 'createdAt': 1, 'topExplanations': 1, 'features': 1 }";
+    static final int TOP_FACTORS = 3;
+
+    public static PredictionView of(Prediction p) {
+        return new PredictionView(p.getId(), p.getPredictedPrice(), p.getModelVersion(), p.getCreatedAt(), p.getFeatures(), p.getTopExplanations());
+    }
+
+    /** The TOP_FACTORS largest explanations, largest first; computed when a prediction is written. */
+    public static Map<String, Double> top(Map<String, Double> explanations) {
+        if (explanations == null) {
+            return null;
+        }
+        Map<String, Double> top = new LinkedHashMap<>();
+        explanations.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+            .limit(TOP_FACTORS)
+            .forEach(e -> top.put(e.getKey(), e.getValue()));
+        return top;
+    }
 }
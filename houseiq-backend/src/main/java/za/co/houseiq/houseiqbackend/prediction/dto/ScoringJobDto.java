@@ -0,0 +1,27 @@
+package za.co.houseiq.houseiqbackend.prediction.dto;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.*;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob;
+
+// progress of one scoring job, as returned by /api/predictions/jobs
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ScoringJobDto {
+    private String id;
+    private String kind;                        // ITEMS / REVALUE
+    private String status;                      // QUEUED / RUNNING / COMPLETED / FAILED / CANCELLED
+    private long total;
+    private long processed;
+    private long saved;
+    private long failed;
+    private double rowsPerSecond;               // processed rows over time since the first claim
+    private int attempts;                       // > 1 when the job was reclaimed from a lost worker
+    private boolean cancelRequested;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant heartbeatAt;
+    private Instant finishedAt;
+    private List<ScoringJob.ItemError> errors;
+    private String error;
+}
@@ -0,0 +1,12 @@
+package za.co.houseiq.houseiqbackend.prediction.dto;
+
+import java.util.List;
+import lombok.*;
+
+// either items to score into new predictions, or revalue=true to re-score the caller's whole history;
+// items are checked in the service because the limit is scoring.jobs.max-items
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ScoringJobRequestDto {
+    private List<PredictRequestDto> items;
+    private boolean revalue;
+}
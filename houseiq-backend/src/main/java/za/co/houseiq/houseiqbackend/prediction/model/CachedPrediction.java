@@ -0,0 +1,24 @@
+package za.co.houseiq.houseiqbackend.prediction.model;
+
+import java.time.Instant;
+import java.util.Map;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.*;
+
+@Document("prediction_cache")                           // shared (L2) ML result cache
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class CachedPrediction {
+    @Id
+    private String id;                                  // modelVersion + "|" + canonical feature key
+
+    @Indexed
+    private String modelVersion;                        // used to purge one model version
+
+    private double predictedPrice;
+    private Map<String, Double> explanations;
+
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s")  // Mongo removes the document once expiresAt has passed
+    private Instant expiresAt;
+}
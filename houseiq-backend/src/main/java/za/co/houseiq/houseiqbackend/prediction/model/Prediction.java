@@ -2,13 +2,14 @@ package za.co.houseiq.houseiqbackend.prediction.model;
 
 import java.time.Instant;
 import java.util.Map;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.*;
 
 @Document("predictions")                                                                   // map class to prediction collection
-@CompoundIndex(name = "owner_created_idx", def = "{ 'ownerId': 1, 'createdAt': -1 }")       // Creates a compound index on ownerId (ascending) and createdAt (descending).
+@CompoundIndex(name = "owner_created_id_idx", def = "{ 'ownerId': 1, 'createdAt': -1, '_id': -1 }")  // ownerId asc, createdAt desc, _id desc: page-number and keyset listings
 @Data @Builder @NoArgsConstructor @AllArgsConstructor                                   // Lombok, getters/setters, equals,hashCode,toString, Builder - fluent builder API,
 public class Prediction {
     @Id                               // mongodb id
@@ -16,10 +17,12 @@ public class Prediction {
 
     private String ownerId;            // who issued the prediction (JWT subject)
 
-    private Map<String, Object> features;       // store input as a map (BSON)
+    private PropertyFeatures features;          // model inputs, short-keyed in BSON (PredictionConverters)
     private double predictedPrice;              // model output
     private String modelVersion;                // model version that produced output
     private Map<String, Double> explanations;   // feature explanations (proportions)
+    @JsonIgnore
+    private Map<String, Double> topExplanations;    // largest few explanations, kept for the history listings (PredictionView)
 
     private Instant createdAt;                  // Timestamps
     private Instant updatedAt;
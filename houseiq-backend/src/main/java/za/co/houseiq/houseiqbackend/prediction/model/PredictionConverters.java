@@ -0,0 +1,101 @@
+package za.co.houseiq.houseiqbackend.prediction.model;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+/**
+ * BSON mapping of PropertyFeatures and of whole Prediction reads, registered in MongoConfig.
+ * Features are written as five short-keyed numbers and read from either that or the legacy
+ * { bedrooms, bathrooms, area_sqm, age_years, location_index } map written by older releases, which
+ * PredictionFeatureMigration rewrites in the background. Predictions are read field by field here
+ * because every property the generic mapper converts costs a conversion-service lookup; a history
+ * page reads tens of them. The PredictionView listings read partial Predictions for the same reason
+ * (DTO projections bypass custom converters). Writes still go through the mapper.
+ */
+public final class PredictionConverters {
+    private PredictionConverters() {}
+
+    public static List<Object> all() {
+        return List.of(FeaturesWrite.INSTANCE, FeaturesRead.INSTANCE, PredictionRead.INSTANCE);
+    }
+
+    @WritingConverter
+    public enum FeaturesWrite implements Converter<PropertyFeatures, Document> {
+        INSTANCE;
+
+        @Override
+        public Document convert(PropertyFeatures f) {
+            return new Document(PropertyFeatures.BEDROOMS, f.bedrooms())
+                .append(PropertyFeatures.BATHROOMS, f.bathrooms())
+                .append(PropertyFeatures.AREA_SQM, f.area_sqm())
+                .append(PropertyFeatures.AGE_YEARS, f.age_years())
+                .append(PropertyFeatures.LOCATION_INDEX, f.location_index());
+        }
+    }
+
+    @ReadingConverter
+    public enum FeaturesRead implements Converter<Document, PropertyFeatures> {
+        INSTANCE;
+
+        @Override
+        public PropertyFeatures convert(Document d) {
+            if (isLegacy(d)) {
+                return PropertyFeatures.fromMap(d);
+            }
+            return new PropertyFeatures(
+                PropertyFeatures.intOf(d.get(PropertyFeatures.BEDROOMS)),
+                PropertyFeatures.intOf(d.get(PropertyFeatures.BATHROOMS)),
+                PropertyFeatures.doubleOf(d.get(PropertyFeatures.AREA_SQM)),
+                PropertyFeatures.intOf(d.get(PropertyFeatures.AGE_YEARS)),
+                PropertyFeatures.intOf(d.get(PropertyFeatures.LOCATION_INDEX)));
+        }
+    }
+
+    // keep in step with the fields of Prediction
+    @ReadingConverter
+    public enum PredictionRead implements Converter<Document, Prediction> {
+        INSTANCE;
+
+        @Override
+        public Prediction convert(Document d) {
+            Object id = d.get("_id");
+            Document features = d.get("features", Document.class);
+            return new Prediction(
+                id instanceof ObjectId oid ? oid.toHexString() : (String) id,
+                d.getString("ownerId"),
+                features == null ? null : FeaturesRead.INSTANCE.convert(features),
+                PropertyFeatures.doubleOf(d.get("predictedPrice")),
+                d.getString("modelVersion"),
+                explanations(d.get("explanations", Document.class)),
+                explanations(d.get("topExplanations", Document.class)),
+                instant(d.getDate("createdAt")),
+                instant(d.getDate("updatedAt")),
+                PropertyFeatures.intOf(d.get("version")));
+        }
+    }
+
+    public static boolean isLegacy(Document d) {
+        return !d.containsKey(PropertyFeatures.BEDROOMS) && d.containsKey("bedrooms");
+    }
+
+    private static Map<String, Double> explanations(Document d) {
+        if (d == null) {
+            return null;
+        }
+        Map<String, Double> out = new LinkedHashMap<>(d.size() * 2);
+        d.forEach((k, v) -> out.put(k, PropertyFeatures.doubleOf(v)));
+        return out;
+    }
+
+    private static Instant instant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+}
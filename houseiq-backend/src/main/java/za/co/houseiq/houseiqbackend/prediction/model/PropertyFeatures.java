@@ -0,0 +1,44 @@
+package za.co.houseiq.houseiqbackend.prediction.model;
+
+import java.util.Map;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+
+// the five model inputs of a stored prediction; JSON keeps the API names, BSON uses the short keys
+// below (PredictionConverters), so each document stops repeating the long names
+public record PropertyFeatures(int bedrooms, int bathrooms, double area_sqm, int age_years, int location_index) {
+
+    public static final String BEDROOMS = "bd";
+    public static final String BATHROOMS = "ba";
+    public static final String AREA_SQM = "ar";
+    public static final String AGE_YEARS = "ag";
+    public static final String LOCATION_INDEX = "li";
+
+    public static PropertyFeatures of(PredictRequestDto req) {
+        return new PropertyFeatures(req.getBedrooms(), req.getBathrooms(), req.getArea_sqm(), req.getAge_years(), req.getLocation_index());
+    }
+
+    // from the ML wire format (and legacy map-shaped documents); missing values read as 0
+    public static PropertyFeatures fromMap(Map<String, ?> m) {
+        return new PropertyFeatures(intOf(m.get("bedrooms")), intOf(m.get("bathrooms")), doubleOf(m.get("area_sqm")),
+            intOf(m.get("age_years")), intOf(m.get("location_index")));
+    }
+
+    // the ML wire format
+    public Map<String, Object> toMap() {
+        return Map.of(
+            "bedrooms", bedrooms,
+            "bathrooms", bathrooms,
+            "area_sqm", area_sqm,
+            "age_years", age_years,
+            "location_index", location_index
+        );
+    }
+
+    static int intOf(Object v) {
+        return v instanceof Number n ? n.intValue() : 0;
+    }
+
+    static double doubleOf(Object v) {
+        return v instanceof Number n ? n.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,62 @@
+package za.co.houseiq.houseiqbackend.prediction.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// one queued scoring job; workers claim it with a lease (leaseOwner/leaseExpiresAt) renewed by heartbeats
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("scoring_jobs")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_created_idx", def = "{ 'status': 1, 'createdAt': 1 }"),        // next QUEUED job
+    @CompoundIndex(name = "status_lease_idx", def = "{ 'status': 1, 'leaseExpiresAt': 1 }"),     // expired RUNNING leases
+    @CompoundIndex(name = "owner_created_idx", def = "{ 'ownerId': 1, 'createdAt': -1 }")
+})
+public class ScoringJob {
+    public enum Kind { ITEMS, REVALUE }
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    @Id
+    private String id;
+    private String ownerId;
+    private Kind kind;                          // ITEMS: score items into new predictions; REVALUE: re-score the owner's history
+    private Status status;
+
+    private List<Map<String, Object>> items;    // ITEMS only, read a chunk at a time with $slice and dropped when finished
+    private long total;
+    private long processed;                     // ITEMS: offset into items to resume from
+    private String resumeAfter;                 // REVALUE: PageCursor of the last prediction re-scored
+    private long saved;
+    private long failed;
+    private List<ItemError> errors;
+
+    private boolean cancelRequested;
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+    private Instant heartbeatAt;
+    private int attempts;                       // number of claims
+
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s")
+    private Instant expiresAt;                  // set when the job finishes
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class ItemError {
+        private long index;                     // ITEMS: position in the request; REVALUE: row number in the pass
+        private String id;                      // REVALUE: prediction id
+        private String error;
+    }
+}
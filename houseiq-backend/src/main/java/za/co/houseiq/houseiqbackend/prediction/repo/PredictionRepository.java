@@ -1,8 +1,12 @@
 package za.co.houseiq.houseiqbackend.prediction.repo;
 
+import java.time.Instant;
 import java.util.List;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
 import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
 
 public interface PredictionRepository extends MongoRepository<Prediction, String> {
@@ -12,4 +16,25 @@ public interface PredictionRepository extends MongoRepository<Prediction, String
     // Return type: List<Prediction>
 
     List<Prediction> findByOwnerIdOrderByCreatedAtDesc(String ownerId, Pageable pageable);
+
+    // keyset pages (PageCursor): newest first with _id as tie-breaker, both served by owner_created_id_idx
+    List<Prediction> findByOwnerIdOrderByCreatedAtDescIdDesc(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Prediction> findPageAfter(String ownerId, Instant createdAt, ObjectId id, Pageable pageable);
+
+    // the same three listings projected to PredictionView.FIELDS (the default list shape); read as partial
+    // Predictions so they go through PredictionConverters, then turned into rows with PredictionView::of
+    @Query(value = "{ 'ownerId': ?0 }", fields = PredictionView.FIELDS, sort = "{ 'createdAt': -1 }")
+    List<Prediction> findViewsByOwnerId(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0 }", fields = PredictionView.FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Prediction> findViewPage(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+           fields = PredictionView.FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Prediction> findViewPageAfter(String ownerId, Instant createdAt, ObjectId id, Pageable pageable);
+
+    // size of a re-valuation pass (ScoringWorkers walks it with the keyset queries above)
+    long countByOwnerId(String ownerId);
 }
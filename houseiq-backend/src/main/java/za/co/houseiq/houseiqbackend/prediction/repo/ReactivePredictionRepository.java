@@ -0,0 +1,34 @@
+package za.co.houseiq.houseiqbackend.prediction.repo;
+
+import java.time.Instant;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+
+// non-blocking view of the predictions collection, used by the reactive profile
+public interface ReactivePredictionRepository extends ReactiveMongoRepository<Prediction, String> {
+
+    Flux<Prediction> findByOwnerIdOrderByCreatedAtDesc(String ownerId, Pageable pageable);
+
+    // keyset pages (PageCursor): newest first with _id as tie-breaker, both served by owner_created_id_idx
+    Flux<Prediction> findByOwnerIdOrderByCreatedAtDescIdDesc(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    Flux<Prediction> findPageAfter(String ownerId, Instant createdAt, ObjectId id, Pageable pageable);
+
+    // the same three listings projected to PredictionView.FIELDS (the default list shape); read as partial
+    // Predictions so they go through PredictionConverters, then turned into rows with PredictionView::of
+    @Query(value = "{ 'ownerId': ?0 }", fields = PredictionView.FIELDS, sort = "{ 'createdAt': -1 }")
+    Flux<Prediction> findViewsByOwnerId(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0 }", fields = PredictionView.FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    Flux<Prediction> findViewPage(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+           fields = PredictionView.FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    Flux<Prediction> findViewPageAfter(String ownerId, Instant createdAt, ObjectId id, Pageable pageable);
+}
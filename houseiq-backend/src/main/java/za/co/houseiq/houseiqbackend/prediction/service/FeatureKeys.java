@@ -0,0 +1,61 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds canonical string keys for feature maps so that equal inputs produce equal keys
+ * regardless of map ordering or numeric boxing (3 vs 3.0).
+ */
+final class FeatureKeys {
+    // the model inputs in name order: every request has exactly these, so the usual map needs no sorted copy
+    private static final String[] MODEL_FEATURES = {"age_years", "area_sqm", "bathrooms", "bedrooms", "location_index"};
+
+    private FeatureKeys() {}
+
+    /**
+     * @param areaStep when > 0, area_sqm is bucketed to this step (e.g. 0.5 → 120.4 and 120.6 share a key)
+     */
+    static String canonical(Map<String, Object> features, double areaStep) {
+        StringBuilder sb = new StringBuilder(96);
+        if (isModelFeatures(features)) {
+            for (String name : MODEL_FEATURES) {
+                append(sb, name, features.get(name), areaStep);
+            }
+        } else {
+            for (var e : new TreeMap<>(features).entrySet()) {         // sorted by feature name
+                append(sb, e.getKey(), e.getValue(), areaStep);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isModelFeatures(Map<String, Object> features) {
+        if (features.size() != MODEL_FEATURES.length) {
+            return false;
+        }
+        for (String name : MODEL_FEATURES) {
+            if (!features.containsKey(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void append(StringBuilder sb, String name, Object v, double areaStep) {
+        sb.append(name).append('=');
+        if (v instanceof Number n) {
+            double d = n.doubleValue();
+            if ("area_sqm".equals(name) && areaStep > 0) {
+                sb.append('#').append(Math.round(d / areaStep));        // bucket index, avoids printing rounded doubles
+            } else if (d == Math.rint(d)) {
+                sb.append((long) d);
+            } else {
+                sb.append(d);
+            }
+        } else {
+            sb.append(v);
+        }
+        sb.append(';');
+    }
+}
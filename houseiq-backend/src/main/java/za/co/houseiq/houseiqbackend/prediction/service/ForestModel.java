@@ -0,0 +1,158 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A scikit-learn RandomForestRegressor exported by houseiq-ml/train.py (export_forest), held as flat
+ * primitive arrays. All trees share one set of node arrays; {@code roots[t]} is the first node of tree t
+ * and child indexes are absolute. Immutable and thread-safe; {@link #predict} does not allocate.
+ */
+public final class ForestModel {
+    static final int MAGIC = 0x46525148;            // "HQRF" read little-endian
+    static final int FORMAT_VERSION = 1;
+
+    private final String modelVersion;
+    private final List<String> features;
+    private final double[] explanationWeights;      // per feature, same order as features
+
+    private final int[] roots;
+    private final int[] feature;                    // < 0 for leaves
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final double[] value;
+
+    private ForestModel(String modelVersion, List<String> features, double[] explanationWeights,
+                        int[] roots, int[] feature, double[] threshold, int[] left, int[] right, double[] value) {
+        this.modelVersion = modelVersion;
+        this.features = features;
+        this.explanationWeights = explanationWeights;
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+    }
+
+    public static ForestModel load(Path path) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    static ForestModel read(ByteBuffer buf) {
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a forest export (bad magic)");
+        }
+        int format = buf.getInt();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported forest format version " + format);
+        }
+        String modelVersion = readString(buf);
+        int nFeatures = buf.getInt();
+        String[] names = new String[nFeatures];
+        for (int i = 0; i < nFeatures; i++) {
+            names[i] = readString(buf);
+        }
+        double[] weights = new double[nFeatures];
+        buf.asDoubleBuffer().get(weights);
+        buf.position(buf.position() + nFeatures * Double.BYTES);
+
+        int nTrees = buf.getInt();
+        if (nTrees <= 0) {
+            throw new IllegalArgumentException("Forest has no trees");
+        }
+        // first pass: count nodes so the flat arrays are allocated once
+        int start = buf.position();
+        int total = 0;
+        for (int t = 0; t < nTrees; t++) {
+            int n = buf.getInt();
+            total += n;
+            buf.position(buf.position() + n * (Integer.BYTES * 3 + Double.BYTES * 2));
+        }
+        buf.position(start);
+
+        int[] roots = new int[nTrees];
+        int[] feature = new int[total];
+        double[] threshold = new double[total];
+        int[] left = new int[total];
+        int[] right = new int[total];
+        double[] value = new double[total];
+        int base = 0;
+        for (int t = 0; t < nTrees; t++) {
+            int n = buf.getInt();
+            roots[t] = base;
+            readInts(buf, feature, base, n);
+            readDoubles(buf, threshold, base, n);
+            readInts(buf, left, base, n);
+            readInts(buf, right, base, n);
+            readDoubles(buf, value, base, n);
+            for (int i = base; i < base + n; i++) {
+                if (feature[i] >= nFeatures) {
+                    throw new IllegalArgumentException("Node " + i + " splits on unknown feature " + feature[i]);
+                }
+                if (feature[i] >= 0) {                              // rebase children to the flat arrays
+                    left[i] += base;
+                    right[i] += base;
+                }
+            }
+            base += n;
+        }
+        return new ForestModel(modelVersion, List.of(names), weights, roots, feature, threshold, left, right, value);
+    }
+
+    /**
+     * Mean of the tree outputs for one row, x in {@link #features()} order. Like scikit-learn the
+     * input is compared as float32 against the float64 thresholds, so results match to the last bit
+     * up to summation order.
+     */
+    public double predict(double[] x) {
+        double sum = 0;
+        for (int root : roots) {
+            int n = root;
+            while (feature[n] >= 0) {
+                n = (double) (float) x[feature[n]] <= threshold[n] ? left[n] : right[n];
+            }
+            sum += value[n];
+        }
+        return sum / roots.length;
+    }
+
+    public String modelVersion() {
+        return modelVersion;
+    }
+
+    public List<String> features() {
+        return features;
+    }
+
+    public double explanationWeight(int feature) {
+        return explanationWeights[feature];
+    }
+
+    public int trees() {
+        return roots.length;
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] b = new byte[buf.getInt()];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void readInts(ByteBuffer buf, int[] dst, int offset, int n) {
+        buf.asIntBuffer().get(dst, offset, n);
+        buf.position(buf.position() + n * Integer.BYTES);
+    }
+
+    private static void readDoubles(ByteBuffer buf, double[] dst, int offset, int n) {
+        buf.asDoubleBuffer().get(dst, offset, n);
+        buf.position(buf.position() + n * Double.BYTES);
+    }
+}
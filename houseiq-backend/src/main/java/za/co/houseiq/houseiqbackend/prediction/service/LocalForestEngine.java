@@ -0,0 +1,71 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+/**
+ * In-JVM scoring with the forest exported by train.py (ml.engine=local). The artifact is loaded once at
+ * startup; if it is missing or unreadable the engine stays unavailable and MlClient keeps using HTTP.
+ * Responses carry the artifact's model version and the same explanation weights the ML service returns.
+ */
+@Slf4j
+@Component
+public class LocalForestEngine {
+    private final ForestModel model;                // null when disabled or not loaded
+    private final Map<String, Double> explanations;
+    private final Counter scored;
+    private final Counter fallbacks;
+
+    public LocalForestEngine(MlClientProperties props, MeterRegistry meters) {
+        this.model = props.getEngine() == MlClientProperties.Engine.LOCAL ? load(props.getLocal().getModelPath()) : null;
+        this.explanations = model == null ? Map.of() : explanations(model);
+        this.scored = Counter.builder("houseiq.ml.local.predictions").register(meters);
+        this.fallbacks = Counter.builder("houseiq.ml.local.fallbacks").register(meters);
+    }
+
+    public boolean isAvailable() {
+        return model != null;
+    }
+
+    /** Local prediction, or null when these features cannot be scored here (the caller falls back to HTTP). */
+    public PredictResponseDto predict(Map<String, Object> features) {
+        List<String> names = model.features();
+        double[] x = new double[names.size()];
+        for (int i = 0; i < x.length; i++) {
+            if (!(features.get(names.get(i)) instanceof Number n)) {
+                fallbacks.increment();
+                return null;
+            }
+            x[i] = n.doubleValue();
+        }
+        scored.increment();
+        return new PredictResponseDto(model.predict(x), model.modelVersion(), explanations);
+    }
+
+    private static ForestModel load(String path) {
+        try {
+            ForestModel m = ForestModel.load(Path.of(path));
+            log.info("Local ML engine loaded {} ({} trees) from {}", m.modelVersion(), m.trees(), path);
+            return m;
+        } catch (Exception e) {
+            log.warn("Local ML engine unavailable, using the ML service: cannot load {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Double> explanations(ForestModel m) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (int i = 0; i < m.features().size(); i++) {
+            out.put(m.features().get(i), m.explanationWeight(i));
+        }
+        return java.util.Collections.unmodifiableMap(out);         // shared by every response
+    }
+}
@@ -0,0 +1,145 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+/**
+ * Opt-in micro-batching (ml.batching.enabled): single predictions are queued and a dispatcher
+ * thread sends them to /predict/batch once the window has passed or the batch is full.
+ * Each caller gets its own result (or the batch error) through its own sink.
+ */
+@Slf4j
+@Component
+public class MlBatchDispatcher implements DisposableBean {
+    private final MlTransport transport;
+    private final MlClientProperties.Batching cfg;
+    private final LinkedBlockingQueue<Pending> queue;
+    private final DistributionSummary batchSize;
+    private final Timer queueWait;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    private record Pending(Map<String, Object> features, Sinks.One<PredictResponseDto> sink, long enqueuedAt) {}
+
+    public MlBatchDispatcher(MlTransport transport, MlClientProperties props, MeterRegistry meters) {
+        this.transport = transport;
+        this.cfg = props.getBatching();
+        this.queue = new LinkedBlockingQueue<>(cfg.getMaxQueueDepth());
+        this.batchSize = DistributionSummary.builder("houseiq.ml.batch.size")
+            .publishPercentileHistogram()
+            .register(meters);
+        this.queueWait = Timer.builder("houseiq.ml.batch.queue.wait")
+            .publishPercentileHistogram()
+            .register(meters);
+        Gauge.builder("houseiq.ml.batch.queue.depth", queue, LinkedBlockingQueue::size).register(meters);
+
+        if (cfg.isEnabled()) {
+            worker = Thread.ofPlatform().name("ml-batch-dispatcher").daemon().start(this::run);
+        } else {
+            worker = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return worker != null;
+    }
+
+    /** Queues one prediction; fails fast with 503 when the queue is full or the dispatcher has stopped. */
+    public Mono<PredictResponseDto> submit(Map<String, Object> features) {
+        return Mono.defer(() -> {
+            if (!running) {
+                return Mono.error(unavailable());
+            }
+            Sinks.One<PredictResponseDto> sink = Sinks.one();
+            if (!queue.offer(new Pending(features, sink, System.nanoTime()))) {
+                return Mono.error(new ServiceUnavailableException("ML_OVERLOADED", "ML request queue is full"));
+            }
+            if (!running) {
+                failQueued();                                               // raced destroy(), which may have drained already
+            }
+            return sink.asMono();
+        });
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(cfg.getMaxBatchSize());
+        long windowNanos = cfg.getWindow().toNanos();
+        while (running) {
+            try {
+                batch.add(queue.take());                                    // wait for the first call of a batch
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < cfg.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(List.copyOf(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.sink().tryEmitError(unavailable()));     // taken during the window, not sent
+                break;
+            } catch (RuntimeException e) {
+                log.warn("ML batch dispatch failed: {}", e.getMessage());
+                batch.forEach(p -> p.sink().tryEmitError(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        long now = System.nanoTime();
+        List<Map<String, Object>> items = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            queueWait.record(now - p.enqueuedAt(), TimeUnit.NANOSECONDS);
+            items.add(p.features());
+        }
+        batchSize.record(batch.size());
+        transport.predictBatch(items, true).subscribe(                      // explained like the single calls it replaces; async
+            results -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).sink().tryEmitValue(results.get(i));
+                }
+            },
+            err -> batch.forEach(p -> p.sink().tryEmitError(err)));
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        failQueued();
+    }
+
+    private void failQueued() {
+        Pending p;
+        while ((p = queue.poll()) != null) {
+            p.sink().tryEmitError(unavailable());
+        }
+    }
+
+    private static ServiceUnavailableException unavailable() {
+        return new ServiceUnavailableException("ML_UNAVAILABLE", "ML dispatcher is shutting down");
+    }
+}
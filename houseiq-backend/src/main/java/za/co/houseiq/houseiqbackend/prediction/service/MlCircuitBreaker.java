@@ -0,0 +1,150 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+
+/**
+ * Count-based circuit breaker around ML calls. Closed: outcomes of the last window-size calls are
+ * kept and the breaker opens once the failure share reaches the threshold. Open: calls fail
+ * immediately with 503 ML_UNAVAILABLE for open-duration. Half-open: half-open-calls probes go
+ * through; all must succeed to close, one failure opens again.
+ * Back-pressure from our own queues/pool and 4xx answers from the ML service are not failures.
+ */
+@Slf4j
+@Component
+public class MlCircuitBreaker {
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final MlClientProperties.CircuitBreaker cfg;
+    private final boolean[] window;                 // true = failed, ring buffer
+    private final Counter rejected;
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probesSucceeded;
+
+    public MlCircuitBreaker(MlClientProperties props, MeterRegistry meters) {
+        this.cfg = props.getCircuitBreaker();
+        this.window = new boolean[cfg.getWindowSize()];
+        this.rejected = Counter.builder("houseiq.ml.circuit.rejected").register(meters);
+        Gauge.builder("houseiq.ml.circuit.state", this, b -> b.state().ordinal())    // 0 closed, 1 half-open, 2 open
+            .register(meters);
+    }
+
+    public <T> Mono<T> protect(Supplier<Mono<T>> call) {
+        if (!cfg.isEnabled()) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            Boolean probe = acquire();
+            if (probe == null) {
+                rejected.increment();
+                return Mono.error(new ServiceUnavailableException("ML_UNAVAILABLE", "ML service is unavailable, retry later"));
+            }
+            AtomicBoolean done = new AtomicBoolean();       // exactly one outcome per permitted call
+            return call.get()
+                .doOnSuccess(v -> {
+                    if (done.compareAndSet(false, true)) record(true, probe);
+                })
+                .doOnError(e -> {
+                    if (done.compareAndSet(false, true)) record(!countsAsFailure(e), probe);
+                })
+                .doOnCancel(() -> {
+                    if (done.compareAndSet(false, true) && probe) release();
+                });
+        });
+    }
+
+    synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= cfg.getOpenDuration().toNanos()) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probesSucceeded = 0;
+            log.info("ML circuit half-open, sending probes");
+        }
+        return state;
+    }
+
+    // null = rejected, otherwise whether the call is a half-open probe
+    private synchronized Boolean acquire() {
+        switch (state()) {
+            case CLOSED:
+                return false;
+            case HALF_OPEN:
+                if (probesInFlight + probesSucceeded < cfg.getHalfOpenCalls()) {
+                    probesInFlight++;
+                    return true;
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private synchronized void record(boolean success, boolean probe) {
+        if (probe) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            probesInFlight--;
+            if (!success) {
+                open("probe failed");
+            } else if (++probesSucceeded >= cfg.getHalfOpenCalls()) {
+                state = State.CLOSED;
+                next = recorded = failures = 0;
+                log.info("ML circuit closed");
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;                                         // late result of a call admitted before the breaker opened
+        }
+        if (recorded == window.length) {
+            failures -= window[next] ? 1 : 0;               // drop the oldest outcome
+        } else {
+            recorded++;
+        }
+        window[next] = !success;
+        failures += success ? 0 : 1;
+        next = (next + 1) % window.length;
+        if (recorded >= cfg.getMinimumCalls() && failures >= cfg.getFailureRateThreshold() * recorded) {
+            open(failures + " of the last " + recorded + " calls failed");
+        }
+    }
+
+    private synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        log.warn("ML circuit open for {}: {}", cfg.getOpenDuration(), reason);
+    }
+
+    private static boolean countsAsFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ServiceUnavailableException) {
+                return false;                               // our own back-pressure, not the ML service failing
+            }
+            if (t instanceof WebClientResponseException r && r.getStatusCode().is4xxClientError()) {
+                return false;                               // the service answered, it rejected the input
+            }
+        }
+        return true;
+    }
+}
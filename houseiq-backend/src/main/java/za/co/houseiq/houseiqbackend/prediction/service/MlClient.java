@@ -1,33 +1,189 @@
 package za.co.houseiq.houseiqbackend.prediction.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.MediaType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Subscription;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
-import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import reactor.core.publisher.SignalType;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.common.StageTimer;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
 
 @Component                      // spring bean
-@RequiredArgsConstructor        //
 public class MlClient {
-    private final WebClient webClient;      // inject web client
-    private final MlClientProperties props; //
+    private final MlTransport transport;        // raw HTTP calls to the ML service
+    private final PredictionCache cache;        // result cache in front of the ML service
+    private final MlRequestCoalescer coalescer; // shares identical in-flight requests
+    private final MlBatchDispatcher dispatcher; // optional micro-batching of concurrent calls
+    private final LocalForestEngine local;      // in-JVM forest (ml.engine=local), HTTP stays the fallback
+    private final PriceGridLookup grid;         // precomputed prices (ml.grid.enabled)
+    private final MlHedger hedger;              // second request for slow single calls (ml.hedging.enabled)
+    private final MlCircuitBreaker breaker;     // 503 without calling while the ML service keeps failing
+
+    private final MeterRegistry meters;
+    private final StageTimer localTimer;        // houseiq.ml.predict{source=local|cache|remote}
+    private final StageTimer cacheTimer;
+    private final StageTimer remoteTimer;
+    private final AtomicInteger inFlight = new AtomicInteger();                // houseiq.ml.inflight: calls sent, not yet answered
+    private final Map<String, Counter> errors = new ConcurrentHashMap<>();     // houseiq.ml.errors by type
+    private final Consumer<Throwable> countError = this::countError;           // allocated once, not per call
+    private final Consumer<Subscription> callStarted = s -> inFlight.incrementAndGet();
+    private final Consumer<SignalType> callDone = s -> inFlight.decrementAndGet();
+
+    public MlClient(MlTransport transport, PredictionCache cache, MlRequestCoalescer coalescer, MlBatchDispatcher dispatcher,
+                    LocalForestEngine local, PriceGridLookup grid, MlHedger hedger, MlCircuitBreaker breaker, MeterRegistry meters) {
+        this.transport = transport;
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.dispatcher = dispatcher;
+        this.local = local;
+        this.grid = grid;
+        this.hedger = hedger;
+        this.breaker = breaker;
+        this.meters = meters;
+        this.localTimer = new StageTimer(meters, "houseiq.ml.predict", "source", "local");
+        this.cacheTimer = new StageTimer(meters, "houseiq.ml.predict", "source", "cache");
+        this.remoteTimer = new StageTimer(meters, "houseiq.ml.predict", "source", "remote");
+        Gauge.builder("houseiq.ml.inflight", inFlight, AtomicInteger::get).register(meters);
+    }
 
     /**
-     * Calls FastAPI /predict with nested {"features": {...}} payload.
+     * Scores one feature map: price grid and local engine if enabled, else cache, then one shared in-flight call
+     * (sent on its own, hedged when slow, or as part of a micro-batch) behind the circuit breaker.
      */
     public PredictResponseDto predict(Map<String, Object> features) {           // predict endpoint calling
-        var payload = Map.of("features", features);                             // build request body
-        return webClient.post()                                                 // create a post request
-            .uri(props.getBaseUrl() + "/predict")                               // url of where the post is sent
-            .contentType(MediaType.APPLICATION_JSON)                            // tell client the body is JSON
-            .body(BodyInserters.fromValue(payload))                             // take the payload Map and serialize to JSON for the request body.
-            .retrieve()                                                         // send the request and prepare to read the response.
-            .bodyToMono(PredictResponseDto.class)                               // deserialize response JSON into PredictResponseDto (as a reactive Mono).
-            .onErrorResume(err -> Mono.error(new RuntimeException("ML service error: " + err.getMessage(), err))) // if error occurs, wrap in clearer body
-            .block();                                                           // wait for the Mono to finish and return the actual PredictResponseDto (normal Java object).
+        long start = System.nanoTime();
+        PredictResponseDto scored = scoreLocally(features);
+        if (scored != null) {
+            localTimer.record(start, true, scored.getModel_version());
+            return scored;
+        }
+        String key = cache.key(features);                                       // built once for the lookup and the store
+        PredictResponseDto cached = cache.get(key);
+        if (cached != null) {
+            cacheTimer.record(start, true, cached.getModel_version());
+            return cached;
+        }
+        PredictResponseDto res = null;
+        try {
+            res = fetch(features, key).block();                                 // wait for the Mono to finish and return the actual PredictResponseDto (normal Java object).
+            return res;
+        } finally {
+            remoteTimer.record(start, res != null, res == null ? null : res.getModel_version());
+        }
+    }
+
+    /**
+     * Non-blocking {@link #predict} for the reactive stack: same cache, coalescing and batching, nothing waits.
+     */
+    public Mono<PredictResponseDto> predictAsync(Map<String, Object> features) {
+        PredictResponseDto scored = scoreLocally(features);
+        if (scored != null) {
+            return Mono.just(scored);
+        }
+        String key = cache.key(features);
+        return cache.lookup(key)
+            .switchIfEmpty(Mono.defer(() -> fetch(features, key)));
+    }
+
+    /**
+     * Calls FastAPI /predict/batch for the items that are neither answered in-process nor cached
+     * and returns one response per item, in order. The ML service is not asked to explain each
+     * batch: the model's explanations are reused, see MlTransport.
+     */
+    public List<PredictResponseDto> predictBatch(List<Map<String, Object>> items) {
+        List<PredictResponseDto> out = new ArrayList<>(items.size());
+        List<Integer> missIdx = new ArrayList<>();
+        List<Map<String, Object>> misses = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            PredictResponseDto hit = scoreLocally(items.get(i));
+            if (hit == null) {
+                hit = cache.get(items.get(i));
+            }
+            out.add(hit);
+            if (hit == null) {
+                missIdx.add(i);
+                misses.add(items.get(i));
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<PredictResponseDto> scored = breaker.protect(() -> tracked(transport.predictBatch(misses, false)))
+                .doOnError(countError)
+                .block();
+            for (int k = 0; k < scored.size(); k++) {
+                grid.observeModelVersion(scored.get(k).getModel_version());
+                out.set(missIdx.get(k), scored.get(k));
+                cache.put(misses.get(k), scored.get(k));
+            }
+        }
+        return out;
+    }
+
+    // cheaper than a cache lookup, so in-process results are not cached
+    private PredictResponseDto scoreLocally(Map<String, Object> features) {
+        PredictResponseDto r = grid.isAvailable() ? grid.predict(features) : null;
+        if (r == null && local.isAvailable()) {
+            r = local.predict(features);
+        }
+        return r;
+    }
+
+    private Mono<PredictResponseDto> fetch(Map<String, Object> features, String cacheKey) {
+        return coalescer.coalesce(features, () -> send(features)
+            .doOnNext(res -> {
+                cache.put(cacheKey, res);                                       // cached once per shared call
+                grid.observeModelVersion(res.getModel_version());
+            }));
+    }
+
+    // errors are counted outside the breaker so its rejections show up as type=unavailable
+    private Mono<PredictResponseDto> send(Map<String, Object> features) {
+        return breaker.protect(() -> tracked(dispatcher.isEnabled()
+                ? dispatcher.submit(features)                                   // batches are not hedged
+                : hedger.hedge(() -> transport.predict(features))))
+            .doOnError(countError);
+    }
+
+    private <T> Mono<T> tracked(Mono<T> call) {
+        return call.doOnSubscribe(callStarted).doFinally(callDone);
+    }
+
+    private void countError(Throwable e) {
+        String type = errorType(e);
+        Counter c = errors.get(type);
+        if (c == null) {
+            c = errors.computeIfAbsent(type, t -> Counter.builder("houseiq.ml.errors").tag("type", t).register(meters));
+        }
+        c.increment();
+    }
+
+    // unavailable (breaker open, dispatcher stopped), overloaded (pool or batch queue full), timeout,
+    // http_4xx, http_5xx, connect, or other; the first recognisable cause wins
+    static String errorType(Throwable e) {
+        boolean request = false;
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ServiceUnavailableException su) {
+                return su.getCode().startsWith("ML_") ? su.getCode().substring(3).toLowerCase(Locale.ROOT) : "unavailable";
+            }
+            if (t instanceof WebClientResponseException r) {
+                return r.getStatusCode().is4xxClientError() ? "http_4xx" : "http_5xx";
+            }
+            if (t.getClass().getSimpleName().endsWith("TimeoutException")) {
+                return "timeout";                           // java.util.concurrent, Netty read/connect timeouts
+            }
+            request |= t instanceof WebClientRequestException;
+        }
+        return request ? "connect" : "other";
     }
 }
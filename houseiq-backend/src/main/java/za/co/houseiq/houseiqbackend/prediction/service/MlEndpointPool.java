@@ -0,0 +1,171 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+
+/**
+ * Client-side balancing over the ML replicas in ml.endpoints (ml.base-url when empty).
+ * Each call goes to the less loaded of two random available replicas, load being in-flight
+ * requests scaled by the slow-start weight. /health is probed in the background; a replica is
+ * ejected after eject-after-failures failed probes and ramps back up over slow-start once it
+ * answers again. If every replica is ejected, all of them keep getting traffic.
+ */
+@Slf4j
+@Component
+public class MlEndpointPool implements DisposableBean {
+    private static final double MIN_WEIGHT = 0.1;           // share of a replica that just came back
+
+    private final MlClientProperties.Balancing cfg;
+    private final WebClient webClient;
+    private final List<Endpoint> endpoints;
+    private final Disposable probes;                        // null with a single endpoint
+
+    private volatile List<Endpoint> available;
+
+    public MlEndpointPool(MlClientProperties props, WebClient webClient, MeterRegistry meters) {
+        this.cfg = props.getBalancing();
+        this.webClient = webClient;
+        List<String> urls = !props.getEndpoints().isEmpty() ? props.getEndpoints()
+            : props.getBaseUrl() != null ? List.of(props.getBaseUrl())
+            : List.of();                                    // fails on use, not at startup
+        this.endpoints = urls.stream().map(u -> new Endpoint(u.replaceAll("/+$", ""), meters)).toList();
+        this.available = endpoints;
+        this.probes = endpoints.size() > 1
+            ? Flux.interval(cfg.getProbeInterval()).onBackpressureDrop().concatMap(t -> probeAll()).subscribe()
+            : null;
+        if (endpoints.size() > 1) {
+            log.info("Balancing ML calls over {} replicas", endpoints.size());
+        }
+    }
+
+    /** Runs the request against the chosen replica's base URL, tracking its in-flight count and latency. */
+    public <T> Mono<T> call(Function<String, Mono<T>> request) {
+        return Mono.defer(() -> {
+            if (endpoints.isEmpty()) {
+                return Mono.error(new IllegalStateException("Neither ml.endpoints nor ml.base-url is configured"));
+            }
+            Endpoint e = choose();
+            e.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            return request.apply(e.url)
+                .doFinally(signal -> {
+                    e.inFlight.decrementAndGet();
+                    if (signal != SignalType.CANCEL) {
+                        e.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+        });
+    }
+
+    // power of two choices: O(1), and never herds onto one replica the way strict least-loaded can
+    Endpoint choose() {
+        List<Endpoint> up = available.isEmpty() ? endpoints : available;
+        int n = up.size();
+        if (n == 1) {
+            return up.get(0);
+        }
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int i = rnd.nextInt(n);
+        int j = rnd.nextInt(n - 1);
+        if (j >= i) {
+            j++;
+        }
+        long now = System.nanoTime();
+        Endpoint a = up.get(i);
+        Endpoint b = up.get(j);
+        return a.load(now) <= b.load(now) ? a : b;
+    }
+
+    Mono<Void> probeAll() {
+        return Flux.fromIterable(endpoints).flatMap(this::probe).then();
+    }
+
+    private Mono<Void> probe(Endpoint e) {
+        return webClient.get()
+            .uri(e.url + "/health")
+            .retrieve()
+            .bodyToMono(Map.class)
+            .map(health -> !Boolean.FALSE.equals(health.get("model_loaded")))
+            .timeout(cfg.getProbeTimeout())
+            .onErrorReturn(false)
+            .doOnNext(ok -> onProbe(e, ok))
+            .then();
+    }
+
+    private synchronized void onProbe(Endpoint e, boolean ok) {
+        if (ok) {
+            e.failedProbes = 0;
+            if (!e.healthy) {
+                e.rampStart = System.nanoTime();
+                e.healthy = true;
+                log.info("ML replica {} is back, slow start over {}", e.url, cfg.getSlowStart());
+                refresh();
+            }
+        } else if (++e.failedProbes >= cfg.getEjectAfterFailures() && e.healthy) {
+            e.healthy = false;
+            log.warn("ML replica {} ejected after {} failed health probes", e.url, e.failedProbes);
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        available = endpoints.stream().filter(x -> x.healthy).toList();
+    }
+
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    @Override
+    public void destroy() {
+        if (probes != null) {
+            probes.dispose();
+        }
+    }
+
+    final class Endpoint {
+        final String url;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final Timer latency;
+        volatile boolean healthy = true;
+        volatile long rampStart;
+        int failedProbes;                                   // guarded by the pool
+
+        Endpoint(String url, MeterRegistry meters) {
+            this.url = url;
+            this.rampStart = System.nanoTime() - cfg.getSlowStart().toNanos();     // full weight from the start
+            this.latency = Timer.builder("houseiq.ml.endpoint.latency").tag("endpoint", url).register(meters);
+            Gauge.builder("houseiq.ml.endpoint.inflight", inFlight, AtomicInteger::get).tag("endpoint", url).register(meters);
+            Gauge.builder("houseiq.ml.endpoint.healthy", this, x -> x.healthy ? 1 : 0).tag("endpoint", url).register(meters);
+            Gauge.builder("houseiq.ml.endpoint.weight", this, x -> x.weight(System.nanoTime())).tag("endpoint", url).register(meters);
+        }
+
+        double weight(long now) {
+            long slowStart = cfg.getSlowStart().toNanos();
+            if (slowStart <= 0 || now - rampStart >= slowStart) {
+                return 1.0;
+            }
+            return MIN_WEIGHT + (1 - MIN_WEIGHT) * (now - rampStart) / slowStart;
+        }
+
+        double load(long now) {
+            return (inFlight.get() + 1) / weight(now);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+
+/**
+ * Hedged requests: when a call has not answered within the recent latency percentile
+ * (ml.hedging.percentile), the same call is sent once more and the first value wins; the other
+ * call is cancelled. Hedges are paid for from a budget that grows by max-ratio per call, so a
+ * uniformly slow ML service sees at most that much extra load.
+ */
+@Component
+public class MlHedger {
+    private static final long TOKEN = 1000;                 // budget is kept in thousandths of a hedge
+    private static final long MAX_BURST = 10 * TOKEN;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MlClientProperties.Hedging cfg;
+    private final Timer latency;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final AtomicLong budget = new AtomicLong(MAX_BURST);
+    private final long earnPerCall;
+
+    private volatile long delayNanos;
+    private volatile long nextRefresh;
+
+    public MlHedger(MlClientProperties props, MeterRegistry meters) {
+        this.cfg = props.getHedging();
+        this.earnPerCall = Math.round(cfg.getMaxRatio() * TOKEN);
+        this.delayNanos = cfg.getInitialDelay().toNanos();
+        this.nextRefresh = System.nanoTime();
+        this.latency = Timer.builder("houseiq.ml.hedging.latency")         // successful calls, hedged or not
+            .publishPercentiles(cfg.getPercentile())
+            .distributionStatisticExpiry(Duration.ofMinutes(1))
+            .register(meters);
+        this.hedges = Counter.builder("houseiq.ml.hedging.hedges").register(meters);
+        this.hedgeWins = Counter.builder("houseiq.ml.hedging.wins").register(meters);     // hedges that answered first
+    }
+
+    public boolean isEnabled() {
+        return cfg.isEnabled();
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        if (!cfg.isEnabled()) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            budget.getAndUpdate(b -> Math.min(b + earnPerCall, MAX_BURST));
+            Sinks.One<Boolean> primaryFailed = Sinks.one();
+            Mono<T> primary = timed(call)
+                .doOnError(e -> primaryFailed.tryEmitValue(true));          // no point hedging a call that already failed
+            Mono<T> backup = Mono.delay(Duration.ofNanos(hedgeDelayNanos()))
+                .takeUntilOther(primaryFailed.asMono())
+                .filter(t -> spend())
+                .flatMap(t -> {
+                    hedges.increment();
+                    return timed(call).doOnNext(v -> hedgeWins.increment());
+                });
+            return Mono.firstWithValue(primary, backup)
+                .onErrorMap(NoSuchElementException.class, MlHedger::firstFailure);
+        });
+    }
+
+    long hedgeDelayNanos() {
+        long now = System.nanoTime();
+        if (now - nextRefresh >= 0 && latency.count() >= cfg.getMinSamples()) {
+            double pct = latency.takeSnapshot().percentileValues()[0].value(TimeUnit.NANOSECONDS);
+            delayNanos = Math.max(cfg.getMinDelay().toNanos(), (long) pct);
+            nextRefresh = now + REFRESH_NANOS;
+        }
+        return delayNanos;
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get().doOnNext(v -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private boolean spend() {
+        return budget.getAndUpdate(b -> b >= TOKEN ? b - TOKEN : b) >= TOKEN;
+    }
+
+    // firstWithValue reports "no value" with the real errors attached; callers want the ML error itself
+    private static Throwable firstFailure(NoSuchElementException e) {
+        return e.getCause() == null ? e : Exceptions.unwrapMultiple(e.getCause()).get(0);
+    }
+}
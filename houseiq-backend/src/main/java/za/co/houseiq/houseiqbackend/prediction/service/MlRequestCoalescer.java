@@ -0,0 +1,52 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+/**
+ * Single-flight coalescing: concurrent calls with the same canonical feature payload share one
+ * outbound request and one cached Mono. The entry is removed as soon as the call terminates, so
+ * only in-flight work is shared; errors are replayed to every waiter of that call.
+ */
+@Component
+public class MlRequestCoalescer {
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Mono<PredictResponseDto>> inFlight = new ConcurrentHashMap<>();
+    private final Counter calls;
+    private final Counter coalesced;
+
+    public MlRequestCoalescer(MlClientProperties props, MeterRegistry meters) {
+        this.enabled = props.getCoalescing().isEnabled();
+        this.calls = Counter.builder("houseiq.ml.coalescing.calls").register(meters);
+        this.coalesced = Counter.builder("houseiq.ml.coalescing.coalesced").register(meters);   // calls that joined an in-flight request
+        Gauge.builder("houseiq.ml.coalescing.inflight", inFlight, Map::size).register(meters);
+    }
+
+    public Mono<PredictResponseDto> coalesce(Map<String, Object> features, Supplier<Mono<PredictResponseDto>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        calls.increment();
+        String key = FeatureKeys.canonical(features, 0);                    // exact payload, no rounding
+        @SuppressWarnings("unchecked")
+        Mono<PredictResponseDto>[] created = new Mono[1];
+        Mono<PredictResponseDto> shared = inFlight.computeIfAbsent(key, k -> {
+            created[0] = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(k, created[0]))        // only remove our own entry
+                .cache();
+            return created[0];
+        });
+        if (shared != created[0]) {
+            coalesced.increment();
+        }
+        return shared;
+    }
+}
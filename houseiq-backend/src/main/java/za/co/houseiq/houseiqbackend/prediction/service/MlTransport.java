@@ -0,0 +1,181 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.common.UpstreamException;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictBatchResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+/**
+ * Raw HTTP calls to the FastAPI ML service. Nothing here blocks; callers decide when to wait.
+ * Caching, coalescing and batching live in {@link MlClient}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MlTransport {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // reactor-pool is shaded inside reactor-netty, so its exceptions are matched by name
+    private static final Set<String> POOL_EXHAUSTED = Set.of("PoolAcquirePendingLimitException", "PoolAcquireTimeoutException");
+
+    private final WebClient webClient;      // inject web client
+    private final MlClientProperties props;
+    private final MlEndpointPool endpoints; // picks the ML replica for each call
+    private final MlWireFormat wire;        // JSON or the negotiated binary format
+    private volatile Explained explained;   // X-Explanations of the last explained binary call
+
+    /**
+     * Scores one feature map: FastAPI /predict with nested {"features": {...}} payload, or /predict/bin
+     * when the binary wire format is negotiated. The ML service computes explanations for the call.
+     */
+    public Mono<PredictResponseDto> predict(Map<String, Object> features) {
+        byte[] rows = binaryRows(List.of(features));
+        Mono<PredictResponseDto> call = rows == null
+            ? predictJson(features)
+            : predictBinary(rows, 1, true).map(res -> res.get(0))
+                .onErrorResume(MlTransport::refused, err -> {
+                    wire.reject();
+                    return predictJson(features);
+                });
+        return call.onErrorMap(MlTransport::translate);                         // if error occurs, wrap in clearer body
+    }
+
+    /**
+     * Scores many feature maps in one call, one response per item in order: FastAPI /predict/batch
+     * with {"items": [{...}, ...]}, or /predict/bin when the binary wire format is negotiated.
+     * JSON bodies of at least ml.http.compress-requests-over are sent gzip-encoded. Without
+     * {@code explain} a binary call does not ask for explanations, see {@link #predictBinary}.
+     */
+    public Mono<List<PredictResponseDto>> predictBatch(List<Map<String, Object>> items, boolean explain) {
+        byte[] rows = binaryRows(items);
+        Mono<List<PredictResponseDto>> call = rows == null
+            ? predictBatchJson(items)
+            : predictBinary(rows, items.size(), explain)
+                .onErrorResume(MlTransport::refused, err -> {
+                    wire.reject();
+                    return predictBatchJson(items);
+                });
+        return call.onErrorMap(MlTransport::translate);
+    }
+
+    private Mono<PredictResponseDto> predictJson(Map<String, Object> features) {
+        var payload = Map.of("features", features);                             // build request body
+        return endpoints.call(baseUrl -> webClient.post()                       // create a post request
+            .uri(baseUrl + "/predict")                                          // url of where the post is sent
+            .contentType(MediaType.APPLICATION_JSON)                            // tell client the body is JSON
+            .body(BodyInserters.fromValue(payload))                             // take the payload Map and serialize to JSON for the request body.
+            .retrieve()                                                         // send the request and prepare to read the response.
+            .bodyToMono(PredictResponseDto.class));                             // deserialize response JSON into PredictResponseDto (as a reactive Mono).
+    }
+
+    private Mono<List<PredictResponseDto>> predictBatchJson(List<Map<String, Object>> items) {
+        return Mono.fromCallable(() -> batchBody(items))
+            .flatMap(body -> endpoints.call(baseUrl -> webClient.post()
+                .uri(baseUrl + "/predict/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(h -> {
+                    if (body.gzip()) {
+                        h.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                })
+                .bodyValue(body.bytes())
+                .retrieve()
+                .bodyToMono(PredictBatchResponseDto.class)))
+            .flatMap(res -> res.getPredictions() == null || res.getPredictions().size() != items.size()
+                ? Mono.error(new IllegalStateException("batch response does not match request size"))
+                : Mono.just(res.getPredictions()));
+    }
+
+    // Explanations are stored with every prediction, but the ML service derives them from the model
+    // alone. A call without explain reuses the last ones seen for the answering model version, and is
+    // repeated with explain when that version has not been explained to this instance yet.
+    private Mono<List<PredictResponseDto>> predictBinary(byte[] rows, int count, boolean explain) {
+        Explained known = explained;
+        boolean ask = explain || known == null;
+        return endpoints.call(baseUrl -> webClient.post()
+            .uri(baseUrl + (ask ? "/predict/bin?explain=true" : "/predict/bin"))
+            .contentType(MlWireFormat.F64LE)
+            .accept(MlWireFormat.F64LE)
+            .bodyValue(rows)
+            .retrieve()
+            .toEntity(byte[].class))
+            .flatMap(res -> {
+                String version = res.getHeaders().getFirst("X-Model-Version");
+                String explanations = res.getHeaders().getFirst("X-Explanations");
+                if (ask) {
+                    if (explanations != null) {
+                        explained = new Explained(version, explanations);
+                    }
+                } else if (!Objects.equals(known.modelVersion(), version)) {
+                    return predictBinary(rows, count, true);                    // a new model: once per version
+                } else {
+                    explanations = known.header();
+                }
+                return Mono.just(MlWireFormat.decode(res.getBody(), count, version, explanations));
+            });
+    }
+
+    private byte[] binaryRows(List<Map<String, Object>> items) {
+        List<String> order = wire.binaryFeatures();
+        return order == null ? null : MlWireFormat.encode(order, items);
+    }
+
+    // an ML replica without /predict/bin (or refusing the media type) is served JSON instead
+    private static boolean refused(Throwable err) {
+        return err instanceof WebClientResponseException r
+            && (r.getStatusCode().value() == 404 || r.getStatusCode().value() == 405 || r.getStatusCode().value() == 415);
+    }
+
+    // a saturated connection pool is back-pressure (503), a timeout is 504, input the ML service rejected
+    // (4xx) stays the client's error (400), anything else (5xx, connect failures) is a failed ML call (502)
+    private static RuntimeException translate(Throwable err) {
+        boolean timeout = false;
+        for (Throwable t = err; t != null; t = t.getCause()) {
+            if (POOL_EXHAUSTED.contains(t.getClass().getSimpleName())) {
+                return new ServiceUnavailableException("ML_OVERLOADED", "ML service connection pool is exhausted", err);
+            }
+            if (t instanceof WebClientResponseException r && r.getStatusCode().is4xxClientError()) {
+                return new RuntimeException("ML service error: " + err.getMessage(), err);
+            }
+            timeout |= t.getClass().getSimpleName().endsWith("TimeoutException");     // java.util.concurrent, Netty read/connect
+        }
+        return timeout
+            ? new UpstreamException(HttpStatus.GATEWAY_TIMEOUT, "ML_TIMEOUT", "ML service error: timed out", err)
+            : new UpstreamException(HttpStatus.BAD_GATEWAY, "ML_ERROR", "ML service error: " + err.getMessage(), err);
+    }
+
+    private record Explained(String modelVersion, String header) {}
+
+    private record Body(byte[] bytes, boolean gzip) {}
+
+    private Body batchBody(List<Map<String, Object>> items) throws IOException {
+        byte[] json = JSON.writeValueAsBytes(Map.of("items", items));
+        return json.length >= props.getHttp().getCompressRequestsOver().toBytes()
+            ? new Body(gzip(json), true)
+            : new Body(json, false);
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        var out = new ByteArrayOutputStream(raw.length / 4);
+        try (var gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,141 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+/**
+ * Compact encoding for ML scoring calls (ml.wire.format=binary): each row is the features as
+ * little-endian float64 in the order the ML service lists on /health, and the answer is one float64
+ * per row. The order is negotiated once in the background; until then, and for a while after the
+ * service refuses the format, callers get null from {@link #binaryFeatures()} and use JSON.
+ */
+@Slf4j
+@Component
+public class MlWireFormat {
+    public static final MediaType F64LE = MediaType.parseMediaType("application/x-houseiq-f64le");
+    static final String FORMAT = "f64le";                   // name advertised in /health wire_formats
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final MlClientProperties.Wire cfg;
+    private final WebClient webClient;
+    private final MlEndpointPool endpoints;
+    private final AtomicBoolean negotiating = new AtomicBoolean();
+
+    private volatile List<String> features;                 // null = use JSON
+    private volatile long retryAt;
+
+    public MlWireFormat(MlClientProperties props, WebClient webClient, MlEndpointPool endpoints) {
+        this.cfg = props.getWire();
+        this.webClient = webClient;
+        this.endpoints = endpoints;
+        this.retryAt = System.nanoTime();
+        if (cfg.getFormat() == MlClientProperties.WireFormat.BINARY) {
+            negotiate().subscribe();                        // at startup, without waiting for the ML service
+        }
+    }
+
+    /** Feature order for binary calls, or null when JSON has to be used. */
+    public List<String> binaryFeatures() {
+        if (cfg.getFormat() != MlClientProperties.WireFormat.BINARY) {
+            return null;
+        }
+        List<String> f = features;
+        if (f == null && System.nanoTime() - retryAt >= 0) {
+            negotiate().subscribe();
+        }
+        return f;
+    }
+
+    /** The service refused a binary call (older replica): JSON until the next negotiation. */
+    public void reject() {
+        if (features != null) {
+            features = null;
+            retryAt = System.nanoTime() + cfg.getRenegotiateAfter().toNanos();
+            log.warn("ML service refused the binary wire format, using JSON for {}", cfg.getRenegotiateAfter());
+        }
+    }
+
+    Mono<Void> negotiate() {
+        if (!negotiating.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        return endpoints.call(baseUrl -> webClient.get().uri(baseUrl + "/health").retrieve().bodyToMono(JsonNode.class))
+            .doOnNext(health -> {
+                List<String> order = new ArrayList<>();
+                health.path("features").forEach(f -> order.add(f.asText()));
+                boolean offered = false;
+                for (JsonNode f : health.path("wire_formats")) {
+                    offered |= FORMAT.equals(f.asText());
+                }
+                if (offered && !order.isEmpty()) {
+                    features = List.copyOf(order);
+                    log.info("ML wire format {} negotiated, features {}", FORMAT, features);
+                } else {
+                    retryAt = System.nanoTime() + cfg.getRenegotiateAfter().toNanos();
+                    log.info("ML service does not offer the {} wire format, using JSON", FORMAT);
+                }
+            })
+            .doOnError(e -> {
+                retryAt = System.nanoTime() + cfg.getRenegotiateAfter().toNanos();
+                log.warn("ML wire format negotiation failed, using JSON: {}", e.getMessage());
+            })
+            .onErrorResume(e -> Mono.empty())
+            .doFinally(s -> negotiating.set(false))
+            .then();
+    }
+
+    /** Rows as float64 in the given order, or null when a row lacks a numeric feature (JSON reports that properly). */
+    static byte[] encode(List<String> order, List<Map<String, Object>> rows) {
+        ByteBuffer buf = ByteBuffer.allocate(rows.size() * order.size() * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (Map<String, Object> row : rows) {
+            for (String name : order) {
+                if (!(row.get(name) instanceof Number n)) {
+                    return null;
+                }
+                buf.putDouble(n.doubleValue());
+            }
+        }
+        return buf.array();
+    }
+
+    static List<PredictResponseDto> decode(byte[] body, int rows, String modelVersion, String explanations) {
+        if (body == null || body.length != rows * Double.BYTES) {
+            throw new IllegalStateException("binary response does not match request size");
+        }
+        Map<String, Double> expl = parseExplanations(explanations);
+        ByteBuffer buf = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        List<PredictResponseDto> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            out.add(new PredictResponseDto(buf.getDouble(), modelVersion, expl));
+        }
+        return out;
+    }
+
+    private static Map<String, Double> parseExplanations(String header) {
+        if (header == null || header.isEmpty()) {
+            return null;
+        }
+        try {
+            return Collections.unmodifiableMap(JSON.readValue(header, new TypeReference<LinkedHashMap<String, Double>>() {}));   // shared by all rows
+        } catch (Exception e) {
+            throw new IllegalStateException("unreadable X-Explanations header", e);
+        }
+    }
+}
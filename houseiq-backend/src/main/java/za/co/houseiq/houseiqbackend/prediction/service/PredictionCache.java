@@ -0,0 +1,175 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.time.Instant;
+import java.util.Map;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.model.CachedPrediction;
+
+/**
+ * Two-tier cache of ML results keyed by model version + canonical feature map.
+ * L1 is a bounded in-process Caffeine cache, L2 (optional) is the prediction_cache
+ * Mongo collection so several backend instances share hits. Its TTL and modelVersion
+ * indexes are created with the other documents' by MongoIndexes.
+ *
+ * The model version is learned from ML responses: until the first response arrives
+ * every lookup is a miss, and once a new version is seen old entries simply stop matching.
+ * Cached responses are shared between callers and must be treated as read-only.
+ */
+@Slf4j
+@Component
+public class PredictionCache {
+    private final MlClientProperties.Cache cfg;
+    private final MongoTemplate mongo;
+    private final Cache<Key, PredictResponseDto> local;
+
+    private volatile String modelVersion;       // latest version reported by the ML service
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    record Key(String modelVersion, String features) {}
+
+    public PredictionCache(MlClientProperties props, MongoTemplate mongo, MeterRegistry meters) {
+        this.cfg = props.getCache();
+        this.mongo = mongo;
+        this.l1Hits = Counter.builder("houseiq.ml.cache.hits").tag("tier", "l1").register(meters);
+        this.l2Hits = Counter.builder("houseiq.ml.cache.hits").tag("tier", "l2").register(meters);
+        this.misses = Counter.builder("houseiq.ml.cache.misses").register(meters);
+        this.evictions = Counter.builder("houseiq.ml.cache.evictions").register(meters);
+        this.local = Caffeine.newBuilder()
+            .maximumSize(cfg.getMaxSize())
+            .expireAfterWrite(cfg.getTtl())
+            .removalListener((Key k, PredictResponseDto v, com.github.benmanes.caffeine.cache.RemovalCause cause) -> {
+                if (cause.wasEvicted()) evictions.increment();      // size/TTL evictions, not explicit purges
+            })
+            .build();
+        Gauge.builder("houseiq.ml.cache.size", local, Cache::estimatedSize).register(meters);
+    }
+
+    /** Canonical key of these features for the String overloads, or null when the cache is off. */
+    public String key(Map<String, Object> features) {
+        return cfg.isEnabled() ? FeatureKeys.canonical(features, cfg.getAreaStep()) : null;
+    }
+
+    /** Cached response for these features under the current model version, or null on a miss. */
+    public PredictResponseDto get(Map<String, Object> features) {
+        return modelVersion == null ? null : get(key(features));
+    }
+
+    /** {@link #get(Map)} for a key from {@link #key}, so a lookup and the later store build it once. */
+    public PredictResponseDto get(String features) {
+        String version = modelVersion;
+        if (features == null || version == null) {
+            return null;
+        }
+        Key key = new Key(version, features);
+        PredictResponseDto hit = local.getIfPresent(key);
+        if (hit != null) {
+            l1Hits.increment();
+            return hit;
+        }
+        if (cfg.isSharedEnabled()) {
+            hit = getShared(key);
+            if (hit != null) {
+                local.put(key, hit);                    // promote to L1
+                l2Hits.increment();
+                return hit;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Non-blocking {@link #get(String)}: with the Mongo L2 enabled the lookup runs on a background scheduler
+     * so it never blocks an event-loop thread. Empty on a miss.
+     */
+    public Mono<PredictResponseDto> lookup(String features) {
+        if (!cfg.isSharedEnabled()) {
+            return Mono.justOrEmpty(get(features));
+        }
+        return Mono.fromCallable(() -> get(features)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Stores a fresh ML response; its model_version becomes the current version.
+     * Never blocks: the L2 write runs on a background scheduler, so this is safe on event-loop threads.
+     */
+    public void put(Map<String, Object> features, PredictResponseDto response) {
+        put(key(features), response);
+    }
+
+    public void put(String features, PredictResponseDto response) {
+        if (features == null || response == null || response.getModel_version() == null) {
+            return;
+        }
+        modelVersion = response.getModel_version();
+        Key key = new Key(response.getModel_version(), features);
+        local.put(key, response);
+        if (cfg.isSharedEnabled()) {
+            Schedulers.boundedElastic().schedule(() -> putShared(key, response));
+        }
+    }
+
+    /** Drops every entry of one model version from both tiers, returns the number of entries removed. */
+    public long purge(String version) {
+        long removed = 0;
+        for (Key k : local.asMap().keySet()) {
+            if (k.modelVersion().equals(version) && local.asMap().remove(k) != null) {
+                removed++;
+            }
+        }
+        if (cfg.isSharedEnabled()) {
+            removed += mongo.remove(Query.query(Criteria.where("modelVersion").is(version)), CachedPrediction.class)
+                .getDeletedCount();
+        }
+        return removed;
+    }
+
+    private PredictResponseDto getShared(Key key) {
+        try {
+            CachedPrediction c = mongo.findById(sharedId(key), CachedPrediction.class);
+            // the TTL monitor runs about once a minute, so also check expiry here
+            if (c == null || c.getExpiresAt().isBefore(Instant.now())) {
+                return null;
+            }
+            return new PredictResponseDto(c.getPredictedPrice(), c.getModelVersion(), c.getExplanations());
+        } catch (RuntimeException e) {
+            log.debug("L2 prediction cache read failed: {}", e.getMessage());
+            return null;                                // L2 is best effort, fall through to the ML call
+        }
+    }
+
+    private void putShared(Key key, PredictResponseDto r) {
+        try {
+            mongo.save(CachedPrediction.builder()
+                .id(sharedId(key))
+                .modelVersion(key.modelVersion())
+                .predictedPrice(r.getPredicted_price())
+                .explanations(r.getExplanations())
+                .expiresAt(Instant.now().plus(cfg.getSharedTtl()))
+                .build());
+        } catch (RuntimeException e) {
+            log.debug("L2 prediction cache write failed: {}", e.getMessage());
+        }
+    }
+
+    private static String sharedId(Key key) {
+        return key.modelVersion() + "|" + key.features();
+    }
+}
@@ -0,0 +1,183 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
+
+/**
+ * Streams all of one owner's predictions, newest first, from a Mongo cursor straight into the
+ * response as NDJSON (one Prediction per line, same shape as ?view=full) or CSV (key features only).
+ * The cursor fetches BATCH_SIZE documents per getMore and the output is flushed every BATCH_SIZE rows,
+ * so heap use does not depend on the size of the history. A client that disconnects fails the next
+ * write (servlet) or cancels the Flux (reactive), and either way the cursor is closed.
+ */
+@Component
+public class PredictionExport {
+    static final int BATCH_SIZE = 500;
+    static final List<String> CSV_FEATURES = List.of("bedrooms", "bathrooms", "area_sqm", "age_years", "location_index");
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+        CSV(MediaType.parseMediaType("text/csv"));
+
+        public final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("format must be ndjson or csv");
+            }
+        }
+
+        public String filename() {
+            return "predictions." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MongoTemplate mongo;
+    private final ReactiveMongoTemplate reactiveMongo;   // null outside a web app (e.g. the memory probe)
+    private final ObjectWriter json;
+    private final MeterRegistry meters;
+
+    public PredictionExport(MongoTemplate mongo, ReactiveMongoTemplate reactiveMongo, ObjectMapper mapper, MeterRegistry meters) {
+        this.mongo = mongo;
+        this.reactiveMongo = reactiveMongo;
+        this.json = mapper.writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)          // one value per row, keep the stream open
+            .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);    // nor flush it: write() flushes every BATCH_SIZE rows
+        this.meters = meters;
+    }
+
+    /** Blocking export into {@code out}; returns the number of rows written. */
+    public long write(String ownerId, Format format, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        long rows = 0;
+        try (Stream<Prediction> cursor = mongo.stream(query(ownerId), Prediction.class)) {
+            header(format, buffered);
+            for (var it = cursor.iterator(); it.hasNext(); ) {
+                row(format, it.next(), buffered);
+                if (++rows % BATCH_SIZE == 0) {
+                    buffered.flush();
+                    rowCounter(format).increment(BATCH_SIZE);
+                }
+            }
+            buffered.flush();
+            rowCounter(format).increment(rows % BATCH_SIZE);
+            return rows;
+        } catch (IOException e) {
+            abortCounter(format).increment();               // typically the client went away
+            throw e;
+        }
+    }
+
+    /** Non-blocking export for the reactive stack: one buffer per BATCH_SIZE rows, counted into {@code rows}. */
+    public Flux<DataBuffer> stream(String ownerId, Format format, AtomicLong rows) {
+        Flux<DataBuffer> body = reactiveMongo.find(query(ownerId), Prediction.class)
+            .buffer(BATCH_SIZE)
+            .<DataBuffer>map(batch -> {
+                ByteArrayOutputStream chunk = new ByteArrayOutputStream(batch.size() * 512);
+                batch.forEach(p -> encode(() -> row(format, p, chunk)));
+                rowCounter(format).increment(batch.size());
+                rows.addAndGet(batch.size());
+                return DefaultDataBufferFactory.sharedInstance.wrap(chunk.toByteArray());
+            })
+            .doOnCancel(() -> abortCounter(format).increment());
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        encode(() -> header(format, head));
+        return head.size() == 0 ? body : Flux.concat(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(head.toByteArray())), body);
+    }
+
+    private static Query query(String ownerId) {
+        return Query.query(Criteria.where("ownerId").is(ownerId))
+            .with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("_id")))     // owner_created_id_idx
+            .cursorBatchSize(BATCH_SIZE);
+    }
+
+    private void header(Format format, OutputStream out) throws IOException {
+        if (format == Format.CSV) {
+            out.write(("id,createdAt,predictedPrice,modelVersion," + String.join(",", CSV_FEATURES) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void row(Format format, Prediction p, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            json.writeValue(out, p);
+            out.write('\n');
+            return;
+        }
+        StringBuilder line = new StringBuilder(128)
+            .append(csv(p.getId())).append(',')
+            .append(p.getCreatedAt()).append(',')
+            .append(p.getPredictedPrice()).append(',')
+            .append(csv(p.getModelVersion()));
+        PropertyFeatures f = p.getFeatures();
+        if (f == null) {
+            line.append(",".repeat(CSV_FEATURES.size()));
+        } else {
+            line.append(',').append(f.bedrooms()).append(',').append(f.bathrooms()).append(',').append(f.area_sqm())
+                .append(',').append(f.age_years()).append(',').append(f.location_index());
+        }
+        out.write(line.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // RFC 4180: quote fields holding a comma, quote or line break, doubling inner quotes
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static void encode(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);              // ByteArrayOutputStream does not actually throw
+        }
+    }
+
+    private Counter rowCounter(Format format) {
+        return meters.counter("houseiq.export.rows", "format", format.name().toLowerCase(Locale.ROOT));
+    }
+
+    private Counter abortCounter(Format format) {
+        return meters.counter("houseiq.export.aborted", "format", format.name().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,126 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.config.FeatureMigrationProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
+import za.co.houseiq.houseiqbackend.prediction.model.PredictionConverters;
+
+/**
+ * Rewrites predictions whose features are still the legacy long-keyed map into the short-keyed
+ * PropertyFeatures shape, and stores topExplanations (PredictionView.top) on predictions written
+ * before the history listings projected it; until then their rows list no factors. Walks the collection once in _id order, batchSize documents at a time,
+ * with one unordered bulk write per batch and a short pause in between. Reads handle both shapes,
+ * so the app serves traffic normally while this runs, and an interrupted pass just walks again on
+ * the next startup. Each update matches only a still-legacy document, so a concurrent rewrite by
+ * another instance is harmless. A completed pass is recorded in the migrations collection and not
+ * repeated; documents written by an older release after that still read fine.
+ */
+@Slf4j
+@Component
+public class PredictionFeatureMigration {
+    static final Bson LEGACY = Filters.exists("features.bedrooms");
+    static final Bson NO_TOP = Filters.and(Filters.type("explanations", BsonType.DOCUMENT), Filters.exists("topExplanations", false));
+    static final Bson STALE = Filters.or(LEGACY, NO_TOP);
+    static final String MIGRATIONS = "migrations";
+    static final String ID = "prediction_features_v3";           // v2 only rewrote features
+
+    private final MongoTemplate mongo;
+    private final FeatureMigrationProperties cfg;
+    private final Counter rewritten;
+
+    public PredictionFeatureMigration(MongoTemplate mongo, FeatureMigrationProperties cfg, MeterRegistry meters) {
+        this.mongo = mongo;
+        this.cfg = cfg;
+        this.rewritten = Counter.builder("houseiq.migration.features.rewritten").register(meters);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!cfg.isEnabled()) {
+            return;
+        }
+        Thread.ofVirtual().name("prediction-feature-migration").start(() -> {
+            try {
+                if (done()) {
+                    return;
+                }
+                long n = migrate();
+                mongo.getCollection(MIGRATIONS).replaceOne(Filters.eq("_id", ID),
+                    new Document("_id", ID).append("rewritten", n).append("completedAt", new Date()), new ReplaceOptions().upsert(true));
+                log.info("Rewrote features or top explanations of {} predictions", n);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Prediction feature migration stopped, it resumes on next startup: {}", e.getMessage());
+            }
+        });
+    }
+
+    boolean done() {
+        return mongo.getCollection(MIGRATIONS).find(Filters.eq("_id", ID)).first() != null;
+    }
+
+    /** Runs the pass to the end; returns the number of documents rewritten. */
+    long migrate() throws InterruptedException {
+        MongoCollection<Document> predictions = mongo.getCollection(mongo.getCollectionName(Prediction.class));
+        Object lastId = null;
+        long total = 0;
+        while (true) {
+            Bson filter = lastId == null ? STALE : Filters.and(Filters.gt("_id", lastId), STALE);
+            List<Document> batch = predictions.find(filter)
+                .projection(Projections.include("features", "explanations", "topExplanations"))
+                .sort(Sorts.ascending("_id"))                   // _id index: one forward walk however many batches
+                .limit(cfg.getBatchSize())
+                .into(new ArrayList<>(cfg.getBatchSize()));
+            if (batch.isEmpty()) {
+                return total;
+            }
+            List<WriteModel<Document>> writes = new ArrayList<>(batch.size());
+            for (Document d : batch) {
+                List<Bson> sets = new ArrayList<>(2);
+                Document features = d.get("features", Document.class);
+                if (features != null && PredictionConverters.isLegacy(features)) {
+                    PropertyFeatures f = PredictionConverters.FeaturesRead.INSTANCE.convert(features);
+                    sets.add(Updates.set("features", PredictionConverters.FeaturesWrite.INSTANCE.convert(f)));
+                }
+                Document explanations = d.get("explanations", Document.class);
+                if (explanations != null && !d.containsKey("topExplanations")) {
+                    Map<String, Double> all = new LinkedHashMap<>();
+                    explanations.forEach((k, v) -> all.put(k, v instanceof Number n ? n.doubleValue() : 0.0));
+                    sets.add(Updates.set("topExplanations", PredictionView.top(all)));
+                }
+                writes.add(new UpdateOneModel<>(Filters.and(Filters.eq("_id", d.get("_id")), STALE), Updates.combine(sets)));
+            }
+            int modified = predictions.bulkWrite(writes, new BulkWriteOptions().ordered(false)).getModifiedCount();
+            rewritten.increment(modified);
+            total += modified;
+            lastId = batch.get(batch.size() - 1).get("_id");
+            Thread.sleep(cfg.getPause());
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.config.PredictionImportProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.ImportJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+
+/**
+ * Bulk CSV import. The upload is copied to a temp file on the request thread (up to
+ * predictions.import.max-upload-size) and the job id is returned as soon as the header is checked;
+ * the file is then read line by line on a virtual thread and deleted when the read ends. The copy
+ * is the one place the whole upload is held, on disk rather than in memory: the servlet request
+ * body cannot outlive the request, so the job reads its own copy. Rows are parsed and
+ * validated like PredictRequestDto, and valid ones are grouped into chunks of
+ * predictions.import.chunk-size. Each chunk takes one permit of a shared semaphore
+ * (predictions.import.concurrency), is scored with one MlClient.predictBatch call on a virtual
+ * thread and is saved with one unordered bulk insert. The reader blocks while every permit is
+ * taken, so at most concurrency + 1 chunks are in memory whatever the size of the file. Jobs live
+ * in memory for predictions.import.retention and can be polled by id.
+ */
+@Slf4j
+@Component
+public class PredictionImport implements DisposableBean {
+    static final List<String> COLUMNS = List.of("bedrooms", "bathrooms", "area_sqm", "age_years", "location_index");
+
+    private final MlClient mlClient;
+    private final MongoTemplate mongo;
+    private final Validator validator;
+    private final ActivityLogService activityLogs;
+    private final PredictionImportProperties cfg;
+    private final Semaphore permits;
+    private final ExecutorService scorers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Cache<String, Job> jobs;
+
+    private final Timer chunkTimer;
+    private final Counter saved;
+    private final Counter invalid;
+    private final Counter failed;
+
+    public PredictionImport(MlClient mlClient, MongoTemplate mongo, Validator validator, ActivityLogService activityLogs,
+                            PredictionImportProperties cfg, MeterRegistry meters) {
+        this.mlClient = mlClient;
+        this.mongo = mongo;
+        this.validator = validator;
+        this.activityLogs = activityLogs;
+        this.cfg = cfg;
+        this.permits = new Semaphore(Math.max(1, cfg.getConcurrency()));
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(cfg.getRetention()).maximumSize(10_000).build();
+        this.chunkTimer = Timer.builder("houseiq.import.chunk").register(meters);
+        this.saved = Counter.builder("houseiq.import.rows").tag("outcome", "saved").register(meters);
+        this.invalid = Counter.builder("houseiq.import.rows").tag("outcome", "invalid").register(meters);
+        this.failed = Counter.builder("houseiq.import.rows").tag("outcome", "failed").register(meters);
+    }
+
+    /**
+     * Spools the upload to a temp file and starts the job on it, see {@link #start(String, Path)}.
+     * The copy runs on the caller's thread and is bounded by disk speed, not by scoring: the whole
+     * body is on disk before the job exists, which is what lets the call return while rows are
+     * still being scored, and costs one upload's worth of disk per running import. Uploads larger
+     * than predictions.import.max-upload-size are rejected and their partial copy deleted.
+     */
+    public ImportJobDto start(String ownerId, InputStream csv) throws IOException {
+        Path upload = Files.createTempFile("houseiq-import-", ".csv");
+        try (csv; OutputStream out = Files.newOutputStream(upload)) {
+            long limit = cfg.getMaxUploadSize().toBytes(), copied = 0;
+            byte[] buf = new byte[8192];
+            for (int n = csv.read(buf); n >= 0; n = csv.read(buf)) {
+                copied += n;
+                if (copied > limit) {
+                    throw new IllegalArgumentException("CSV upload exceeds " + cfg.getMaxUploadSize());
+                }
+                out.write(buf, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        return start(ownerId, upload);
+    }
+
+    /**
+     * Checks the header and returns the new job while its rows are read and queued in the
+     * background. The import owns {@code upload} and deletes it once it has been read. A header
+     * without the required columns is rejected before a job is created.
+     */
+    public ImportJobDto start(String ownerId, Path upload) throws IOException {
+        BufferedReader reader = null;
+        try {
+            reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8);
+            int[] columns = header(reader.readLine());
+            Job job = new Job(UUID.randomUUID().toString(), ownerId, cfg.getMaxErrors());
+            BufferedReader rows = reader;
+            scorers.execute(() -> read(job, rows, columns, upload));
+            jobs.put(job.id, job);                          // before the caller can poll; the read may already be done
+            return job.snapshot();
+        } catch (IOException | RuntimeException e) {        // bad header, or the executor is shut down
+            if (reader != null) {
+                reader.close();
+            }
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+    }
+
+    // runs on its own virtual thread; submitted chunks may still be scoring when it returns
+    private void read(Job job, BufferedReader reader, int[] columns, Path upload) {
+        try (reader) {
+            List<Map<String, Object>> features = new ArrayList<>(cfg.getChunkSize());
+            List<Long> lines = new ArrayList<>(cfg.getChunkSize());
+            long lineNo = 1;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+                PredictRequestDto row = new PredictRequestDto();
+                String error = parse(line, columns, row);
+                if (error == null) {
+                    error = PredictionService.validationError(validator, row);
+                }
+                if (error != null) {
+                    invalid.increment();
+                    job.rowsInvalid.incrementAndGet();
+                    job.error(lineNo, "INVALID", error);
+                    continue;
+                }
+                features.add(PredictionService.toFeatures(row));
+                lines.add(lineNo);
+                if (features.size() == cfg.getChunkSize()) {
+                    submit(job, features, lines);
+                    features = new ArrayList<>(cfg.getChunkSize());
+                    lines = new ArrayList<>(cfg.getChunkSize());
+                }
+            }
+            if (!features.isEmpty()) {
+                submit(job, features, lines);
+            }
+        } catch (IOException | RuntimeException e) {
+            job.abort(e.getMessage());                      // unreadable file; submitted chunks still finish
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.abort("interrupted");
+        } finally {
+            delete(upload);
+            job.readDone();
+        }
+    }
+
+    public Optional<ImportJobDto> get(String ownerId, String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+            .filter(j -> j.ownerId.equals(ownerId))
+            .map(Job::snapshot);
+    }
+
+    // newest first
+    public List<ImportJobDto> list(String ownerId) {
+        return jobs.asMap().values().stream()
+            .filter(j -> j.ownerId.equals(ownerId))
+            .sorted(Comparator.comparing((Job j) -> j.startedAt).reversed())
+            .map(Job::snapshot)
+            .toList();
+    }
+
+    private void submit(Job job, List<Map<String, Object>> features, List<Long> lines) throws InterruptedException {
+        permits.acquire();                                  // back-pressure on the upload
+        job.chunkStarted(features.size());
+        try {
+            scorers.execute(() -> {
+                try {
+                    chunkTimer.record(() -> score(job, features, lines));
+                } finally {
+                    permits.release();
+                    job.chunkDone(features.size());
+                }
+            });
+        } catch (RuntimeException e) {                      // executor shut down
+            permits.release();
+            job.chunkDone(features.size());
+            throw e;
+        }
+    }
+
+    private void score(Job job, List<Map<String, Object>> features, List<Long> lines) {
+        List<Prediction> docs;
+        try {
+            List<PredictResponseDto> ml = mlClient.predictBatch(features);
+            Instant now = Instant.now();
+            docs = new ArrayList<>(ml.size());
+            for (int k = 0; k < ml.size(); k++) {
+                docs.add(PredictionService.newPrediction(job.ownerId, features.get(k), ml.get(k), now));
+            }
+        } catch (RuntimeException e) {
+            lines.forEach(line -> job.error(line, "FAILED", e.getMessage()));
+            failed.increment(lines.size());
+            job.rowsFailed.addAndGet(lines.size());
+            return;
+        }
+
+        int inserted;
+        try {
+            inserted = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, Prediction.class)
+                .insert(docs)
+                .execute()
+                .getInsertedCount();
+        } catch (BulkOperationException e) {                // unordered: the other documents are still written
+            inserted = e.getResult().getInsertedCount();
+            for (BulkWriteError error : e.getErrors()) {
+                job.error(lines.get(error.getIndex()), "FAILED", error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            inserted = 0;
+            lines.forEach(line -> job.error(line, "FAILED", e.getMessage()));
+        }
+        saved.increment(inserted);
+        failed.increment(docs.size() - inserted);
+        job.rowsSaved.addAndGet(inserted);
+        job.rowsFailed.addAndGet(docs.size() - inserted);
+    }
+
+    private static void delete(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            log.warn("Could not delete import upload {}: {}", upload, e.getMessage());
+        }
+    }
+
+    // column positions of COLUMNS in the header, in COLUMNS order
+    static int[] header(String line) {
+        if (line == null) {
+            throw new IllegalArgumentException("CSV is empty");
+        }
+        List<String> names = Arrays.stream(split(line)).map(s -> s.toLowerCase(Locale.ROOT)).toList();
+        int[] columns = new int[COLUMNS.size()];
+        for (int c = 0; c < COLUMNS.size(); c++) {
+            columns[c] = names.indexOf(COLUMNS.get(c));
+            if (columns[c] < 0) {
+                throw new IllegalArgumentException("CSV header must contain " + String.join(", ", COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    // fills row from the line; returns an error message instead of throwing
+    static String parse(String line, int[] columns, PredictRequestDto row) {
+        String[] values = split(line);
+        String[] v = new String[COLUMNS.size()];
+        for (int c = 0; c < columns.length; c++) {
+            if (columns[c] >= values.length || values[columns[c]].isEmpty()) {
+                return COLUMNS.get(c) + ": is required";
+            }
+            v[c] = values[columns[c]];
+        }
+        try {
+            row.setBedrooms(Integer.parseInt(v[0]));
+            row.setBathrooms(Integer.parseInt(v[1]));
+            row.setArea_sqm(Double.parseDouble(v[2]));
+            row.setAge_years(Integer.parseInt(v[3]));
+            row.setLocation_index(Integer.parseInt(v[4]));
+            return null;
+        } catch (NumberFormatException e) {
+            return "not a number: " + e.getMessage();
+        }
+    }
+
+    // numeric listings only, so no quoted commas or embedded line breaks: trim and unquote each field
+    private static String[] split(String line) {
+        String[] values = line.split(",", -1);
+        for (int i = 0; i < values.length; i++) {
+            String s = values[i].strip();
+            if (s.length() >= 2 && s.charAt(0) == '"' && s.charAt(s.length() - 1) == '"') {
+                s = s.substring(1, s.length() - 1).strip();
+            }
+            values[i] = s;
+        }
+        return values;
+    }
+
+    @Override
+    public void destroy() {
+        scorers.shutdownNow();
+    }
+
+    private final class Job {
+        final String id;
+        final String ownerId;
+        final int maxErrors;
+        final Instant startedAt = Instant.now();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsSaved = new AtomicLong();
+        final AtomicLong rowsInvalid = new AtomicLong();
+        final AtomicLong rowsFailed = new AtomicLong();
+        private final List<ImportJobDto.RowError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+        private long pending;
+        private int chunksInFlight;
+        private boolean reading = true;
+        private String abortedWith;
+        private Instant finishedAt;
+
+        Job(String id, String ownerId, int maxErrors) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void error(long line, String status, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportJobDto.RowError(line, status, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        synchronized void abort(String message) {
+            abortedWith = message == null ? "upload failed" : message;
+        }
+
+        synchronized void chunkStarted(int rows) {
+            chunksInFlight++;
+            pending += rows;
+        }
+
+        synchronized void chunkDone(int rows) {
+            chunksInFlight--;
+            pending -= rows;
+            finishIfDone();
+        }
+
+        synchronized void readDone() {
+            reading = false;
+            finishIfDone();
+        }
+
+        private void finishIfDone() {
+            if (reading || chunksInFlight > 0 || finishedAt != null) {
+                return;
+            }
+            finishedAt = Instant.now();
+            activityLogs.record(ownerId, "PREDICTION_IMPORT_FINISHED", Map.of(
+                "jobId", id,
+                "rows", rowsRead.get(),
+                "saved", rowsSaved.get(),
+                "invalid", rowsInvalid.get(),
+                "failed", rowsFailed.get()
+            ));
+        }
+
+        synchronized ImportJobDto snapshot() {
+            Instant end = finishedAt == null ? Instant.now() : finishedAt;
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            String status = abortedWith != null && finishedAt != null ? "FAILED"
+                : finishedAt != null ? "COMPLETED"
+                : reading ? "READING" : "SCORING";
+            return ImportJobDto.builder()
+                .id(id)
+                .status(status)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .rowsRead(rowsRead.get())
+                .rowsSaved(rowsSaved.get())
+                .rowsInvalid(rowsInvalid.get())
+                .rowsFailed(rowsFailed.get())
+                .rowsPending(pending)
+                .rowsPerSecond(Math.round(rowsSaved.get() / seconds * 10) / 10.0)
+                .errors(List.copyOf(errors))
+                .errorsTruncated(errorsTruncated)
+                .error(abortedWith)
+                .build();
+        }
+    }
+}
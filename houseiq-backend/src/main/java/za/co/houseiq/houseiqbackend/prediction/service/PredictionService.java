@@ -1,46 +1,109 @@
 package za.co.houseiq.houseiqbackend.prediction.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
+import jakarta.validation.ConstraintViolation;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import za.co.houseiq.houseiqbackend.prediction.dto.BatchPredictionResultDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
 import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
 import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+import za.co.houseiq.houseiqbackend.common.PageCursor;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
+import za.co.houseiq.houseiqbackend.common.StageTimer;
 import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
 
 @Service                                    // create a spring service (build features, call ml, persist, return dto
-@RequiredArgsConstructor
 public class PredictionService {
     private final PredictionRepository repo;    // inject repository
     private final MlClient mlClient;            // inject HTTP client
     private final ActivityLogService activityLogs;
+    private final Validator validator;          // per-item validation for batches
+    private final PredictionExport export;      // cursor-to-response streaming
+
+    // houseiq.prediction.service{method}: whole-method latency, repository and activity calls included
+    private final StageTimer createTimer;
+    private final StageTimer batchTimer;
+    private final StageTimer listTimer;
+    private final StageTimer pageTimer;
+    private final StageTimer listViewsTimer;
+    private final StageTimer pageViewsTimer;
+    private final StageTimer exportTimer;
+    private final StageTimer getTimer;
+    private final StageTimer deleteTimer;
+
+    public PredictionService(PredictionRepository repo, MlClient mlClient, ActivityLogService activityLogs,
+                             Validator validator, PredictionExport export, MeterRegistry meters) {
+        this.repo = repo;
+        this.mlClient = mlClient;
+        this.activityLogs = activityLogs;
+        this.validator = validator;
+        this.export = export;
+        this.createTimer = serviceTimer(meters, "create");
+        this.batchTimer = serviceTimer(meters, "create_batch");
+        this.listTimer = serviceTimer(meters, "list");
+        this.pageTimer = serviceTimer(meters, "page");
+        this.listViewsTimer = serviceTimer(meters, "list_views");
+        this.pageViewsTimer = serviceTimer(meters, "page_views");
+        this.exportTimer = serviceTimer(meters, "export");
+        this.getTimer = serviceTimer(meters, "get");
+        this.deleteTimer = serviceTimer(meters, "delete");
+    }
 
     public CreatePredictionDto createPrediction(String ownerId, PredictRequestDto req) {
-        Map<String,Object> features = Map.of(               // map of input features to getters of DTO
-            "bedrooms", req.getBedrooms(),
-            "bathrooms", req.getBathrooms(),
-            "area_sqm", req.getArea_sqm(),
-            "age_years", req.getAge_years(),
-            "location_index", req.getLocation_index()
-        );
+        return createTimer.time(() -> create(ownerId, req), CreatePredictionDto::getModel_version);
+    }
+
+    public BatchPredictionResultDto createBatch(String ownerId, List<PredictRequestDto> items) {
+        return batchTimer.time(() -> insertBatch(ownerId, items), PredictionService::modelVersion);
+    }
+
+    public java.util.List<Prediction> list(String ownerId, int page, int size) {
+        return listTimer.time(() -> offsetPage(ownerId, page, size));
+    }
+
+    public PageResponse<Prediction> page(String ownerId, String cursor, int size) {
+        return pageTimer.time(() -> keysetPage(ownerId, cursor, size));
+    }
+
+    public List<PredictionView> listViews(String ownerId, int page, int size) {
+        return listViewsTimer.time(() -> offsetViews(ownerId, page, size));
+    }
+
+    public PageResponse<PredictionView> pageViews(String ownerId, String cursor, int size) {
+        return pageViewsTimer.time(() -> keysetViews(ownerId, cursor, size));
+    }
+
+    public long export(String ownerId, PredictionExport.Format format, OutputStream out) throws IOException {
+        return exportTimer.time(() -> exportAll(ownerId, format, out));
+    }
+
+    public java.util.Optional<Prediction> get(String ownerId, String id) {
+        return getTimer.time(() -> findOwned(ownerId, id));
+    }
+
+    public void delete(String ownerId, String id) {
+        deleteTimer.time(() -> deleteOwned(ownerId, id));
+    }
+
+    private CreatePredictionDto create(String ownerId, PredictRequestDto req) {
+        Map<String,Object> features = toFeatures(req);
 
         PredictResponseDto ml = mlClient.predict(features);     // calls ml service and stored prediction
 
-        Instant now = Instant.now();                            // construct a prediction entity
-        Prediction p = Prediction.builder()
-            .ownerId(ownerId)                                   // set all values for MongoDB
-            .features(features)
-            .predictedPrice(ml.getPredicted_price())
-            .modelVersion(ml.getModel_version())
-            .explanations(ml.getExplanations())
-            .createdAt(now)
-            .updatedAt(now)
-            .version(1)
-            .build();
+        Prediction p = newPrediction(ownerId, features, ml, Instant.now());
 
         p = repo.save(p);                                       // persist to MongoDB. return saved instance
 
@@ -50,20 +113,70 @@ public class PredictionService {
             "modelVersion", p.getModelVersion()
         ));
 
-        return CreatePredictionDto.builder()                    // build and return DTO containing the persisted record's data
-            .id(p.getId())
-            .features(p.getFeatures())
-            .predicted_price(p.getPredictedPrice())
-            .model_version(p.getModelVersion())
-            .explanations(p.getExplanations())
-            .createdAt(p.getCreatedAt())
-            .updatedAt(p.getUpdatedAt())
-            .version(p.getVersion())
+        return toDto(p);
+    }
+
+    // validate each item on its own, score all valid items with one ML call, persist them with one insert
+    // and write a single activity entry. Invalid items and ML failures are reported per item.
+    private BatchPredictionResultDto insertBatch(String ownerId, List<PredictRequestDto> items) {
+        var results = new BatchPredictionResultDto.Item[items.size()];
+        List<Integer> validIdx = new ArrayList<>(items.size());
+        List<Map<String, Object>> validFeatures = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            PredictRequestDto item = items.get(i);
+            String error = validationError(validator, item);
+            if (error != null) {
+                results[i] = failedItem(i, "INVALID", error);
+            } else {
+                validIdx.add(i);
+                validFeatures.add(toFeatures(item));
+            }
+        }
+
+        if (!validFeatures.isEmpty()) {
+            try {
+                List<PredictResponseDto> ml = mlClient.predictBatch(validFeatures);   // one round-trip for the whole batch
+
+                Instant now = Instant.now();
+                List<Prediction> toSave = new ArrayList<>(ml.size());
+                for (int k = 0; k < ml.size(); k++) {
+                    toSave.add(newPrediction(ownerId, validFeatures.get(k), ml.get(k), now));
+                }
+
+                List<Prediction> saved = repo.insert(toSave);                      // one insertMany for the whole batch
+                for (int k = 0; k < saved.size(); k++) {
+                    int i = validIdx.get(k);
+                    results[i] = BatchPredictionResultDto.Item.builder()
+                        .index(i)
+                        .status("CREATED")
+                        .prediction(toDto(saved.get(k)))
+                        .build();
+                }
+            } catch (RuntimeException e) {
+                for (int i : validIdx) {
+                    results[i] = failedItem(i, "FAILED", e.getMessage());
+                }
+            }
+        }
+
+        int succeeded = (int) Arrays.stream(results).filter(r -> "CREATED".equals(r.getStatus())).count();
+        activityLogs.record(ownerId, "PREDICTION_BATCH_CREATED", Map.of(
+            "requested", items.size(),
+            "succeeded", succeeded,
+            "failed", items.size() - succeeded
+        ));
+
+        return BatchPredictionResultDto.builder()
+            .requested(items.size())
+            .succeeded(succeeded)
+            .failed(items.size() - succeeded)
+            .results(Arrays.asList(results))
             .build();
     }
 
     // query mongoDB for a page of predictions for ownerId, sorted by createdAt descending
-    public java.util.List<Prediction> list(String ownerId, int page, int size) {
+    private java.util.List<Prediction> offsetPage(String ownerId, int page, int size) {
         var result = repo.findByOwnerIdOrderByCreatedAtDesc(ownerId, PageRequest.of(page, size));
         activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
             "page", page,
@@ -73,8 +186,60 @@ public class PredictionService {
         return result;
     }
 
+    // keyset page after the cursor (null = newest), cost does not grow with depth
+    private PageResponse<Prediction> keysetPage(String ownerId, String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Prediction> fetched = after == null
+            ? repo.findByOwnerIdOrderByCreatedAtDescIdDesc(ownerId, PageCursor.probe(size))
+            : repo.findPageAfter(ownerId, after.createdAt(), after.id(), PageCursor.probe(size));
+        PageResponse<Prediction> result = PageCursor.page(fetched, size, Prediction::getCreatedAt, Prediction::getId);
+        activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
+            "cursor", after != null,
+            "size", size,
+            "returned", result.getItems().size()
+        ));
+        return result;
+    }
+
+    // projected list (PredictionView.FIELDS), the default shape of GET /api/predictions
+    private List<PredictionView> offsetViews(String ownerId, int page, int size) {
+        List<PredictionView> result = repo.findViewsByOwnerId(ownerId, PageRequest.of(page, size)).stream().map(PredictionView::of).toList();
+        activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
+            "page", page,
+            "size", size,
+            "returned", result.size(),
+            "view", "summary"
+        ));
+        return result;
+    }
+
+    private PageResponse<PredictionView> keysetViews(String ownerId, String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<PredictionView> fetched = (after == null
+            ? repo.findViewPage(ownerId, PageCursor.probe(size))
+            : repo.findViewPageAfter(ownerId, after.createdAt(), after.id(), PageCursor.probe(size))).stream().map(PredictionView::of).toList();
+        PageResponse<PredictionView> result = PageCursor.page(fetched, size, PredictionView::createdAt, PredictionView::id);
+        activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
+            "cursor", after != null,
+            "size", size,
+            "returned", result.getItems().size(),
+            "view", "summary"
+        ));
+        return result;
+    }
+
+    // the whole history, streamed from a Mongo cursor into out
+    private long exportAll(String ownerId, PredictionExport.Format format, OutputStream out) throws IOException {
+        long rows = export.write(ownerId, format, out);
+        activityLogs.record(ownerId, "PREDICTIONS_EXPORTED", Map.of(
+            "format", format.name(),
+            "rows", rows
+        ));
+        return rows;
+    }
+
     //load a prediction by id and return it only if its ownerId matches the caller
-    public java.util.Optional<Prediction> get(String ownerId, String id) {
+    private java.util.Optional<Prediction> findOwned(String ownerId, String id) {
         var opt = repo.findById(id).filter(p -> p.getOwnerId().equals(ownerId));
         opt.ifPresent(p -> activityLogs.record(ownerId, "PREDICTION_VIEWED", Map.of(
             "predictionId", p.getId()
@@ -83,7 +248,7 @@ public class PredictionService {
     }
 
     // find by id, check ownership, and delete only when the owner matches
-    public void delete(String ownerId, String id) {
+    private void deleteOwned(String ownerId, String id) {
         repo.findById(id).filter(p -> p.getOwnerId().equals(ownerId)).ifPresent(p -> {
             repo.delete(p);
             activityLogs.record(ownerId, "PREDICTION_DELETED", Map.of(
@@ -91,4 +256,69 @@ public class PredictionService {
             ));
         });
     }
+
+    private static StageTimer serviceTimer(MeterRegistry meters, String method) {
+        return new StageTimer(meters, "houseiq.prediction.service", "method", method);
+    }
+
+    // one model scores a batch; none when no item was scored
+    private static String modelVersion(BatchPredictionResultDto result) {
+        return result.getResults().stream()
+            .filter(item -> item.getPrediction() != null)
+            .map(item -> item.getPrediction().getModel_version())
+            .findFirst()
+            .orElse(null);
+    }
+
+    static Map<String, Object> toFeatures(PredictRequestDto req) {       // shared with ReactivePredictionService
+        return Map.of(                                      // map of input features to getters of DTO
+            "bedrooms", req.getBedrooms(),
+            "bathrooms", req.getBathrooms(),
+            "area_sqm", req.getArea_sqm(),
+            "age_years", req.getAge_years(),
+            "location_index", req.getLocation_index()
+        );
+    }
+
+    static Prediction newPrediction(String ownerId, Map<String, Object> features, PredictResponseDto ml, Instant now) {
+        return Prediction.builder()                             // construct a prediction entity
+            .ownerId(ownerId)                                   // set all values for MongoDB
+            .features(PropertyFeatures.fromMap(features))
+            .predictedPrice(ml.getPredicted_price())
+            .modelVersion(ml.getModel_version())
+            .explanations(ml.getExplanations())
+            .topExplanations(PredictionView.top(ml.getExplanations()))
+            .createdAt(now)
+            .updatedAt(now)
+            .version(1)
+            .build();
+    }
+
+    // first constraint violation as "field: message", or null when the item is valid; shared with PredictionImport
+    static String validationError(Validator validator, PredictRequestDto item) {
+        if (item == null) {
+            return "item is required";
+        }
+        return validator.validate(item).stream()
+            .findFirst()
+            .map((ConstraintViolation<PredictRequestDto> v) -> v.getPropertyPath() + ": " + v.getMessage())
+            .orElse(null);
+    }
+
+    private static BatchPredictionResultDto.Item failedItem(int index, String status, String error) {
+        return BatchPredictionResultDto.Item.builder().index(index).status(status).error(error).build();
+    }
+
+    static CreatePredictionDto toDto(Prediction p) {
+        return CreatePredictionDto.builder()                    // build and return DTO containing the persisted record's data
+            .id(p.getId())
+            .features(p.getFeatures())
+            .predicted_price(p.getPredictedPrice())
+            .model_version(p.getModelVersion())
+            .explanations(p.getExplanations())
+            .createdAt(p.getCreatedAt())
+            .updatedAt(p.getUpdatedAt())
+            .version(p.getVersion())
+            .build();
+    }
 }
@@ -0,0 +1,142 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precomputed model output written by houseiq-ml/build_price_grid.py: one float32 price per
+ * (integer features..., area step), memory-mapped so the grid lives in the page cache, not on the heap.
+ * Lookups use absolute reads only, so one instance is safe to share between threads.
+ */
+public final class PriceGrid {
+    static final int MAGIC = 0x47505148;            // "HQPG" read little-endian
+    static final int FORMAT_VERSION = 1;
+
+    private final String modelVersion;
+    private final Map<String, Double> explanations;
+    private final String[] axisNames;               // integer axes, outermost first
+    private final int[] axisMin;
+    private final int[] axisCount;
+    private final int[] axisStride;                 // in cells
+    private final double areaMin;
+    private final double areaStep;
+    private final int areaCount;
+    private final ByteBuffer data;                  // little-endian float32 cells
+
+    private PriceGrid(ByteBuffer buf) {
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a price grid (bad magic)");
+        }
+        int format = buf.getInt();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported price grid format version " + format);
+        }
+        this.modelVersion = readString(buf);
+        int nExpl = buf.getInt();
+        Map<String, Double> expl = new LinkedHashMap<>();
+        for (int i = 0; i < nExpl; i++) {
+            expl.put(readString(buf), buf.getDouble());
+        }
+        this.explanations = Collections.unmodifiableMap(expl);
+
+        int nAxes = buf.getInt();
+        this.axisNames = new String[nAxes];
+        this.axisMin = new int[nAxes];
+        this.axisCount = new int[nAxes];
+        for (int i = 0; i < nAxes; i++) {
+            axisNames[i] = readString(buf);
+            axisMin[i] = buf.getInt();
+            axisCount[i] = buf.getInt();
+        }
+        this.areaMin = buf.getDouble();
+        this.areaStep = buf.getDouble();
+        this.areaCount = buf.getInt();
+        buf.position((buf.position() + 7) & ~7);                // header is padded to 8 bytes
+
+        this.axisStride = new int[nAxes];
+        long cells = areaCount;
+        for (int i = nAxes - 1; i >= 0; i--) {
+            axisStride[i] = (int) cells;
+            cells *= axisCount[i];
+        }
+        if (buf.remaining() != cells * Float.BYTES) {
+            throw new IllegalArgumentException("Price grid is truncated: expected " + cells + " cells");
+        }
+        this.data = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static PriceGrid map(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PriceGrid(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));   // mapping outlives the channel
+        }
+    }
+
+    static PriceGrid read(ByteBuffer buf) {
+        return new PriceGrid(buf);
+    }
+
+    /**
+     * Price for one property, linearly interpolated on area between the two neighbouring samples.
+     * NaN when a feature is missing, not an integer, outside the grid, or when the two samples differ by
+     * more than maxRelativeGap (the model has a split in between, so interpolation would be a guess).
+     */
+    public double lookup(Map<String, Object> features, double maxRelativeGap) {
+        int cell = 0;
+        for (int i = 0; i < axisNames.length; i++) {
+            if (!(features.get(axisNames[i]) instanceof Number n)) {
+                return Double.NaN;
+            }
+            double v = n.doubleValue();
+            int k = (int) v - axisMin[i];
+            if (k != v - axisMin[i] || k < 0 || k >= axisCount[i]) {
+                return Double.NaN;
+            }
+            cell += k * axisStride[i];
+        }
+        if (!(features.get("area_sqm") instanceof Number area)) {
+            return Double.NaN;
+        }
+        double pos = (area.doubleValue() - areaMin) / areaStep;
+        if (!(pos >= 0) || pos > areaCount - 1) {
+            return Double.NaN;
+        }
+        int lo = (int) pos;
+        double frac = pos - lo;
+        double v0 = data.getFloat((cell + lo) * Float.BYTES);
+        if (frac == 0) {
+            return v0;
+        }
+        double v1 = data.getFloat((cell + lo + 1) * Float.BYTES);
+        if (Math.abs(v1 - v0) > maxRelativeGap * Math.min(Math.abs(v0), Math.abs(v1))) {
+            return Double.NaN;
+        }
+        return v0 + frac * (v1 - v0);
+    }
+
+    public String modelVersion() {
+        return modelVersion;
+    }
+
+    public Map<String, Double> explanations() {
+        return explanations;
+    }
+
+    public long cells() {
+        return (long) axisStride[0] * axisCount[0];
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] b = new byte[buf.getInt()];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.nio.file.Path;
+import java.util.Map;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+/**
+ * Answers predictions from the memory-mapped {@link PriceGrid} (ml.grid.*). Anything the grid cannot
+ * answer within ml.grid.max-relative-gap returns null and goes to the live model. Once the ML service
+ * reports a different model version than the grid was built with, the grid is no longer used.
+ */
+@Slf4j
+@Component
+public class PriceGridLookup {
+    private final PriceGrid grid;                   // null when disabled or not loaded
+    private final double maxRelativeGap;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile boolean stale;
+
+    public PriceGridLookup(MlClientProperties props, MeterRegistry meters) {
+        MlClientProperties.Grid cfg = props.getGrid();
+        this.grid = cfg.isEnabled() ? load(cfg.getPath()) : null;
+        this.maxRelativeGap = cfg.getMaxRelativeGap();
+        this.hits = Counter.builder("houseiq.ml.grid.hits").register(meters);
+        this.misses = Counter.builder("houseiq.ml.grid.misses").register(meters);
+    }
+
+    public boolean isAvailable() {
+        return grid != null && !stale;
+    }
+
+    /** Grid answer, or null when the live model has to be asked. */
+    public PredictResponseDto predict(Map<String, Object> features) {
+        double price = grid.lookup(features, maxRelativeGap);
+        if (Double.isNaN(price)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new PredictResponseDto(price, grid.modelVersion(), grid.explanations());
+    }
+
+    /** Called with the version of every live ML response; a mismatch retires the grid. */
+    public void observeModelVersion(String modelVersion) {
+        if (grid != null && !stale && modelVersion != null && !modelVersion.equals(grid.modelVersion())) {
+            stale = true;
+            log.warn("Price grid built for {} but the ML service now serves {}; grid disabled until rebuilt",
+                grid.modelVersion(), modelVersion);
+        }
+    }
+
+    private static PriceGrid load(String path) {
+        try {
+            PriceGrid g = PriceGrid.map(Path.of(path));
+            log.info("Price grid for {} mapped from {} ({} cells)", g.modelVersion(), path, g.cells());
+            return g;
+        } catch (Exception e) {
+            log.warn("Price grid unavailable, using the live model: cannot map {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.PageCursor;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
+import za.co.houseiq.houseiqbackend.common.activity.ReactiveActivityLogService;
+import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.repo.ReactivePredictionRepository;
+
+/**
+ * Non-blocking PredictionService for the reactive profile: the ML call, the Mongo writes and the
+ * activity entries are chained on the event loop, so a slow ML call holds no thread while it waits.
+ * Same behaviour and activity actions as {@link PredictionService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactivePredictionService {
+    private final ReactivePredictionRepository repo;
+    private final MlClient mlClient;
+    private final ReactiveActivityLogService activityLogs;
+    private final PredictionExport export;
+
+    public Mono<CreatePredictionDto> createPrediction(String ownerId, PredictRequestDto req) {
+        Map<String, Object> features = PredictionService.toFeatures(req);
+
+        return mlClient.predictAsync(features)
+            .flatMap(ml -> repo.save(PredictionService.newPrediction(ownerId, features, ml, Instant.now())))
+            .flatMap(p -> activityLogs.record(ownerId, "PREDICTION_CREATED", Map.of(
+                    "predictionId", p.getId(),
+                    "predictedPrice", p.getPredictedPrice(),
+                    "modelVersion", p.getModelVersion()))
+                .thenReturn(PredictionService.toDto(p)));
+    }
+
+    public Mono<List<Prediction>> list(String ownerId, int page, int size) {
+        return repo.findByOwnerIdOrderByCreatedAtDesc(ownerId, PageRequest.of(page, size))
+            .collectList()
+            .flatMap(result -> activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
+                    "page", page,
+                    "size", size,
+                    "returned", result.size()))
+                .thenReturn(result));
+    }
+
+    public Mono<PageResponse<Prediction>> page(String ownerId, String cursor, int size) {
+        return Mono.fromCallable(() -> PageCursor.decode(cursor))
+            .map(after -> repo.findPageAfter(ownerId, after.createdAt(), after.id(), PageCursor.probe(size)))
+            .defaultIfEmpty(repo.findByOwnerIdOrderByCreatedAtDescIdDesc(ownerId, PageCursor.probe(size)))
+            .flatMap(fetched -> fetched.collectList())
+            .map(fetched -> PageCursor.page(fetched, size, Prediction::getCreatedAt, Prediction::getId))
+            .flatMap(result -> activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
+                    "cursor", cursor != null && !cursor.isBlank(),
+                    "size", size,
+                    "returned", result.getItems().size()))
+                .thenReturn(result));
+    }
+
+    public Mono<List<PredictionView>> listViews(String ownerId, int page, int size) {
+        return repo.findViewsByOwnerId(ownerId, PageRequest.of(page, size))
+            .map(PredictionView::of)
+            .collectList()
+            .flatMap(result -> activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
+                    "page", page,
+                    "size", size,
+                    "returned", result.size(),
+                    "view", "summary"))
+                .thenReturn(result));
+    }
+
+    public Mono<PageResponse<PredictionView>> pageViews(String ownerId, String cursor, int size) {
+        return Mono.fromCallable(() -> PageCursor.decode(cursor))
+            .map(after -> repo.findViewPageAfter(ownerId, after.createdAt(), after.id(), PageCursor.probe(size)))
+            .defaultIfEmpty(repo.findViewPage(ownerId, PageCursor.probe(size)))
+            .flatMap(fetched -> fetched.map(PredictionView::of).collectList())
+            .map(fetched -> PageCursor.page(fetched, size, PredictionView::createdAt, PredictionView::id))
+            .flatMap(result -> activityLogs.record(ownerId, "PREDICTION_LISTED", Map.of(
+                    "cursor", cursor != null && !cursor.isBlank(),
+                    "size", size,
+                    "returned", result.getItems().size(),
+                    "view", "summary"))
+                .thenReturn(result));
+    }
+
+    // the activity entry is written once the last buffer has gone out, not on cancel
+    public Flux<DataBuffer> export(String ownerId, PredictionExport.Format format) {
+        AtomicLong rows = new AtomicLong();
+        return export.stream(ownerId, format, rows)
+            .concatWith(Mono.defer(() -> activityLogs.record(ownerId, "PREDICTIONS_EXPORTED", Map.of(
+                    "format", format.name(),
+                    "rows", rows.get())))
+                .then(Mono.empty()));
+    }
+
+    // empty when the prediction does not exist or belongs to someone else
+    public Mono<Prediction> get(String ownerId, String id) {
+        return repo.findById(id)
+            .filter(p -> p.getOwnerId().equals(ownerId))
+            .flatMap(p -> activityLogs.record(ownerId, "PREDICTION_VIEWED", Map.of("predictionId", p.getId()))
+                .thenReturn(p));
+    }
+
+    public Mono<Void> delete(String ownerId, String id) {
+        return repo.findById(id)
+            .filter(p -> p.getOwnerId().equals(ownerId))
+            .flatMap(p -> repo.delete(p)
+                .then(activityLogs.record(ownerId, "PREDICTION_DELETED", Map.of("predictionId", p.getId()))));
+    }
+}
@@ -0,0 +1,242 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.config.ScoringJobProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob.Status;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+
+/**
+ * The scoring_jobs queue. Clients submit, poll and cancel through the public methods; ScoringWorkers
+ * uses the package-private ones. A worker owns a job while leaseOwner is its id and leaseExpiresAt is
+ * in the future. Every write a worker makes is conditional on still owning the lease, so once a lease
+ * has expired and another instance has claimed the job, the old worker's updates match nothing and
+ * it stops.
+ */
+@Component
+public class ScoringJobs {
+    static final int LIST_LIMIT = 50;
+
+    private final MongoTemplate mongo;
+    private final PredictionRepository predictions;
+    private final Validator validator;
+    private final ActivityLogService activityLogs;
+    private final ScoringJobProperties cfg;
+
+    public ScoringJobs(MongoTemplate mongo, PredictionRepository predictions, Validator validator,
+                       ActivityLogService activityLogs, ScoringJobProperties cfg) {
+        this.mongo = mongo;
+        this.predictions = predictions;
+        this.validator = validator;
+        this.activityLogs = activityLogs;
+        this.cfg = cfg;
+    }
+
+    /** Queues a job; the whole request is rejected (400) if any item is invalid. */
+    public ScoringJobDto submit(String ownerId, ScoringJobRequestDto req) {
+        List<PredictRequestDto> items = req.getItems() == null ? List.of() : req.getItems();
+        if (req.isRevalue() == !items.isEmpty()) {
+            throw new IllegalArgumentException("Submit either items or revalue=true");
+        }
+        if (items.size() > cfg.getMaxItems()) {
+            throw new IllegalArgumentException("At most " + cfg.getMaxItems() + " items per job");
+        }
+        List<Map<String, Object>> features = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            String error = PredictionService.validationError(validator, items.get(i));
+            if (error != null) {
+                throw new IllegalArgumentException("items[" + i + "]." + error);
+            }
+            features.add(PredictionService.toFeatures(items.get(i)));
+        }
+
+        ScoringJob job = mongo.insert(ScoringJob.builder()
+            .ownerId(ownerId)
+            .kind(req.isRevalue() ? ScoringJob.Kind.REVALUE : ScoringJob.Kind.ITEMS)
+            .status(Status.QUEUED)
+            .items(req.isRevalue() ? null : features)
+            .total(req.isRevalue() ? predictions.countByOwnerId(ownerId) : features.size())
+            .errors(List.of())
+            .createdAt(Instant.now())
+            .build());
+        activityLogs.record(ownerId, "SCORING_JOB_SUBMITTED", Map.of(
+            "jobId", job.getId(),
+            "kind", job.getKind().name(),
+            "total", job.getTotal()
+        ));
+        return toDto(job);
+    }
+
+    public Optional<ScoringJobDto> get(String ownerId, String jobId) {
+        return Optional.ofNullable(mongo.findOne(withoutItems(ownedBy(ownerId, jobId)), ScoringJob.class)).map(ScoringJobs::toDto);
+    }
+
+    // newest first, owner_created_idx
+    public List<ScoringJobDto> list(String ownerId) {
+        Query q = withoutItems(Query.query(Criteria.where("ownerId").is(ownerId)))
+            .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+            .limit(LIST_LIMIT);
+        return mongo.find(q, ScoringJob.class).stream().map(ScoringJobs::toDto).toList();
+    }
+
+    /** A queued job is cancelled at once; a running one stops at its next chunk. Finished jobs are left as they are. */
+    public Optional<ScoringJobDto> cancel(String ownerId, String jobId) {
+        Instant now = Instant.now();
+        ScoringJob queued = mongo.findAndModify(
+            withoutItems(ownedBy(ownerId, jobId).addCriteria(Criteria.where("status").is(Status.QUEUED))),
+            finished(Status.CANCELLED, null, now),
+            FindAndModifyOptions.options().returnNew(true), ScoringJob.class);
+        if (queued != null) {
+            return Optional.of(toDto(queued));
+        }
+        mongo.updateFirst(ownedBy(ownerId, jobId).addCriteria(Criteria.where("status").is(Status.RUNNING)),
+            new Update().set("cancelRequested", true), ScoringJob.class);
+        return get(ownerId, jobId);
+    }
+
+    /** Oldest queued job, or a running one whose lease has expired; null when there is nothing to do. */
+    ScoringJob claim(String worker, Instant now) {
+        Query q = withoutItems(new Query(new Criteria().orOperator(
+                Criteria.where("status").is(Status.QUEUED),
+                Criteria.where("status").is(Status.RUNNING).and("leaseExpiresAt").lt(now))))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        Update u = lease(worker, now)
+            .set("status", Status.RUNNING)
+            .min("startedAt", now)                          // only the first claim sets it
+            .inc("attempts", 1);
+        return mongo.findAndModify(q, u, FindAndModifyOptions.options().returnNew(true), ScoringJob.class);
+    }
+
+    /**
+     * Renews the lease and reads what the next chunk needs: cancelRequested, plus items[offset, offset + size)
+     * for ITEMS jobs. Null when the lease is gone.
+     */
+    ScoringJob next(ScoringJob job, String worker, int size, Instant now) {
+        Query q = owned(job.getId(), worker);
+        q.fields().include("cancelRequested");
+        if (job.getKind() == ScoringJob.Kind.ITEMS) {
+            q.fields().slice("items", (int) job.getProcessed(), size);
+        }
+        return mongo.findAndModify(q, lease(worker, now), FindAndModifyOptions.options().returnNew(true), ScoringJob.class);
+    }
+
+    boolean renew(String jobId, String worker, Instant now) {
+        return mongo.updateFirst(owned(jobId, worker), lease(worker, now), ScoringJob.class).getMatchedCount() > 0;
+    }
+
+    /** Records one finished chunk; false when the lease is gone. */
+    boolean progress(ScoringJob job, String worker, long saved, long failed, List<ScoringJob.ItemError> errors, Instant now) {
+        Update u = lease(worker, now)
+            .set("processed", job.getProcessed())
+            .set("resumeAfter", job.getResumeAfter())
+            .inc("saved", saved)
+            .inc("failed", failed);
+        if (!errors.isEmpty()) {
+            u.push("errors").slice(cfg.getMaxErrors()).each(errors.toArray());
+        }
+        return mongo.updateFirst(owned(job.getId(), worker), u, ScoringJob.class).getMatchedCount() > 0;
+    }
+
+    void finish(ScoringJob job, String worker, Status status, String error, Instant now) {
+        ScoringJob done = mongo.findAndModify(withoutItems(owned(job.getId(), worker)), finished(status, error, now),
+            FindAndModifyOptions.options().returnNew(true), ScoringJob.class);
+        if (done != null) {
+            activityLogs.record(done.getOwnerId(), "SCORING_JOB_FINISHED", Map.of(
+                "jobId", done.getId(),
+                "status", status.name(),
+                "saved", done.getSaved(),
+                "failed", done.getFailed()
+            ));
+        }
+    }
+
+    // shutdown: hand the job back so another instance can pick it up without waiting for the lease to expire;
+    // a clean hand-back does not count towards max-attempts
+    void release(String jobId, String worker) {
+        mongo.updateFirst(owned(jobId, worker),
+            new Update().set("status", Status.QUEUED).unset("leaseOwner").unset("leaseExpiresAt").inc("attempts", -1), ScoringJob.class);
+    }
+
+    long count(Status status) {
+        return mongo.count(Query.query(Criteria.where("status").is(status)), ScoringJob.class);
+    }
+
+    // time since the stalest running job last heartbeated, zero when nothing runs
+    Duration oldestHeartbeat(Instant now) {
+        Query q = Query.query(Criteria.where("status").is(Status.RUNNING)).with(Sort.by(Sort.Direction.ASC, "heartbeatAt"));
+        q.fields().include("heartbeatAt");
+        ScoringJob stalest = mongo.findOne(q, ScoringJob.class);
+        return stalest == null || stalest.getHeartbeatAt() == null ? Duration.ZERO : Duration.between(stalest.getHeartbeatAt(), now);
+    }
+
+    private Update lease(String worker, Instant now) {
+        return new Update()
+            .set("leaseOwner", worker)
+            .set("leaseExpiresAt", now.plus(cfg.getLeaseDuration()))
+            .set("heartbeatAt", now);
+    }
+
+    private Update finished(Status status, String error, Instant now) {
+        Update u = new Update()
+            .set("status", status)
+            .set("finishedAt", now)
+            .set("expiresAt", now.plus(cfg.getRetention()))
+            .unset("items")                                 // can be megabytes; progress counts are kept
+            .unset("leaseOwner")
+            .unset("leaseExpiresAt");
+        return error == null ? u : u.set("error", error);
+    }
+
+    private static Query owned(String jobId, String worker) {
+        return Query.query(Criteria.where("_id").is(jobId).and("status").is(Status.RUNNING).and("leaseOwner").is(worker));
+    }
+
+    private static Query ownedBy(String ownerId, String jobId) {
+        return Query.query(Criteria.where("_id").is(jobId).and("ownerId").is(ownerId));
+    }
+
+    private static Query withoutItems(Query q) {
+        q.fields().exclude("items");
+        return q;
+    }
+
+    static ScoringJobDto toDto(ScoringJob job) {
+        Instant end = job.getFinishedAt() == null ? Instant.now() : job.getFinishedAt();
+        double seconds = job.getStartedAt() == null ? 0 : Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1) / 1000.0;
+        return ScoringJobDto.builder()
+            .id(job.getId())
+            .kind(job.getKind().name())
+            .status(job.getStatus().name())
+            .total(job.getTotal())
+            .processed(job.getProcessed())
+            .saved(job.getSaved())
+            .failed(job.getFailed())
+            .rowsPerSecond(seconds == 0 ? 0 : Math.round(job.getProcessed() / seconds * 10) / 10.0)
+            .attempts(job.getAttempts())
+            .cancelRequested(job.isCancelRequested())
+            .createdAt(job.getCreatedAt())
+            .startedAt(job.getStartedAt())
+            .heartbeatAt(job.getHeartbeatAt())
+            .finishedAt(job.getFinishedAt())
+            .errors(job.getErrors() == null ? List.of() : job.getErrors())
+            .error(job.getError())
+            .build();
+    }
+}
@@ -0,0 +1,306 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import za.co.houseiq.houseiqbackend.common.PageCursor;
+import za.co.houseiq.houseiqbackend.config.ScoringJobProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob.Status;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+
+/**
+ * scoring.jobs.workers threads that claim jobs from ScoringJobs and work through them a chunk at a
+ * time: one predictBatch call, one write through PredictionRepository, one progress update. A
+ * heartbeat thread renews the leases of the jobs held here and samples the queue gauges. A job whose
+ * instance dies is reclaimed once its lease expires and resumes from its last recorded chunk. A chunk
+ * that was written but not yet recorded is scored again, so delivery is at least once per chunk. The
+ * lease is re-checked just before each write to keep that window small.
+ */
+@Slf4j
+@Component
+public class ScoringWorkers implements DisposableBean {
+    static final long SHUTDOWN_WAIT_MILLIS = 10_000;
+
+    private final ScoringJobs jobs;
+    private final MlClient mlClient;
+    private final PredictionRepository predictions;
+    private final MongoTemplate mongo;
+    private final ScoringJobProperties cfg;
+    private final String workerId = host() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> idle = ConcurrentHashMap.newKeySet();    // only these are interrupted on shutdown
+    private final List<Thread> threads = new ArrayList<>();
+    private final ScheduledExecutorService heartbeats =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("scoring-heartbeat").daemon().factory());
+    private volatile boolean running;
+
+    private final Timer chunkTimer;
+    private final Counter saved;
+    private final Counter failed;
+    private final Counter reclaimed;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong leaseAgeMillis = new AtomicLong();
+
+    public ScoringWorkers(ScoringJobs jobs, MlClient mlClient, PredictionRepository predictions, MongoTemplate mongo,
+                          ScoringJobProperties cfg, MeterRegistry meters) {
+        this.jobs = jobs;
+        this.mlClient = mlClient;
+        this.predictions = predictions;
+        this.mongo = mongo;
+        this.cfg = cfg;
+        this.chunkTimer = Timer.builder("houseiq.scoring.chunk").register(meters);
+        this.saved = Counter.builder("houseiq.scoring.rows").tag("outcome", "saved").register(meters);
+        this.failed = Counter.builder("houseiq.scoring.rows").tag("outcome", "failed").register(meters);
+        this.reclaimed = Counter.builder("houseiq.scoring.reclaimed").register(meters);
+        Gauge.builder("houseiq.scoring.queue.depth", queueDepth, AtomicLong::get).register(meters);
+        Gauge.builder("houseiq.scoring.lease.age", leaseAgeMillis, a -> a.get() / 1000.0).baseUnit("seconds").register(meters);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (cfg.isWorkersEnabled()) {
+            start();
+        }
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < cfg.getWorkers(); i++) {
+            threads.add(Thread.ofPlatform().name("scoring-worker-" + i).daemon().start(this::loop));
+        }
+        long every = cfg.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, every, every, TimeUnit.MILLISECONDS);
+        log.info("Started {} scoring workers as {}", cfg.getWorkers(), workerId);
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                ScoringJob job = jobs.claim(workerId, Instant.now());
+                if (job == null) {
+                    long poll = cfg.getPollInterval().toMillis();
+                    idle(poll + ThreadLocalRandom.current().nextLong(poll / 2 + 1));   // instances do not poll in step
+                    continue;
+                }
+                process(job);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Scoring worker error, backing off: {}", e.getMessage());
+                try {
+                    idle(cfg.getPollInterval().toMillis());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void idle(long millis) throws InterruptedException {
+        idle.add(Thread.currentThread());
+        try {
+            if (running) {
+                Thread.sleep(millis);
+            }
+        } finally {
+            idle.remove(Thread.currentThread());
+        }
+    }
+
+    /** Works one claimed job until it finishes, is cancelled, or the lease is lost. */
+    void process(ScoringJob job) {
+        held.add(job.getId());
+        try {
+            if (job.getAttempts() > 1) {
+                reclaimed.increment();
+                log.info("Resuming scoring job {} at row {} (attempt {})", job.getId(), job.getProcessed(), job.getAttempts());
+            }
+            if (job.getAttempts() > cfg.getMaxAttempts()) {
+                jobs.finish(job, workerId, Status.FAILED, "abandoned by " + (job.getAttempts() - 1) + " workers", Instant.now());
+                return;
+            }
+            while (running) {
+                ScoringJob next = jobs.next(job, workerId, cfg.getChunkSize(), Instant.now());
+                if (next == null) {
+                    return;                                 // lease lost: another instance owns the job now
+                }
+                if (next.isCancelRequested()) {
+                    jobs.finish(job, workerId, Status.CANCELLED, null, Instant.now());
+                    return;
+                }
+                Timer.Sample chunk = Timer.start();
+                Boolean more = job.getKind() == ScoringJob.Kind.ITEMS ? items(job, next.getItems()) : revalue(job);
+                chunk.stop(chunkTimer);
+                if (more == null) {
+                    return;                                 // lease lost before the write
+                }
+                if (!more) {
+                    jobs.finish(job, workerId, Status.COMPLETED, null, Instant.now());
+                    return;
+                }
+            }
+            jobs.release(job.getId(), workerId);            // shutting down: another instance resumes it
+        } finally {
+            held.remove(job.getId());
+        }
+    }
+
+    // one chunk of new predictions: true when recorded, false when there was nothing left, null when the lease is gone
+    private Boolean items(ScoringJob job, List<Map<String, Object>> features) {
+        if (features == null || features.isEmpty()) {
+            return false;
+        }
+        long offset = job.getProcessed();
+        List<ScoringJob.ItemError> errors = new ArrayList<>();
+        List<Prediction> docs = new ArrayList<>(features.size());
+        try {
+            List<PredictResponseDto> ml = mlClient.predictBatch(features);
+            Instant now = Instant.now();
+            for (int k = 0; k < ml.size(); k++) {
+                docs.add(PredictionService.newPrediction(job.getOwnerId(), features.get(k), ml.get(k), now));
+            }
+        } catch (RuntimeException e) {
+            for (int k = 0; k < features.size(); k++) {
+                errors.add(new ScoringJob.ItemError(offset + k, null, e.getMessage()));
+            }
+        }
+        if (!docs.isEmpty()) {
+            if (!jobs.renew(job.getId(), workerId, Instant.now())) {
+                return null;
+            }
+            predictions.insert(docs);
+        }
+        job.setProcessed(offset + features.size());
+        return record(job, docs.size(), errors) ? true : null;
+    }
+
+    // one page of the owner's history, newest first, re-scored in place; same results as items()
+    private Boolean revalue(ScoringJob job) {
+        PageCursor after = PageCursor.decode(job.getResumeAfter());
+        PageRequest page = PageRequest.ofSize(cfg.getChunkSize());
+        List<Prediction> rows = after == null
+            ? predictions.findByOwnerIdOrderByCreatedAtDescIdDesc(job.getOwnerId(), page)
+            : predictions.findPageAfter(job.getOwnerId(), after.createdAt(), after.id(), page);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        long offset = job.getProcessed();
+        List<ScoringJob.ItemError> errors = new ArrayList<>();
+        BulkOperations rescored = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, Prediction.class);
+        try {
+            List<PredictResponseDto> ml = mlClient.predictBatch(rows.stream().map(p -> p.getFeatures().toMap()).toList());
+            Instant now = Instant.now();
+            for (int k = 0; k < rows.size(); k++) {
+                rescored.updateOne(Query.query(Criteria.where("_id").is(rows.get(k).getId())), new Update()
+                    .set("predictedPrice", ml.get(k).getPredicted_price())
+                    .set("modelVersion", ml.get(k).getModel_version())
+                    .set("explanations", ml.get(k).getExplanations())
+                    .set("topExplanations", PredictionView.top(ml.get(k).getExplanations()))
+                    .set("updatedAt", now)
+                    .inc("version", 1));                    // only the scored fields: features and owner are not rewritten
+            }
+        } catch (RuntimeException e) {
+            for (int k = 0; k < rows.size(); k++) {
+                errors.add(new ScoringJob.ItemError(offset + k, rows.get(k).getId(), e.getMessage()));
+            }
+        }
+        int savedRows = 0;
+        if (errors.isEmpty()) {
+            if (!jobs.renew(job.getId(), workerId, Instant.now())) {
+                return null;
+            }
+            savedRows = rescored.execute().getMatchedCount();   // rows deleted since the page was read are skipped
+        }
+        Prediction last = rows.get(rows.size() - 1);
+        job.setProcessed(offset + rows.size());
+        job.setResumeAfter(new PageCursor(last.getCreatedAt(), new ObjectId(last.getId())).encode());
+        return record(job, savedRows, errors) ? true : null;
+    }
+
+    private boolean record(ScoringJob job, int savedRows, List<ScoringJob.ItemError> errors) {
+        saved.increment(savedRows);
+        failed.increment(errors.size());
+        return jobs.progress(job, workerId, savedRows, errors.size(), errors, Instant.now());
+    }
+
+    private void heartbeat() {
+        Instant now = Instant.now();
+        for (String id : held) {
+            try {
+                if (!jobs.renew(id, workerId, now)) {
+                    log.warn("Lost the lease on scoring job {}", id);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not renew the lease on scoring job {}: {}", id, e.getMessage());
+            }
+        }
+        try {
+            queueDepth.set(jobs.count(Status.QUEUED));
+            leaseAgeMillis.set(jobs.oldestHeartbeat(now).toMillis());
+        } catch (RuntimeException e) {
+            log.debug("Could not sample scoring queue gauges: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;                                    // busy workers stop after their current chunk
+        heartbeats.shutdownNow();
+        idle.forEach(Thread::interrupt);
+        for (Thread t : threads) {
+            t.join(SHUTDOWN_WAIT_MILLIS);                  // a chunk still running after this is fenced off by release()
+        }
+        for (String id : held) {
+            try {
+                jobs.release(id, workerId);
+            } catch (RuntimeException e) {
+                log.warn("Could not release scoring job {}, it will be reclaimed when its lease expires", id);
+            }
+        }
+    }
+
+    String workerId() {
+        return workerId;
+    }
+
+    private static String host() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package za.co.houseiq.houseiqbackend.prediction.web;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import za.co.houseiq.houseiqbackend.prediction.service.PredictionCache;
+
+@RestController
+@RequestMapping("/api/admin/ml-cache")     // ADMIN only, see SecurityConfig
+@RequiredArgsConstructor
+public class MlCacheController {
+    private final PredictionCache cache;
+
+    // purge every cached result of one model version, e.g. after a bad model was rolled back
+    @DeleteMapping("/{modelVersion}")
+    public Map<String, Object> purge(@PathVariable String modelVersion) {
+        long removed = cache.purge(modelVersion);
+        return Map.of("modelVersion", modelVersion, "removed", removed);
+    }
+}
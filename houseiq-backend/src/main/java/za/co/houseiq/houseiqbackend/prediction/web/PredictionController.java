@@ -1,21 +1,41 @@
 package za.co.houseiq.houseiqbackend.prediction.web;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
+import za.co.houseiq.houseiqbackend.prediction.dto.BatchPredictionResultDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ImportJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictBatchRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
 import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.service.PredictionExport;
+import za.co.houseiq.houseiqbackend.prediction.service.PredictionImport;
 import za.co.houseiq.houseiqbackend.prediction.service.PredictionService;
 import org.springframework.security.core.Authentication;
 
 @RestController                 // marks this as a REST controller, return values are written as JSON
 @RequestMapping("/api/predictions") // base path for all endpoints in this controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)   // reactive profile: Reactive*Controller
 @RequiredArgsConstructor            // Lombok generates a constructor for final fields
 public class PredictionController {
     private final PredictionService service;        // injected service used by endpoints
+    private final PredictionImport imports;         // CSV bulk import jobs
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -24,14 +44,91 @@ public class PredictionController {
         return service.createPrediction(ownerId, req);
     }
 
+    // items are validated individually, so a bad row comes back as INVALID instead of failing the batch
+    @PostMapping("/batch")
+    public BatchPredictionResultDto createBatch(Authentication auth, @Valid @RequestBody PredictBatchRequestDto req) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.createBatch(ownerId, req.getItems());
+    }
+
+    // PredictionView rows by default; ?view=full returns whole Predictions (features, all explanations)
     @GetMapping
-    public List<Prediction> list(Authentication auth,
-                                 @RequestParam(defaultValue = "0") int page,
-                                 @RequestParam(defaultValue = "20") int size) {
+    public List<PredictionView> list(Authentication auth,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.listViews(ownerId, page, size);
+    }
+
+    @GetMapping(params = "view=full")
+    public List<Prediction> listFull(Authentication auth,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) {
         String ownerId = (String) auth.getPrincipal();
         return service.list(ownerId, page, size);
     }
 
+    // ?cursor= (empty for the first page) switches to keyset pages: { items, nextCursor }
+    @GetMapping(params = "cursor")
+    public PageResponse<PredictionView> page(Authentication auth,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.pageViews(ownerId, cursor, size);
+    }
+
+    @GetMapping(params = {"cursor", "view=full"})
+    public PageResponse<Prediction> pageFull(Authentication auth,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.page(ownerId, cursor, size);
+    }
+
+    // writes on the request thread straight from the cursor, so no async timeout applies to long exports
+    @GetMapping("/export")
+    public void export(Authentication auth,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        String ownerId = (String) auth.getPrincipal();
+        PredictionExport.Format f = PredictionExport.Format.parse(format);
+        response.setContentType(f.mediaType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(f.filename()).build().toString());
+        service.export(ownerId, f, response.getOutputStream());
+    }
+
+    // raw text/csv body: copied to a temp file, then 202 with the job; rows are scored in the background
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportJobDto> importCsv(Authentication auth, HttpServletRequest request) throws IOException {
+        String ownerId = (String) auth.getPrincipal();
+        return accepted(imports.start(ownerId, request.getInputStream()));
+    }
+
+    // multipart upload (field "file"): the container spools the part to disk, then it is handled the same way
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDto> importFile(Authentication auth, @RequestPart("file") MultipartFile file) throws IOException {
+        String ownerId = (String) auth.getPrincipal();
+        return accepted(imports.start(ownerId, file.getInputStream()));
+    }
+
+    // Location: /api/predictions/import/{jobId}, where the job is polled
+    private static ResponseEntity<ImportJobDto> accepted(ImportJobDto job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/import")
+    public List<ImportJobDto> imports(Authentication auth) {
+        String ownerId = (String) auth.getPrincipal();
+        return imports.list(ownerId);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ImportJobDto importJob(Authentication auth, @PathVariable String jobId) {
+        String ownerId = (String) auth.getPrincipal();
+        return imports.get(ownerId, jobId).orElseThrow(() -> new RuntimeException("Not found"));
+    }
+
     @GetMapping("/{id}")
     public Prediction get(Authentication auth, @PathVariable String id) {
         String ownerId = (String) auth.getPrincipal();
@@ -0,0 +1,149 @@
+package za.co.houseiq.houseiqbackend.prediction.web;
+
+import java.util.List;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
+import za.co.houseiq.houseiqbackend.prediction.dto.BatchPredictionResultDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ImportJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictBatchRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.service.PredictionExport;
+import za.co.houseiq.houseiqbackend.prediction.service.PredictionImport;
+import za.co.houseiq.houseiqbackend.prediction.service.PredictionService;
+import za.co.houseiq.houseiqbackend.prediction.service.ReactivePredictionService;
+
+// /api/predictions on the reactive stack (reactive profile), same contract as PredictionController
+@RestController
+@RequestMapping("/api/predictions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactivePredictionController {
+    private final ReactivePredictionService service;
+    private final PredictionService batchService;
+    private final PredictionImport imports;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CreatePredictionDto> create(Authentication auth, @Valid @RequestBody PredictRequestDto req) {
+        String ownerId = (String) auth.getPrincipal(); // from JWT subject
+        return service.createPrediction(ownerId, req);
+    }
+
+    // one ML call + one insert per request, so it stays on the blocking service;
+    // it returns a plain value, so ReactiveBlockingConfig runs it on the application task executor, not the event loop
+    @PostMapping("/batch")
+    public BatchPredictionResultDto createBatch(Authentication auth, @Valid @RequestBody PredictBatchRequestDto req) {
+        String ownerId = (String) auth.getPrincipal();
+        return batchService.createBatch(ownerId, req.getItems());
+    }
+
+    @GetMapping
+    public Mono<List<PredictionView>> list(Authentication auth,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.listViews(ownerId, page, size);
+    }
+
+    @GetMapping(params = "view=full")
+    public Mono<List<Prediction>> listFull(Authentication auth,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.list(ownerId, page, size);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<PageResponse<PredictionView>> page(Authentication auth,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.pageViews(ownerId, cursor, size);
+    }
+
+    @GetMapping(params = {"cursor", "view=full"})
+    public Mono<PageResponse<Prediction>> pageFull(Authentication auth,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.page(ownerId, cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> export(Authentication auth, @RequestParam(defaultValue = "ndjson") String format) {
+        String ownerId = (String) auth.getPrincipal();
+        PredictionExport.Format f = PredictionExport.Format.parse(format);
+        return ResponseEntity.ok()
+            .contentType(f.mediaType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(f.filename()).build().toString())
+            .body(service.export(ownerId, f));
+    }
+
+    // the body is pulled a few buffers at a time into a blocking InputStream on boundedElastic and copied
+    // to a temp file, so it is never held in memory; 202 with the job, rows are scored in the background
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public Mono<ResponseEntity<ImportJobDto>> importCsv(Authentication auth, ServerHttpRequest request, @RequestBody Flux<DataBuffer> body) {
+        String ownerId = (String) auth.getPrincipal();
+        return startImport(ownerId, request, body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<ImportJobDto>> importFile(Authentication auth, ServerHttpRequest request, @RequestPart("file") Mono<FilePart> file) {
+        String ownerId = (String) auth.getPrincipal();
+        return file.flatMap(part -> startImport(ownerId, request, part.content()));
+    }
+
+    @GetMapping("/import")
+    public List<ImportJobDto> imports(Authentication auth) {
+        String ownerId = (String) auth.getPrincipal();
+        return imports.list(ownerId);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ImportJobDto importJob(Authentication auth, @PathVariable String jobId) {
+        String ownerId = (String) auth.getPrincipal();
+        return imports.get(ownerId, jobId).orElseThrow(() -> new RuntimeException("Not found"));
+    }
+
+    // Location: /api/predictions/import/{jobId}, where the job is polled
+    private Mono<ResponseEntity<ImportJobDto>> startImport(String ownerId, ServerHttpRequest request, Flux<DataBuffer> body) {
+        return Mono.fromCallable(() -> imports.start(ownerId, DataBufferUtils.subscriberInputStream(body, 16)))
+            .subscribeOn(Schedulers.boundedElastic())
+            .map(job -> ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromUri(request.getURI()).replaceQuery(null).path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Prediction> get(Authentication auth, @PathVariable String id) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.get(ownerId, id).switchIfEmpty(Mono.error(() -> new RuntimeException("Not found")));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(Authentication auth, @PathVariable String id) {
+        String ownerId = (String) auth.getPrincipal();
+        return service.delete(ownerId, id);
+    }
+}
@@ -0,0 +1,57 @@
+package za.co.houseiq.houseiqbackend.prediction.web;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.service.ScoringJobs;
+
+// /api/predictions/jobs on the reactive stack; the queue is blocking MongoTemplate, so calls run on boundedElastic
+@RestController
+@RequestMapping("/api/predictions/jobs")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveScoringJobController {
+    private final ScoringJobs jobs;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<ScoringJobDto> submit(Authentication auth, @RequestBody ScoringJobRequestDto req) {
+        String ownerId = (String) auth.getPrincipal();
+        return blocking(() -> jobs.submit(ownerId, req));
+    }
+
+    @GetMapping
+    public Mono<List<ScoringJobDto>> list(Authentication auth) {
+        String ownerId = (String) auth.getPrincipal();
+        return blocking(() -> jobs.list(ownerId));
+    }
+
+    @GetMapping("/{jobId}")
+    public Mono<ScoringJobDto> get(Authentication auth, @PathVariable String jobId) {
+        String ownerId = (String) auth.getPrincipal();
+        return found(() -> jobs.get(ownerId, jobId));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public Mono<ScoringJobDto> cancel(Authentication auth, @PathVariable String jobId) {
+        String ownerId = (String) auth.getPrincipal();
+        return found(() -> jobs.cancel(ownerId, jobId));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Mono<ScoringJobDto> found(Callable<Optional<ScoringJobDto>> call) {
+        return blocking(call).flatMap(Mono::justOrEmpty).switchIfEmpty(Mono.error(() -> new RuntimeException("Not found")));
+    }
+}
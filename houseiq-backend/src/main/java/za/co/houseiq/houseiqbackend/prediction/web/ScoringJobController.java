@@ -0,0 +1,45 @@
+package za.co.houseiq.houseiqbackend.prediction.web;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.service.ScoringJobs;
+
+// queued scoring jobs: the work runs on ScoringWorkers (any instance), not on the request thread
+@RestController
+@RequestMapping("/api/predictions/jobs")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)   // reactive profile: ReactiveScoringJobController
+@RequiredArgsConstructor
+public class ScoringJobController {
+    private final ScoringJobs jobs;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ScoringJobDto submit(Authentication auth, @RequestBody ScoringJobRequestDto req) {
+        String ownerId = (String) auth.getPrincipal();
+        return jobs.submit(ownerId, req);
+    }
+
+    @GetMapping
+    public List<ScoringJobDto> list(Authentication auth) {
+        String ownerId = (String) auth.getPrincipal();
+        return jobs.list(ownerId);
+    }
+
+    @GetMapping("/{jobId}")
+    public ScoringJobDto get(Authentication auth, @PathVariable String jobId) {
+        String ownerId = (String) auth.getPrincipal();
+        return jobs.get(ownerId, jobId).orElseThrow(() -> new RuntimeException("Not found"));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ScoringJobDto cancel(Authentication auth, @PathVariable String jobId) {
+        String ownerId = (String) auth.getPrincipal();
+        return jobs.cancel(ownerId, jobId).orElseThrow(() -> new RuntimeException("Not found"));
+    }
+}
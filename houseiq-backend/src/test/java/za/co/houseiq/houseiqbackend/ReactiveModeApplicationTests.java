@@ -0,0 +1,99 @@
+package za.co.houseiq.houseiqbackend;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.scheduler.Schedulers;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.config.JwtService;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.model.User;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+import za.co.houseiq.houseiqbackend.prediction.repo.UserRepository;
+import za.co.houseiq.houseiqbackend.prediction.service.MlClient;
+import za.co.houseiq.houseiqbackend.prediction.web.PredictionController;
+import za.co.houseiq.houseiqbackend.prediction.web.ReactivePredictionController;
+
+// the reactive profile boots WebFlux with the reactive controllers and JWT WebFilter instead of the servlet stack.
+// Requests go through Netty; the mocked Mongo and ML calls refuse event-loop threads as Reactor's block()
+// does, so a blocking handler left on the event loop fails here
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveModeApplicationTests {
+
+    private static final Map<String, Object> ITEM = Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", 120.5, "age_years", 8, "location_index", 4);
+
+    @Autowired ApplicationContext ctx;
+    @Autowired WebTestClient web;
+    @Autowired JwtService jwt;
+    @Autowired PasswordEncoder encoder;
+
+    @MockitoBean UserRepository users;
+    @MockitoBean PredictionRepository predictions;
+    @MockitoBean MlClient mlClient;
+    @MockitoBean ActivityLogService activityLogs;
+
+    @Test
+    void reactiveStackIsWired() {
+        assertEquals(1, ctx.getBeanNamesForType(ReactivePredictionController.class).length);
+        assertEquals(0, ctx.getBeanNamesForType(PredictionController.class).length);
+
+        web.get().uri("/api/health").exchange().expectStatus().isOk();
+        web.get().uri("/api/predictions").exchange().expectStatus().isForbidden();
+        web.get().uri("/api/activity").header("Authorization", "Bearer not-a-jwt")
+            .exchange().expectStatus().isForbidden();
+    }
+
+    @Test
+    void batch_runsOffTheEventLoop() {
+        when(mlClient.predictBatch(anyList())).thenAnswer(inv -> blocking(List.of(
+            new PredictResponseDto(1_000_000.0, "v1", null), new PredictResponseDto(2_000_000.0, "v1", null))));
+        when(predictions.insert(anyList())).thenAnswer(inv -> blocking(inv.getArgument(0)));
+        String token = jwt.issue("user-1", Map.of("email", "a@b.co", "name", "A", "role", "USER"));
+
+        web.post().uri("/api/predictions/batch").header("Authorization", "Bearer " + token)
+            .bodyValue(Map.of("items", List.of(ITEM, ITEM)))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.succeeded").isEqualTo(2)
+            .jsonPath("$.results[0].status").isEqualTo("CREATED");
+    }
+
+    @Test
+    void login_runsOffTheEventLoop() {
+        User user = User.builder().id("user-1").email("a@b.co").name("A").role("USER")
+            .passwordHash(encoder.encode("secret-pw")).build();
+        when(users.findByEmail("a@b.co")).thenAnswer(inv -> blocking(Optional.of(user)));
+
+        web.post().uri("/api/auth/login")
+            .bodyValue(Map.of("email", "a@b.co", "password", "secret-pw"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.token").isNotEmpty()
+            .jsonPath("$.user.id").isEqualTo("user-1");
+    }
+
+    // the check block() makes before the sync Mongo driver or MlClient waits on the calling thread
+    private static <T> T blocking(T value) {
+        if (Schedulers.isInNonBlockingThread()) {
+            throw new IllegalStateException("blocking call on " + Thread.currentThread().getName());
+        }
+        return value;
+    }
+}
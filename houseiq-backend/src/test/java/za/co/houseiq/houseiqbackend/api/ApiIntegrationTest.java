@@ -20,6 +20,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 import za.co.houseiq.houseiqbackend.auth.dto.LoginRequest;
 import za.co.houseiq.houseiqbackend.auth.dto.RegisterRequest;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogWriter;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
 import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
@@ -46,6 +47,7 @@ class ApiIntegrationTest {
     @Autowired MockMvc mvc;
     @Autowired ObjectMapper om;
     @Autowired PredictionRepository predictions;
+    @Autowired ActivityLogWriter activityWriter;     // write-behind: flushed before activity reads below
 
     @BeforeEach
     void clean() {
@@ -63,6 +65,8 @@ class ApiIntegrationTest {
             r.setModel_version("it-test");
             r.setExplanations(java.util.Map.of("area_sqm", 0.5));
             org.mockito.Mockito.when(mock.predict(org.mockito.ArgumentMatchers.anyMap())).thenReturn(r);
+            org.mockito.Mockito.when(mock.predictBatch(org.mockito.ArgumentMatchers.anyList()))
+                .thenAnswer(inv -> java.util.Collections.nCopies(((java.util.List<?>) inv.getArgument(0)).size(), r));
             return mock;
         }
     }
@@ -111,6 +115,7 @@ class ApiIntegrationTest {
         String id3 = createPrediction(token, 4,3,200.0,2,6);
 
         // T4 – activity has create log
+        activityWriter.flush();
         mvc.perform(get("/api/activity").header("Authorization", bearer(token)))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].action", is("PREDICTION_CREATED")))
@@ -121,7 +126,13 @@ class ApiIntegrationTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].id", is(id3)))
             .andExpect(jsonPath("$[1].id", is(id2)))
-            .andExpect(jsonPath("$[2].id", is(id1)));
+            .andExpect(jsonPath("$[2].id", is(id1)))
+            .andExpect(jsonPath("$[0].features.bedrooms", is(4)))
+            .andExpect(jsonPath("$[0].ownerId").doesNotExist());            // summary projection by default
+        mvc.perform(get("/api/predictions?view=full").header("Authorization", bearer(token)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id", is(id3)))
+            .andExpect(jsonPath("$[0].ownerId", not(emptyOrNullString())));
 
         // T5b – pagination stable pages
         mvc.perform(get("/api/predictions?page=0&size=2").header("Authorization", bearer(token)))
@@ -139,6 +150,7 @@ class ApiIntegrationTest {
             .andExpect(status().isNoContent());
         mvc.perform(get("/api/predictions/" + id2).header("Authorization", bearer(token)))
             .andExpect(status().isBadRequest());
+        activityWriter.flush();
         mvc.perform(get("/api/activity").header("Authorization", bearer(token)))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].action", is("PREDICTION_DELETED")))
@@ -164,6 +176,36 @@ class ApiIntegrationTest {
             .andExpect(jsonPath("$.id", is(id)));
     }
 
+    // Batch – valid rows persisted with one call, invalid row reported without failing the batch
+    @Test
+    void batch_create_reports_per_item_results() throws Exception {
+        String token = registerAndGetToken("batch@example.com", "Secret123!", "Batch");
+        String body = """
+            {"items": [
+              {"bedrooms": 3, "bathrooms": 2, "area_sqm": 120.5, "age_years": 8, "location_index": 4},
+              {"bedrooms": 9, "bathrooms": 2, "area_sqm": 120.5, "age_years": 8, "location_index": 4},
+              {"bedrooms": 2, "bathrooms": 1, "area_sqm": 80.0, "age_years": 5, "location_index": 3}
+            ]}
+            """;
+        mvc.perform(post("/api/predictions/batch")
+                .header("Authorization", bearer(token))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.requested", is(3)))
+            .andExpect(jsonPath("$.succeeded", is(2)))
+            .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+            .andExpect(jsonPath("$.results[1].status", is("INVALID")))
+            .andExpect(jsonPath("$.results[2].prediction.predicted_price", is(123456.0)));
+
+        org.junit.jupiter.api.Assertions.assertEquals(2, predictions.count());
+        activityWriter.flush();
+        mvc.perform(get("/api/activity").header("Authorization", bearer(token)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].action", is("PREDICTION_BATCH_CREATED")))
+            .andExpect(jsonPath("$[0].details.succeeded", is(2)));
+    }
+
     // T11 – health
     @Test
     void t11_healthchecks_backend() throws Exception {
@@ -171,6 +213,13 @@ class ApiIntegrationTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.status", is("ok")))
             .andExpect(jsonPath("$.service", is("backend")));
+        mvc.perform(get("/actuator/health"))
+            .andExpect(status().isOk());
+        mvc.perform(get("/actuator/metrics"))                  // only health is public
+            .andExpect(status().isForbidden());
+        String token = registerAndGetToken("carol@example.com", "Secret123!", "Carol");
+        mvc.perform(get("/actuator/metrics").header("Authorization", bearer(token)))
+            .andExpect(status().isForbidden());
     }
 
     // helpers
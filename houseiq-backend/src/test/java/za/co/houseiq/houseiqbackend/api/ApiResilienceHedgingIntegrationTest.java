@@ -0,0 +1,165 @@
+package za.co.houseiq.houseiqbackend.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import za.co.houseiq.houseiqbackend.auth.dto.RegisterRequest;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.service.MlTransport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// real MlClient against a stub ML service: every 10th call stalls, then the service starts failing
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ApiResilienceHedgingIntegrationTest {
+
+    private static final int CALLS = 100;
+    private static final long STALL_MS = 1500;
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7"));
+
+    static final AtomicInteger mlCalls = new AtomicInteger();
+    static volatile boolean mlFailing;
+    static final HttpServer ml = startMlStub();
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getConnectionString);
+        registry.add("spring.data.mongodb.database", () -> "houseiq_it_hedging");
+        registry.add("ml.base-url", () -> "http://127.0.0.1:" + ml.getAddress().getPort());
+        registry.add("ml.cache.enabled", () -> "false");
+        registry.add("ml.hedging.enabled", () -> "true");
+        registry.add("ml.hedging.initial-delay", () -> "100ms");
+        registry.add("ml.hedging.min-samples", () -> "1000000");        // keep the fixed delay
+        registry.add("ml.hedging.max-ratio", () -> "1.0");
+        registry.add("ml.circuit-breaker.window-size", () -> "5");
+        registry.add("ml.circuit-breaker.minimum-calls", () -> "5");
+        registry.add("ml.circuit-breaker.open-duration", () -> "1m");
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper om;
+    @Autowired MlTransport transport;
+
+    @AfterAll
+    static void stopStub() { ml.stop(0); }
+
+    @Test
+    @Order(1)
+    void t20_hedging_cuts_p99_against_stalling_ml() throws Exception {
+        long[] direct = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            Map<String, Object> f = Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", 50.0 + i, "age_years", 8, "location_index", 4);
+            long t0 = System.nanoTime();
+            transport.predict(f).block();                               // no hedging
+            direct[i] = System.nanoTime() - t0;
+        }
+
+        String token = registerAndGetToken("t20@example.com", "Secret1!", "T20");
+        long[] hedged = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            PredictRequestDto req = PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(200.0 + i).age_years(8).location_index(4).build();
+            long t0 = System.nanoTime();
+            mvc.perform(post("/api/predictions").header("Authorization", bearer(token)).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsString(req)))
+                .andExpect(status().isCreated());
+            hedged[i] = System.nanoTime() - t0;
+        }
+
+        long directP99 = p99Millis(direct), hedgedP99 = p99Millis(hedged);
+        assertTrue(directP99 >= STALL_MS, "stub did not stall, p99 " + directP99 + " ms");
+        assertTrue(hedgedP99 < directP99 / 2, "hedged p99 " + hedgedP99 + " ms vs direct " + directP99 + " ms");
+    }
+
+    @Test
+    @Order(2)
+    void t21_failing_ml_opens_circuit_with_503() throws Exception {
+        mlFailing = true;
+        String token = registerAndGetToken("t21@example.com", "Secret1!", "T21");
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(post("/api/predictions").header("Authorization", bearer(token)).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsString(request(i))))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.code", is("ML_ERROR")));
+        }
+        int sent = mlCalls.get();
+        mvc.perform(post("/api/predictions").header("Authorization", bearer(token)).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsString(request(5))))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.code", is("ML_UNAVAILABLE")));
+        assertEquals(sent, mlCalls.get());                              // failed fast, nothing sent
+    }
+
+    private static PredictRequestDto request(int i) {
+        return PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(400.0 + i).age_years(8).location_index(4).build();
+    }
+
+    private static long p99Millis(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.99 * sorted.length) - 1] / 1_000_000;
+    }
+
+    private static HttpServer startMlStub() {
+        try {
+            HttpServer s = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            s.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            s.createContext("/predict", ex -> {
+                ex.getRequestBody().readAllBytes();
+                if (mlFailing) {
+                    mlCalls.incrementAndGet();
+                    ex.sendResponseHeaders(500, -1);
+                    ex.close();
+                    return;
+                }
+                if (mlCalls.incrementAndGet() % 10 == 0) {
+                    try { Thread.sleep(STALL_MS); } catch (InterruptedException ignored) {}
+                }
+                byte[] body = "{\"predicted_price\":1850000.0,\"model_version\":\"stub\",\"explanations\":null}".getBytes(StandardCharsets.UTF_8);
+                ex.getResponseHeaders().add("Content-Type", "application/json");
+                ex.sendResponseHeaders(200, body.length);
+                ex.getResponseBody().write(body);
+                ex.close();
+            });
+            s.start();
+            return s;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String registerAndGetToken(String email, String password, String name) throws Exception {
+        RegisterRequest reg = new RegisterRequest(); reg.setEmail(email); reg.setPassword(password); reg.setName(name);
+        String resp = mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsString(reg)))
+            .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+        return om.readTree(resp).get("token").asText();
+    }
+    private String bearer(String token) { return "Bearer " + token; }
+}
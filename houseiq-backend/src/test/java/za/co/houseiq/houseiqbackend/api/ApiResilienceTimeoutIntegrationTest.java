@@ -9,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -18,6 +19,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 import za.co.houseiq.houseiqbackend.auth.dto.RegisterRequest;
+import za.co.houseiq.houseiqbackend.common.UpstreamException;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.service.MlClient;
 import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
@@ -54,7 +56,7 @@ class ApiResilienceTimeoutIntegrationTest {
         MlClient mlClientStub() {
             var mock = org.mockito.Mockito.mock(MlClient.class);
             org.mockito.Mockito.when(mock.predict(org.mockito.ArgumentMatchers.anyMap()))
-                .thenAnswer(inv -> { try { Thread.sleep(2500); } catch (InterruptedException ignored) {} throw new RuntimeException("ML timeout"); });
+                .thenAnswer(inv -> { try { Thread.sleep(2500); } catch (InterruptedException ignored) {} throw new UpstreamException(HttpStatus.GATEWAY_TIMEOUT, "ML_TIMEOUT", "ML service error: timed out", null); });
             return mock;
         }
     }
@@ -64,8 +66,8 @@ class ApiResilienceTimeoutIntegrationTest {
         String token = registerAndGetToken("t8@example.com", "Secret1!", "T8");
         PredictRequestDto req = PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
         mvc.perform(post("/api/predictions").header("Authorization", bearer(token)).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsString(req)))
-            .andExpect(status().isBadRequest())
-            .andExpect(jsonPath("$.message", containsString("timeout")));
+            .andExpect(status().isGatewayTimeout())
+            .andExpect(jsonPath("$.code", is("ML_TIMEOUT")));
         // assert no DB write
         org.junit.jupiter.api.Assertions.assertEquals(0, predictions.count());
     }
@@ -9,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -18,6 +19,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 import za.co.houseiq.houseiqbackend.auth.dto.RegisterRequest;
+import za.co.houseiq.houseiqbackend.common.UpstreamException;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.service.MlClient;
 import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
@@ -54,7 +56,7 @@ class ApiResilienceUnavailableIntegrationTest {
         MlClient mlClientStub() {
             var mock = org.mockito.Mockito.mock(MlClient.class);
             org.mockito.Mockito.when(mock.predict(org.mockito.ArgumentMatchers.anyMap()))
-                .thenThrow(new RuntimeException("ML service error: connection refused"));
+                .thenThrow(new UpstreamException(HttpStatus.BAD_GATEWAY, "ML_ERROR", "ML service error: connection refused", null));
             return mock;
         }
     }
@@ -64,8 +66,8 @@ class ApiResilienceUnavailableIntegrationTest {
         String token = registerAndGetToken("t14@example.com", "Secret1!", "T14");
         PredictRequestDto req = PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
         mvc.perform(post("/api/predictions").header("Authorization", bearer(token)).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsString(req)))
-            .andExpect(status().isBadRequest())
-            .andExpect(jsonPath("$.message", containsString("ML service error")));
+            .andExpect(status().isBadGateway())
+            .andExpect(jsonPath("$.code", is("ML_ERROR")));
         org.junit.jupiter.api.Assertions.assertEquals(0, predictions.count());
     }
 
@@ -0,0 +1,84 @@
+package za.co.houseiq.houseiqbackend.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.config.PasswordHashingProperties;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        hasher.destroy();
+    }
+
+    @Test
+    void matches_checksKnownHashes_andUnknownUsersNeverMatch() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), new PasswordHashingProperties(), meters);
+        String hash = hasher.encode("Secret1!");
+
+        assertTrue(hasher.matches("Secret1!", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertFalse(hasher.matches("dummy-password-for-timing", null));   // unknown email still pays one BCrypt check
+
+        assertEquals(3L, meters.get("houseiq.auth.password.hash").tag("op", "verify").timer().count());
+        assertEquals(1L, meters.get("houseiq.auth.password.hash").tag("op", "encode").timer().count());
+        assertEquals(4L, meters.get("houseiq.auth.password.queue.wait").timer().count());
+    }
+
+    @Test
+    void saturatedPool_rejectsWith503_withoutWaiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordHashingProperties cfg = new PasswordHashingProperties();
+        cfg.setThreads(1);
+        cfg.setQueueCapacity(1);
+        hasher = new PasswordHasher(blockingEncoder(started, release), cfg, meters);
+
+        var running = CompletableFuture.supplyAsync(() -> hasher.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = CompletableFuture.supplyAsync(() -> hasher.matches("b", "hash"));
+        while (meters.get("houseiq.auth.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        var err = assertThrows(ServiceUnavailableException.class, () -> hasher.matches("c", "hash"));
+        assertEquals("LOGIN_OVERLOADED", err.getCode());
+        assertEquals(1.0, meters.get("houseiq.auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                return "hash";                                          // the dummy hash, built at construction
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                started.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import za.co.houseiq.houseiqbackend.prediction.model.CachedPrediction;
+
+class MongoIndexesTest {
+
+    @Test
+    void predictionCache_getsItsTtlAndModelVersionIndexes() {
+        MongoTemplate mongo = mock(MongoTemplate.class);
+        IndexOperations ops = mock(IndexOperations.class);
+        MongoMappingContext mapping = new MongoMappingContext();
+        mapping.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());   // as Boot configures it
+        when(mongo.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mapping));
+        when(mongo.indexOps(any(Class.class))).thenReturn(mock(IndexOperations.class));
+        when(mongo.indexOps(CachedPrediction.class)).thenReturn(ops);
+
+        new MongoIndexes(mongo).ensure();
+
+        ArgumentCaptor<IndexDefinition> created = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(ops, times(2)).createIndex(created.capture());
+        List<Document> keys = created.getAllValues().stream().map(IndexDefinition::getIndexKeys).toList();
+        assertEquals(List.of(new Document("modelVersion", 1), new Document("expiresAt", 1)), keys);
+        Document ttl = created.getAllValues().get(1).getIndexOptions();
+        assertEquals("expires_at_ttl", ttl.get("name"));
+        assertEquals(0L, ttl.get("expireAfterSeconds"));
+    }
+}
@@ -0,0 +1,43 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+
+class PageCursorTest {
+
+    @Test
+    void encode_decode_roundTrip() {
+        PageCursor c = new PageCursor(Instant.parse("2025-03-01T10:15:30.123Z"), new ObjectId());
+
+        assertEquals(c, PageCursor.decode(c.encode()));
+        assertNull(PageCursor.decode(""));                              // first page
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void page_dropsTheProbeRow_andPointsAtTheLastItem() {
+        List<Prediction> fetched = List.of(prediction(3), prediction(2), prediction(1));
+
+        PageResponse<Prediction> full = PageCursor.page(fetched, 2, Prediction::getCreatedAt, Prediction::getId);
+        PageResponse<Prediction> last = PageCursor.page(fetched, 3, Prediction::getCreatedAt, Prediction::getId);
+
+        assertEquals(2, full.getItems().size());
+        PageCursor next = PageCursor.decode(full.getNextCursor());
+        assertEquals(fetched.get(1).getCreatedAt(), next.createdAt());
+        assertEquals(fetched.get(1).getId(), next.id().toHexString());
+        assertEquals(3, last.getItems().size());
+        assertNull(last.getNextCursor());
+    }
+
+    private static Prediction prediction(int day) {
+        return Prediction.builder()
+            .id(new ObjectId().toHexString())
+            .createdAt(Instant.parse("2025-01-0" + day + "T00:00:00Z"))
+            .build();
+    }
+}
@@ -0,0 +1,61 @@
+package za.co.houseiq.houseiqbackend.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class StageTimerTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    @Test
+    void record_tagsOutcomeAndModelVersion_andReusesTheTimer() {
+        var stage = new StageTimer(meters, "houseiq.test.stage", "method", "create");
+
+        stage.record(System.nanoTime(), true, "v1");
+        stage.record(System.nanoTime(), true, "v1");
+        stage.record(System.nanoTime(), false);
+
+        Timer v1 = meters.get("houseiq.test.stage").tags("method", "create", "outcome", "success", "model_version", "v1").timer();
+        assertEquals(2, v1.count());
+        assertSame(v1, stage.timer(true, "v1"));
+        assertEquals(1, meters.get("houseiq.test.stage").tags("outcome", "error", "model_version", "none").timer().count());
+    }
+
+    @Test
+    void seriesExistBeforeTheFirstRecording() {
+        new StageTimer(meters, "houseiq.test.stage", "method", "get");
+
+        assertEquals(0, meters.get("houseiq.test.stage").tags("method", "get", "outcome", "success").timer().count());
+        assertEquals(0, meters.get("houseiq.test.stage").tags("method", "get", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void time_recordsTheResultsModelVersion_orAnErrorWhenTheStageThrows() {
+        var stage = new StageTimer(meters, "houseiq.test.stage");
+
+        assertEquals("price", stage.time(() -> "price", result -> "v2"));
+        var thrown = assertThrows(IOException.class, () -> stage.time(() -> {
+            throw new IOException("Broken pipe");
+        }));
+
+        assertEquals("Broken pipe", thrown.getMessage());
+        assertEquals(1, meters.get("houseiq.test.stage").tags("outcome", "success", "model_version", "v2").timer().count());
+        assertEquals(1, meters.get("houseiq.test.stage").tags("outcome", "error", "model_version", "none").timer().count());
+    }
+
+    @Test
+    void modelVersionsPastTheCap_areRecordedAsOther() {
+        var stage = new StageTimer(meters, "houseiq.test.stage");
+
+        for (int i = 0; i < StageTimer.MAX_MODEL_VERSIONS + 5; i++) {
+            stage.record(System.nanoTime(), true, "v" + i);
+        }
+
+        assertEquals(6, meters.get("houseiq.test.stage").tags("model_version", "other").timer().count());
+        assertEquals(StageTimer.MAX_MODEL_VERSIONS + 1, meters.find("houseiq.test.stage").tags("outcome", "success").timers().size());
+    }
+}
@@ -0,0 +1,88 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.co.houseiq.houseiqbackend.config.ActivityWriterProperties;
+
+class ActivityLogWriterTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final ActivityLogRepository repo = mock(ActivityLogRepository.class);
+    private ActivityLogWriter writer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writer != null) writer.destroy();
+    }
+
+    private ActivityLogWriter writer(int capacity, int batchSize, Duration interval,
+                                     ActivityWriterProperties.OverflowPolicy policy) {
+        ActivityWriterProperties cfg = new ActivityWriterProperties();
+        cfg.setQueueCapacity(capacity);
+        cfg.setBatchSize(batchSize);
+        cfg.setFlushInterval(interval);
+        cfg.setOverflowPolicy(policy);
+        return new ActivityLogWriter(repo, cfg, meters);
+    }
+
+    private static ActivityLog entry(int i) {
+        return ActivityLog.builder().ownerId("user-1").action("A" + i).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fullBatch_isWrittenWithOneInsertMany_withoutWaitingForTheInterval() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        when(repo.insert(anyList())).thenAnswer(inv -> {
+            written.countDown();
+            return inv.getArgument(0);
+        });
+        writer = writer(100, 5, Duration.ofMinutes(10), ActivityWriterProperties.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 5; i++) writer.submit(entry(i));
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        verify(repo).insert(argThat((List<ActivityLog> l) -> l.size() == 5));
+        verify(repo, never()).save(any());
+        assertEquals(0, writer.depth());
+    }
+
+    @Test
+    void dropPolicy_dropsWhenFull_andShutdownFlushesTheRest() throws Exception {
+        writer = writer(3, 100, Duration.ofMinutes(10), ActivityWriterProperties.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 5; i++) writer.submit(entry(i));
+
+        assertEquals(3, writer.depth());
+        assertEquals(2.0, meters.get("houseiq.activity.dropped").tag("reason", "overflow").counter().count());
+
+        writer.destroy();
+        writer = null;
+        verify(repo).insert(argThat((List<ActivityLog> l) -> l.size() == 3));
+    }
+
+    @Test
+    void samplePolicy_keepsOneInN_onceHalfFull() {
+        ActivityWriterProperties cfg = new ActivityWriterProperties();
+        cfg.setQueueCapacity(10);
+        cfg.setBatchSize(100);
+        cfg.setFlushInterval(Duration.ofMinutes(10));
+        cfg.setOverflowPolicy(ActivityWriterProperties.OverflowPolicy.SAMPLE);
+        cfg.setSampleRate(2);
+        writer = new ActivityLogWriter(repo, cfg, meters);
+
+        for (int i = 0; i < 9; i++) writer.submit(entry(i));
+
+        // 5 admitted before the half-full mark, then every 2nd of the remaining 4
+        assertEquals(7, writer.depth());
+        assertEquals(2.0, meters.get("houseiq.activity.dropped").tag("reason", "sampled").counter().count());
+    }
+}
@@ -0,0 +1,37 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityRollup.Granularity;
+
+class ActivityRollupsTest {
+
+    @Test
+    void fold_sumsHoursIntoTheirDays() {
+        Instant day = Instant.parse("2025-03-01T00:00:00Z");
+        List<ActivityCounts> hours = List.of(
+            new ActivityCounts(day.plusSeconds(3600), Granularity.HOUR, Map.of("LOGIN", 2L), 2),
+            new ActivityCounts(day.plusSeconds(7200), Granularity.HOUR, Map.of("LOGIN", 1L, "PREDICTION_CREATED", 3L), 4),
+            new ActivityCounts(day.plusSeconds(86_400 + 60), Granularity.HOUR, Map.of("PREDICTION_CREATED", 1L), 1));
+
+        List<ActivityCounts> days = ActivityRollups.fold(hours, Granularity.DAY);
+
+        assertEquals(2, days.size());
+        assertEquals(day, days.get(0).getStart());
+        assertEquals(Granularity.DAY, days.get(0).getGranularity());
+        assertEquals(Map.of("LOGIN", 3L, "PREDICTION_CREATED", 3L), days.get(0).getCounts());
+        assertEquals(6, days.get(0).getTotal());
+        assertEquals(1, days.get(1).getTotal());
+    }
+
+    @Test
+    void granularity_isCaseInsensitive_andRejectsUnknownValues() {
+        assertEquals(Granularity.HOUR, ActivityLogService.granularity("hour"));
+        assertEquals(Granularity.DAY, ActivityLogService.granularity("DAY"));
+        assertThrows(IllegalArgumentException.class, () -> ActivityLogService.granularity("week"));
+    }
+}
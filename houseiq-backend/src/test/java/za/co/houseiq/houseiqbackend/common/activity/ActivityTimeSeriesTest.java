@@ -0,0 +1,156 @@
+package za.co.houseiq.houseiqbackend.common.activity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityRollup.Granularity;
+import za.co.houseiq.houseiqbackend.config.ActivityStorageProperties;
+
+@DataMongoTest
+@Testcontainers
+class ActivityTimeSeriesTest {
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7"));
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getConnectionString);
+        registry.add("spring.data.mongodb.database", () -> "houseiq_activity");
+    }
+
+    @Autowired MongoTemplate template;
+
+    private ActivityStorageProperties props;
+    private ActivityRollups rollups;
+    private ActivityTimeSeries timeSeries;
+
+    @BeforeEach
+    void setUp() {
+        template.getDb().drop();
+        props = new ActivityStorageProperties();
+        rollups = new ActivityRollups(template, props, new SimpleMeterRegistry());
+        timeSeries = new ActivityTimeSeries(template, props, rollups);
+    }
+
+    @Test
+    void plainCollection_isMigratedToTimeSeries_andOlderEventsAreRolledUp() {
+        Instant now = Instant.now();
+        var plain = template.getCollection("activity_logs");
+        plain.insertOne(event("o1", "LOGIN", now.minus(Duration.ofMinutes(5))));
+        plain.insertOne(event("o1", "LOGIN", now.minus(Duration.ofDays(40))));
+        plain.insertOne(event("o1", "PREDICTION_CREATED", now.minus(Duration.ofDays(40))));
+
+        timeSeries.ensure();
+
+        Document info = template.getDb().listCollections().filter(new Document("name", "activity_logs")).first();
+        assertEquals("timeseries", info.getString("type"));
+        assertEquals(props.getRawRetention().toSeconds(), ((Number) info.get("options", Document.class).get("expireAfterSeconds")).longValue());
+        assertEquals(0, template.getCollection("activity_logs").countDocuments());     // copied once the app is ready
+
+        assertTrue(timeSeries.migrate());
+        assertTrue(timeSeries.migrate());                               // done: nothing copied twice
+        assertEquals(1, template.getCollection("activity_logs").countDocuments());
+        assertEquals(3, template.getCollection("activity_logs_legacy").countDocuments());
+
+        Instant oldHour = now.minus(Duration.ofDays(40)).truncatedTo(ChronoUnit.HOURS);
+        List<ActivityCounts> old = rollups.counts("o1", Granularity.HOUR, oldHour, oldHour.plus(Duration.ofHours(1)));
+        assertEquals(1, old.size());
+        assertEquals(2, old.get(0).getTotal());
+        assertEquals(1L, old.get(0).getCounts().get("PREDICTION_CREATED"));
+    }
+
+    @Test
+    void interruptedMigration_resumesAfterTheLastCopiedEvent() {
+        Instant now = Instant.now();
+        var plain = template.getCollection("activity_logs");
+        plain.insertOne(event("o1", "LOGIN", now.minus(Duration.ofMinutes(10))));
+        plain.insertOne(event("o1", "LOGIN", now.minus(Duration.ofMinutes(5))));
+        timeSeries.ensure();
+        Document copied = template.getCollection("activity_logs_legacy").find().sort(new Document("_id", 1)).first();
+        template.getCollection("activity_logs").insertOne(copied);
+        template.getCollection(ActivityTimeSeries.MIGRATIONS).insertOne(new Document("_id", "activity_logs_legacy")
+            .append("cutoff", Date.from(now.minus(props.getRawRetention())))
+            .append("lastId", copied.get("_id"))
+            .append("leaseUntil", Date.from(now.minus(Duration.ofMinutes(1)))));  // the instance that held it died
+
+        timeSeries.ensure();                                            // restart: legacy already there, nothing renamed
+        assertTrue(timeSeries.migrate());
+
+        assertEquals(2, template.getCollection("activity_logs").countDocuments());
+        assertTrue(template.getCollection(ActivityTimeSeries.MIGRATIONS).find().first().getBoolean("done"));
+    }
+
+    @Test
+    void migrationLeasedByAnotherInstance_isLeftAlone() {
+        template.getCollection("activity_logs").insertOne(event("o1", "LOGIN", Instant.now()));
+        timeSeries.ensure();
+        template.getCollection(ActivityTimeSeries.MIGRATIONS).insertOne(new Document("_id", "activity_logs_legacy")
+            .append("cutoff", Date.from(Instant.now().minus(props.getRawRetention())))
+            .append("leaseUntil", Date.from(Instant.now().plus(Duration.ofMinutes(5)))));
+
+        assertFalse(timeSeries.migrate());
+        assertEquals(0, template.getCollection("activity_logs").countDocuments());
+    }
+
+    @Test
+    void existingTimeSeries_getsItsExpiryUpdated() {
+        timeSeries.ensure();
+        props.setRawRetention(Duration.ofDays(7));
+        timeSeries.ensure();
+
+        Document info = template.getDb().listCollections().filter(new Document("name", "activity_logs")).first();
+        assertEquals(Duration.ofDays(7).toSeconds(), ((Number) info.get("options", Document.class).get("expireAfterSeconds")).longValue());
+    }
+
+    @Test
+    void counts_mergeRollupsWithRawEvents_andRollupPassesAreIdempotent() {
+        timeSeries.ensure();
+        Instant base = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        var raw = template.getCollection("activity_logs");
+        raw.insertOne(event("o1", "LOGIN", base.minus(Duration.ofMinutes(175))));
+        raw.insertOne(event("o1", "LOGIN", base.minus(Duration.ofMinutes(170))));
+        raw.insertOne(event("o1", "PREDICTION_CREATED", base.minus(Duration.ofMinutes(115))));
+        raw.insertOne(event("o2", "LOGIN", base.minus(Duration.ofMinutes(115))));
+        raw.insertOne(event("o1", "PREDICTION_CREATED", base.plus(Duration.ofMinutes(10))));
+
+        rollups.run(base.plus(Duration.ofMinutes(30)));
+        rollups.run(base.plus(Duration.ofMinutes(30)));                 // same buckets, same counts
+
+        assertEquals(3, template.count(Query.query(Criteria.where("granularity").is(Granularity.HOUR)), ActivityRollup.class));
+
+        List<ActivityCounts> hours = rollups.counts("o1", Granularity.HOUR, base.minus(Duration.ofHours(4)), base.plus(Duration.ofHours(1)));
+        assertEquals(List.of(base.minus(Duration.ofHours(3)), base.minus(Duration.ofHours(2)), base),
+            hours.stream().map(ActivityCounts::getStart).toList());
+        assertEquals(2L, hours.get(0).getCounts().get("LOGIN"));
+        assertEquals(1, hours.get(1).getTotal());
+        assertEquals(1, hours.get(2).getTotal());                       // current hour, from raw events
+
+        long daily = rollups.counts("o1", Granularity.DAY, base.minus(Duration.ofDays(2)), base.plus(Duration.ofHours(1)))
+            .stream().mapToLong(ActivityCounts::getTotal).sum();
+        assertEquals(4, daily);
+    }
+
+    private static Document event(String ownerId, String action, Instant at) {
+        return new Document("ownerId", ownerId).append("action", action).append("createdAt", Date.from(at));
+    }
+}
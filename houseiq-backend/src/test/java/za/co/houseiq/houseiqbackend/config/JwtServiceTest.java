@@ -4,16 +4,20 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.lang.reflect.Field;
 import java.util.Map;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class JwtServiceTest {
 
     private JwtService jwtService;
+    private SimpleMeterRegistry meters;
 
     @BeforeEach
     void setUp() throws Exception {
-        jwtService = new JwtService();
+        meters = new SimpleMeterRegistry();
+        jwtService = new JwtService(meters);
         // reflectively set secret and ttlSeconds
         Field secret = JwtService.class.getDeclaredField("secret");
         secret.setAccessible(true);
@@ -21,9 +25,17 @@ class JwtServiceTest {
         Field ttl = JwtService.class.getDeclaredField("ttlSeconds");
         ttl.setAccessible(true);
         ttl.set(jwtService, 3600L);
+        setField("cacheEnabled", true);
+        setField("cacheMaxSize", 100L);
         jwtService.init();
     }
 
+    private void setField(String name, Object value) throws Exception {
+        Field f = JwtService.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(jwtService, value);
+    }
+
     @Test
     void issueAndParseRoundTrip() {
         String token = jwtService.issue("user-123", Map.of("role", "USER"));
@@ -35,6 +47,43 @@ class JwtServiceTest {
         assertNotNull(claims.getIssuedAt());
         assertNotNull(claims.getExpiration());
     }
-}
 
+    @Test
+    void authenticate_cachesVerifiedTokens() {
+        String token = jwtService.issue("user-123", Map.of("role", "ADMIN"));
+
+        var first = jwtService.authenticate(token);
+        var second = jwtService.authenticate(token);
+
+        assertSame(first, second);
+        assertEquals("user-123", second.getPrincipal());
+        assertEquals("ROLE_ADMIN", second.getAuthorities().iterator().next().getAuthority());
+        assertNull(second.getCredentials());                            // the raw token is not retained
+        assertThrows(UnsupportedOperationException.class, () -> second.setAuthenticated(false));
+        assertEquals(1.0, meters.get("houseiq.auth.jwt.cache.hits").counter().count());
+        assertEquals(1.0, meters.get("houseiq.auth.jwt.cache.misses").counter().count());
+        assertEquals(1L, meters.get("houseiq.auth.jwt.verify").timer().count());
+    }
+
+    @Test
+    void authenticate_rejectsTamperedTokens_andDoesNotCacheThem() {
+        String token = jwtService.issue("user-123", Map.of("role", "USER"));
+        jwtService.authenticate(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.authenticate(tampered));
+        assertThrows(JwtException.class, () -> jwtService.authenticate(tampered));
+        assertEquals(1.0, meters.get("houseiq.auth.jwt.cache.size").gauge().value());
+    }
 
+    @Test
+    void cachedToken_expiresWithTheToken() throws Exception {
+        setField("ttlSeconds", 1L);
+        String token = jwtService.issue("user-123", Map.of("role", "USER"));
+        assertNotNull(jwtService.authenticate(token));
+
+        Thread.sleep(2100);                                             // exp has whole-second resolution
+
+        assertThrows(JwtException.class, () -> jwtService.authenticate(token));
+    }
+}
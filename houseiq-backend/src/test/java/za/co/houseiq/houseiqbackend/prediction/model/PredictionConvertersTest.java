@@ -0,0 +1,80 @@
+package za.co.houseiq.houseiqbackend.prediction.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import za.co.houseiq.houseiqbackend.config.MongoConfig;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
+
+class PredictionConvertersTest {
+
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void writesShortKeys() {
+        Document doc = new Document();
+        converter.write(Prediction.builder().ownerId("u1").features(new PropertyFeatures(3, 2, 120.5, 8, 4)).build(), doc);
+
+        assertEquals(new Document("bd", 3).append("ba", 2).append("ar", 120.5).append("ag", 8).append("li", 4), doc.get("features"));
+    }
+
+    @Test
+    void predictionRead_roundTripsEveryField() {
+        Prediction p = new Prediction(new ObjectId().toHexString(), "u1", new PropertyFeatures(3, 2, 120.5, 8, 4), 1_250_000.0, "v2",
+            Map.of("area_sqm", 0.41, "bedrooms", 0.2), Map.of("area_sqm", 0.41), Instant.parse("2025-01-01T10:00:00Z"), Instant.parse("2025-01-02T10:00:00Z"), 3);
+        Document doc = new Document();
+        converter.write(p, doc);
+
+        assertEquals(p, converter.read(Prediction.class, doc));
+    }
+
+    @Test
+    void readsBothShapes() {
+        PropertyFeatures expected = new PropertyFeatures(3, 2, 120.5, 8, 4);
+        Document legacy = prediction(new Document("bedrooms", 3).append("bathrooms", 2).append("area_sqm", 120.5)
+            .append("age_years", 8).append("location_index", 4));
+        Document typed = prediction(PredictionConverters.FeaturesWrite.INSTANCE.convert(expected));
+
+        assertEquals(expected, converter.read(Prediction.class, legacy).getFeatures());
+        assertEquals(expected, converter.read(Prediction.class, typed).getFeatures());
+        assertEquals(expected, converter.read(PredictionView.class, legacy).features());
+        assertTrue(PredictionConverters.isLegacy(legacy.get("features", Document.class)));
+        assertFalse(PredictionConverters.isLegacy(typed.get("features", Document.class)));
+    }
+
+    @Test
+    void legacyIntegersStoredAsDoubles_stillRead() {
+        Document legacy = prediction(new Document("bedrooms", 3.0).append("bathrooms", 2L).append("area_sqm", 120)
+            .append("age_years", 8).append("location_index", 4));
+
+        assertEquals(new PropertyFeatures(3, 2, 120.0, 8, 4), converter.read(Prediction.class, legacy).getFeatures());
+    }
+
+    private static Document prediction(Document features) {
+        return new Document("_id", new ObjectId()).append("ownerId", "u1").append("features", features)
+            .append("predictedPrice", 1_000_000.0).append("modelVersion", "v1")
+            .append("explanations", new Document(Map.of("area_sqm", 0.41)))
+            .append("createdAt", Date.from(Instant.parse("2025-01-01T10:00:00Z")));
+    }
+}
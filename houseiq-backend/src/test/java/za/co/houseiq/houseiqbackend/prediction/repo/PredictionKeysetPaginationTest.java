@@ -0,0 +1,133 @@
+package za.co.houseiq.houseiqbackend.prediction.repo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import za.co.houseiq.houseiqbackend.common.PageCursor;
+import za.co.houseiq.houseiqbackend.config.MongoConfig;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+
+// 2M predictions for one owner: a keyset page at depth costs what the first page costs, skip/limit does not
+@DataMongoTest
+@Import(MongoConfig.class)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PredictionKeysetPaginationTest {
+
+    private static final int DOCS = 2_000_000;
+    private static final int DEPTH = 1_900_000;
+    private static final int SIZE = 20;
+    private static final Instant NEWEST = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7"));
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getConnectionString);
+        registry.add("spring.data.mongodb.database", () -> "houseiq_keyset");
+    }
+
+    @Autowired MongoTemplate template;
+    @Autowired PredictionRepository repo;
+
+    private PageCursor deep;                                        // position of document DEPTH
+
+    @BeforeAll
+    void seed() {
+        template.dropCollection(Prediction.class);
+        new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext())
+            .resolveIndexFor(Prediction.class).forEach(template.indexOps(Prediction.class)::createIndex);
+
+        var collection = template.getCollection("predictions");
+        List<Document> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < DOCS; i++) {
+            ObjectId id = new ObjectId();
+            Instant createdAt = NEWEST.minusMillis(i / 2);             // pairs share createdAt, so _id breaks ties
+            if (i == DEPTH) {
+                deep = new PageCursor(createdAt, id);
+            }
+            batch.add(new Document("_id", id).append("ownerId", "deep").append("predictedPrice", 1000.0 + i)
+                .append("modelVersion", "v1").append("createdAt", Date.from(createdAt)).append("version", 1));
+            if (batch.size() == 10_000) {
+                collection.insertMany(batch, new InsertManyOptions().ordered(false));
+                batch = new ArrayList<>(10_000);
+            }
+        }
+    }
+
+    @Test
+    void keysetPageAtDepth_costsTheSameAsTheFirstPage() {
+        long first = medianMillis(() -> repo.findByOwnerIdOrderByCreatedAtDescIdDesc("deep", PageCursor.probe(SIZE)));
+        long atDepth = medianMillis(() -> repo.findPageAfter("deep", deep.createdAt(), deep.id(), PageCursor.probe(SIZE)));
+        long skipped = medianMillis(() -> repo.findByOwnerIdOrderByCreatedAtDesc("deep", PageRequest.of(DEPTH / SIZE, SIZE)));
+
+        assertTrue(atDepth <= first * 3 + 10, "keyset page at depth " + atDepth + " ms vs first page " + first + " ms");
+        assertTrue(skipped > atDepth * 5, "skip/limit at depth " + skipped + " ms vs keyset " + atDepth + " ms");
+
+        Document seek = Document.parse("{ ownerId: 'deep', $or: [ { createdAt: { $lt: ISODate('" + deep.createdAt() + "') } },"
+            + " { createdAt: ISODate('" + deep.createdAt() + "'), _id: { $lt: ObjectId('" + deep.id().toHexString() + "') } } ] }");
+        Document plan = template.getCollection("predictions").find(seek)
+            .sort(Document.parse("{ createdAt: -1, _id: -1 }")).limit(SIZE + 1)
+            .explain(ExplainVerbosity.EXECUTION_STATS);
+        int keys = plan.get("executionStats", Document.class).getInteger("totalKeysExamined");
+        assertTrue(keys <= 2 * (SIZE + 2), "keyset page examined " + keys + " index keys");
+    }
+
+    @Test
+    void walkingTheCursor_visitsEveryDocumentOnceInOrder() {
+        List<Prediction> page = repo.findPageAfter("deep", deep.createdAt(), deep.id(), PageCursor.probe(SIZE));
+        List<Prediction> seen = new ArrayList<>();
+        while (true) {
+            var result = PageCursor.page(page, SIZE, Prediction::getCreatedAt, Prediction::getId);
+            seen.addAll(result.getItems());
+            if (result.getNextCursor() == null) {
+                break;
+            }
+            PageCursor next = PageCursor.decode(result.getNextCursor());
+            page = repo.findPageAfter("deep", next.createdAt(), next.id(), PageCursor.probe(SIZE));
+        }
+
+        assertEquals(DOCS - DEPTH - 1, seen.size());
+        assertEquals(seen.size(), seen.stream().map(Prediction::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getCreatedAt().isAfter(seen.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    private static long medianMillis(Supplier<List<Prediction>> query) {
+        for (int i = 0; i < 3; i++) query.get();                        // warm up plan cache and connection
+        long[] t = new long[15];
+        for (int i = 0; i < t.length; i++) {
+            long start = System.nanoTime();
+            assertFalse(query.get().isEmpty());
+            t[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(t);
+        return t[t.length / 2];
+    }
+}
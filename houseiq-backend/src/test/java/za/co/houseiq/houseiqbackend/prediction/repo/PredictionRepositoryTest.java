@@ -8,6 +8,7 @@ import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -15,9 +16,12 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
+import za.co.houseiq.houseiqbackend.config.MongoConfig;
 import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
 
 @DataMongoTest
+@Import(MongoConfig.class)                  // PredictionConverters
 @Testcontainers
 class PredictionRepositoryTest {
 
@@ -42,7 +46,7 @@ class PredictionRepositoryTest {
 
         Prediction a = Prediction.builder()
             .ownerId("u1")
-            .features(Map.of("bedrooms", 3))
+            .features(new PropertyFeatures(3, 2, 120.5, 8, 4))
             .predictedPrice(100)
             .modelVersion("v1")
             .explanations(Map.of())
@@ -52,7 +56,7 @@ class PredictionRepositoryTest {
             .build();
         Prediction b = Prediction.builder()
             .ownerId("u1")
-            .features(Map.of("bedrooms", 4))
+            .features(new PropertyFeatures(4, 2, 120.5, 8, 4))
             .predictedPrice(200)
             .modelVersion("v1")
             .explanations(Map.of())
@@ -62,7 +66,7 @@ class PredictionRepositoryTest {
             .build();
         Prediction c = Prediction.builder()
             .ownerId("u2")
-            .features(Map.of("bedrooms", 2))
+            .features(new PropertyFeatures(2, 2, 120.5, 8, 4))
             .predictedPrice(150)
             .modelVersion("v1")
             .explanations(Map.of())
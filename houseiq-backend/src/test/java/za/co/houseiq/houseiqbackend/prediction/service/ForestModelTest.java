@@ -0,0 +1,71 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ForestModelTest {
+
+    // same layout as train.py export_forest
+    static ByteBuffer export(String version, List<String> features, double[] weights, int[][] feature,
+                             double[][] threshold, int[][] left, int[][] right, double[][] value) {
+        ByteBuffer b = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("HQRF".getBytes(StandardCharsets.US_ASCII)).putInt(1);
+        putString(b, version);
+        b.putInt(features.size());
+        features.forEach(f -> putString(b, f));
+        for (double w : weights) b.putDouble(w);
+        b.putInt(feature.length);
+        for (int t = 0; t < feature.length; t++) {
+            b.putInt(feature[t].length);
+            for (int v : feature[t]) b.putInt(v);
+            for (double v : threshold[t]) b.putDouble(v);
+            for (int v : left[t]) b.putInt(v);
+            for (int v : right[t]) b.putInt(v);
+            for (double v : value[t]) b.putDouble(v);
+        }
+        return b.flip();
+    }
+
+    private static void putString(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        b.putInt(bytes.length).put(bytes);
+    }
+
+    // tree 0 splits on area (feature 1) at 0.1, tree 1 is a single leaf
+    private static ForestModel twoTrees() {
+        return ForestModel.read(export("rf-test", List.of("bedrooms", "area_sqm"), new double[] {0.5, 0.5},
+            new int[][] {{1, -2, -2}, {-2}},
+            new double[][] {{0.1, -2, -2}, {-2}},
+            new int[][] {{1, -1, -1}, {-1}},
+            new int[][] {{2, -1, -1}, {-1}},
+            new double[][] {{0, 100, 200}, {50}}));
+    }
+
+    @Test
+    void predict_averagesTreeOutputs() {
+        ForestModel m = twoTrees();
+
+        assertEquals("rf-test", m.modelVersion());
+        assertEquals(List.of("bedrooms", "area_sqm"), m.features());
+        assertEquals(2, m.trees());
+        assertEquals((100 + 50) / 2.0, m.predict(new double[] {3, 0.05}));
+        assertEquals((200 + 50) / 2.0, m.predict(new double[] {3, 0.5}));
+    }
+
+    @Test
+    void predict_comparesInputAsFloat32_likeScikitLearn() {
+        // (float) 0.1 is slightly above the double 0.1 threshold, so sklearn sends 0.1 to the right
+        assertEquals((200 + 50) / 2.0, twoTrees().predict(new double[] {3, 0.1}));
+    }
+
+    @Test
+    void read_rejectsOtherFormats() {
+        ByteBuffer junk = ByteBuffer.allocate(16).putInt(42).putInt(1).flip();
+        assertThrows(IllegalArgumentException.class, () -> ForestModel.read(junk));
+    }
+}
@@ -0,0 +1,60 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+// Java vs sklearn predictions for the same rows. The fixture under src/test/resources/forest is a tiny
+// RandomForestRegressor written by `python train.py --fixture ../houseiq-backend/src/test/resources/forest`
+// and always runs; the real export from `python train.py` (or `train.py --export-only`) is checked too once
+// it has been generated
+class LocalForestEngineParityTest {
+
+    private static final Path FOREST = Path.of("../houseiq-ml/model_forest.bin");
+    private static final Path PARITY = Path.of("../houseiq-ml/model_parity.json");
+
+    @Test
+    void matchesPythonPredictions_onTheFixtureForest() throws Exception {
+        Path fixture = Path.of(getClass().getResource("/forest").toURI());
+        assertParity(fixture.resolve("model_forest.bin"), fixture.resolve("model_parity.json"));
+    }
+
+    @Test
+    void matchesPythonPredictions_onTheTrainedForest() throws Exception {
+        assumeTrue(Files.exists(FOREST) && Files.exists(PARITY), "run houseiq-ml/train.py to export the forest");
+        assertParity(FOREST, PARITY);
+    }
+
+    private static void assertParity(Path forest, Path parityFile) throws Exception {
+        MlClientProperties props = new MlClientProperties();
+        props.setEngine(MlClientProperties.Engine.LOCAL);
+        props.getLocal().setModelPath(forest.toString());
+        LocalForestEngine engine = new LocalForestEngine(props, new SimpleMeterRegistry());
+        assertTrue(engine.isAvailable());
+
+        JsonNode parity = new ObjectMapper().readTree(parityFile.toFile());
+        JsonNode rows = parity.get("rows");
+        JsonNode expected = parity.get("predictions");
+        assertFalse(rows.isEmpty());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> features = new HashMap<>();
+            rows.get(i).properties().forEach(e -> features.put(e.getKey(), e.getValue().numberValue()));
+
+            PredictResponseDto r = engine.predict(features);
+
+            double want = expected.get(i).asDouble();
+            assertEquals(want, r.getPredicted_price(), Math.abs(want) * 1e-9, "row " + i + ": " + features);
+            assertEquals(parity.get("model_version").asText(), r.getModel_version());
+        }
+    }
+}
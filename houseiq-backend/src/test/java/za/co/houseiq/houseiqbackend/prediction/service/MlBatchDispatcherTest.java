@@ -0,0 +1,119 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+class MlBatchDispatcherTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private MlBatchDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) dispatcher.destroy();
+    }
+
+    private MlBatchDispatcher dispatcher(MlTransport transport, Duration window, int maxBatch, int maxQueue) {
+        MlClientProperties props = new MlClientProperties();
+        props.getBatching().setEnabled(true);
+        props.getBatching().setWindow(window);
+        props.getBatching().setMaxBatchSize(maxBatch);
+        props.getBatching().setMaxQueueDepth(maxQueue);
+        return new MlBatchDispatcher(transport, props, meters);
+    }
+
+    private static Map<String, Object> features(double area) {
+        return Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", area, "age_years", 8, "location_index", 4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentCalls_areSentAsOneBatch_andEachCallerGetsItsOwnResult() {
+        MlTransport transport = mock(MlTransport.class);
+        when(transport.predictBatch(anyList(), anyBoolean())).thenAnswer(inv -> {
+            List<Map<String, Object>> items = inv.getArgument(0);
+            return Mono.just(items.stream()
+                .map(f -> new PredictResponseDto(((Number) f.get("area_sqm")).doubleValue() * 1000, "v1", null))
+                .toList());
+        });
+        dispatcher = dispatcher(transport, Duration.ofMillis(200), 64, 100);
+
+        var a = dispatcher.submit(features(100)).toFuture();
+        var b = dispatcher.submit(features(200)).toFuture();
+        var c = dispatcher.submit(features(300)).toFuture();
+
+        assertEquals(100_000.0, a.join().getPredicted_price());
+        assertEquals(200_000.0, b.join().getPredicted_price());
+        assertEquals(300_000.0, c.join().getPredicted_price());
+        verify(transport, times(1)).predictBatch(argThat(l -> l.size() == 3), eq(true));
+        assertEquals(3.0, meters.get("houseiq.ml.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void batchError_reachesEveryCaller() {
+        MlTransport transport = mock(MlTransport.class);
+        when(transport.predictBatch(anyList(), anyBoolean())).thenReturn(Mono.error(new RuntimeException("ML service error: boom")));
+        dispatcher = dispatcher(transport, Duration.ofMillis(100), 64, 100);
+
+        var a = dispatcher.submit(features(100)).toFuture();
+        var b = dispatcher.submit(features(200)).toFuture();
+
+        assertThrows(Exception.class, a::join);
+        assertThrows(Exception.class, b::join);
+    }
+
+    @Test
+    void fullQueue_isRejectedWith503() throws Exception {
+        MlTransport transport = mock(MlTransport.class);
+        CountDownLatch dispatching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transport.predictBatch(anyList(), anyBoolean())).thenAnswer(inv -> {
+            dispatching.countDown();
+            release.await();                    // keep the dispatcher thread busy
+            return Mono.never();
+        });
+        dispatcher = dispatcher(transport, Duration.ofMillis(1), 1, 1);
+
+        dispatcher.submit(features(100)).subscribe();
+        assertTrue(dispatching.await(5, TimeUnit.SECONDS));
+        dispatcher.submit(features(200)).subscribe();               // fills the queue
+        Mono<PredictResponseDto> rejected = dispatcher.submit(features(300));
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, rejected::block);
+        assertEquals("ML_OVERLOADED", ex.getCode());
+        release.countDown();
+    }
+
+    @Test
+    void shutdownDuringTheWindow_failsTheCallsAlreadyTaken() throws Exception {
+        MlTransport transport = mock(MlTransport.class);
+        dispatcher = dispatcher(transport, Duration.ofSeconds(30), 64, 100);
+
+        var pending = dispatcher.submit(features(100)).toFuture();
+        for (int i = 0; i < 100 && meters.get("houseiq.ml.batch.queue.depth").gauge().value() > 0; i++) {
+            Thread.sleep(10);                                       // taken by the dispatcher, waiting out the window
+        }
+        dispatcher.destroy();
+
+        var ex = assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+        assertEquals("ML_UNAVAILABLE", ((ServiceUnavailableException) ex.getCause()).getCode());
+        verify(transport, never()).predictBatch(anyList(), anyBoolean());
+
+        var late = assertThrows(ServiceUnavailableException.class, () -> dispatcher.submit(features(200)).block());
+        assertEquals("ML_UNAVAILABLE", late.getCode());
+    }
+}
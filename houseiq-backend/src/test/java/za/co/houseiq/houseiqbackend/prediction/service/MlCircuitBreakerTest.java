@@ -0,0 +1,88 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.common.UpstreamException;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+
+class MlCircuitBreakerTest {
+
+    private MlClientProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new MlClientProperties();
+        props.getCircuitBreaker().setWindowSize(4);
+        props.getCircuitBreaker().setMinimumCalls(4);
+        props.getCircuitBreaker().setFailureRateThreshold(0.5);
+        props.getCircuitBreaker().setHalfOpenCalls(2);
+    }
+
+    @Test
+    void opensAtTheFailureRate_andRejectsWith503() {
+        MlCircuitBreaker breaker = new MlCircuitBreaker(props, new SimpleMeterRegistry());
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, true);
+        assertEquals(MlCircuitBreaker.State.CLOSED, breaker.state());
+        call(breaker, false);
+        assertEquals(MlCircuitBreaker.State.OPEN, breaker.state());
+
+        AtomicInteger sent = new AtomicInteger();
+        var err = assertThrows(ServiceUnavailableException.class,
+            () -> breaker.protect(() -> Mono.fromCallable(sent::incrementAndGet)).block());
+        assertEquals("ML_UNAVAILABLE", err.getCode());
+        assertEquals(0, sent.get());
+    }
+
+    @Test
+    void halfOpen_closesAfterSuccessfulProbes_andReopensOnAFailedOne() throws Exception {
+        props.getCircuitBreaker().setOpenDuration(Duration.ofMillis(50));
+        MlCircuitBreaker breaker = new MlCircuitBreaker(props, new SimpleMeterRegistry());
+        for (int i = 0; i < 4; i++) call(breaker, false);
+        assertEquals(MlCircuitBreaker.State.OPEN, breaker.state());
+
+        Thread.sleep(60);
+        assertEquals(MlCircuitBreaker.State.HALF_OPEN, breaker.state());
+        call(breaker, false);
+        assertEquals(MlCircuitBreaker.State.OPEN, breaker.state());
+
+        Thread.sleep(60);
+        call(breaker, true);
+        assertEquals(MlCircuitBreaker.State.HALF_OPEN, breaker.state());
+        call(breaker, true);
+        assertEquals(MlCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void backPressureAndRejectedInput_areNotFailures() {
+        MlCircuitBreaker breaker = new MlCircuitBreaker(props, new SimpleMeterRegistry());
+        for (int i = 0; i < 2; i++) {
+            failWith(breaker, new ServiceUnavailableException("ML_OVERLOADED", "ML request queue is full"));
+            failWith(breaker, new RuntimeException("ML service error: 422",
+                WebClientResponseException.create(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Unprocessable", null, null, null)));
+        }
+        assertEquals(MlCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    private static void call(MlCircuitBreaker breaker, boolean ok) {
+        if (ok) {
+            assertEquals("ok", breaker.protect(() -> Mono.just("ok")).block());
+        } else {
+            failWith(breaker, new UpstreamException(HttpStatus.BAD_GATEWAY, "ML_ERROR", "ML service error: 500 Internal Server Error", null));
+        }
+    }
+
+    private static void failWith(MlCircuitBreaker breaker, RuntimeException error) {
+        assertThrows(RuntimeException.class, () -> breaker.protect(() -> Mono.error(error)).block());
+    }
+}
@@ -0,0 +1,70 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import java.util.function.Function;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+
+// a real MlClient (and PredictionService on top) wired from one MlClientProperties and MeterRegistry,
+// so a new MlClient collaborator is added here once instead of in every test that builds the client.
+// Only the transport is swapped: a real one, or a stub answering single predictions
+public final class MlClientFixture {
+
+    private final MlClientProperties props;
+    private MeterRegistry meters = new SimpleMeterRegistry();
+    private MlTransport transport;
+
+    private MlClientFixture(MlClientProperties props) {
+        this.props = props;
+    }
+
+    public static MlClientFixture with(MlClientProperties props) {
+        return new MlClientFixture(props);
+    }
+
+    public MlClientFixture meters(MeterRegistry meters) {
+        this.meters = meters;
+        return this;
+    }
+
+    public MlClientFixture transport(MlTransport transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    /** Stubs the ML service: each single predict answers {@code predict} for its features. */
+    public MlClientFixture predict(Function<Map<String, Object>, Mono<PredictResponseDto>> predict) {
+        return transport(new MlTransport(null, props, null, null) {
+            @Override
+            public Mono<PredictResponseDto> predict(Map<String, Object> features) {
+                return predict.apply(features);
+            }
+        });
+    }
+
+    public MlClient mlClient() {
+        return new MlClient(transport,
+            new PredictionCache(props, mock(MongoTemplate.class), meters),
+            new MlRequestCoalescer(props, meters),
+            new MlBatchDispatcher(transport, props, meters),
+            new LocalForestEngine(props, meters),
+            new PriceGridLookup(props, meters),
+            new MlHedger(props, meters),
+            new MlCircuitBreaker(props, meters),
+            meters);
+    }
+
+    // no PredictionExport: the fixture is for the request paths, not streaming exports
+    public PredictionService predictionService(PredictionRepository repo, ActivityLogService activityLogs, Validator validator) {
+        return new PredictionService(repo, mlClient(), activityLogs, validator, null, meters);
+    }
+}
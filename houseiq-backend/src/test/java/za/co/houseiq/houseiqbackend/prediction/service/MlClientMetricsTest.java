@@ -0,0 +1,72 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+class MlClientMetricsTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final AtomicReference<Mono<PredictResponseDto>> next = new AtomicReference<>();
+    private MlClient client;
+
+    @BeforeEach
+    void setUp() {
+        MlClientProperties props = new MlClientProperties();
+        props.getCache().setEnabled(false);
+        props.getCircuitBreaker().setEnabled(false);
+        client = MlClientFixture.with(props).meters(meters).predict(features -> next.get()).mlClient();
+    }
+
+    @Test
+    void predict_timesRemoteCallsByOutcomeAndModelVersion() {
+        next.set(Mono.just(new PredictResponseDto(100.0, "v7", null)));
+        client.predict(Map.of("bedrooms", 3));
+
+        next.set(Mono.error(WebClientResponseException.create(502, "Bad Gateway", HttpHeaders.EMPTY, null, null)));
+        assertThrows(WebClientResponseException.class, () -> client.predict(Map.of("bedrooms", 4)));
+
+        assertEquals(1, meters.get("houseiq.ml.predict").tags("source", "remote", "outcome", "success", "model_version", "v7").timer().count());
+        assertEquals(1, meters.get("houseiq.ml.predict").tags("source", "remote", "outcome", "error", "model_version", "none").timer().count());
+        assertEquals(1, meters.get("houseiq.ml.errors").tags("type", "http_5xx").counter().count());
+        assertEquals(0, meters.get("houseiq.ml.inflight").gauge().value());
+    }
+
+    @Test
+    void inflightGauge_countsCallsAwaitingAnAnswer() {
+        Sinks.One<PredictResponseDto> answer = Sinks.one();
+        next.set(answer.asMono());
+        var result = client.predictAsync(Map.of("bedrooms", 3)).toFuture();
+        assertEquals(1, meters.get("houseiq.ml.inflight").gauge().value());
+
+        answer.tryEmitValue(new PredictResponseDto(100.0, "v7", null));
+        assertTrue(result.isDone());
+        assertEquals(0, meters.get("houseiq.ml.inflight").gauge().value());
+    }
+
+    @Test
+    void errorType_namesTheFirstRecognisableCause() {
+        assertEquals("unavailable", MlClient.errorType(new ServiceUnavailableException("ML_UNAVAILABLE", "open")));
+        assertEquals("overloaded", MlClient.errorType(new RuntimeException(new ServiceUnavailableException("ML_OVERLOADED", "full"))));
+        assertEquals("http_4xx", MlClient.errorType(WebClientResponseException.create(422, "Unprocessable", HttpHeaders.EMPTY, null, null)));
+        assertEquals("timeout", MlClient.errorType(new RuntimeException("ML service error", new TimeoutException())));
+        assertEquals("connect", MlClient.errorType(new WebClientRequestException(new ConnectException("refused"),
+            HttpMethod.POST, java.net.URI.create("http://ml/predict"), HttpHeaders.EMPTY)));
+        assertEquals("other", MlClient.errorType(new IllegalStateException("batch response does not match request size")));
+    }
+}
@@ -0,0 +1,111 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.config.WebClientConfig;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+// virtual-thread audit of the blocking predict path against a slow local ML stub:
+// many concurrent blocking waits must overlap and must not pin a carrier thread
+class MlClientVirtualThreadTest {
+
+    private static final int CALLS = 200;
+    private static final long ML_DELAY_MS = 200;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private HttpServer stub;
+    private MlClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/predict", ex -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(ML_DELAY_MS);                              // slow ML service
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            ex.getRequestBody().readAllBytes();
+            byte[] body = "{\"predicted_price\":1.0,\"model_version\":\"v1\",\"explanations\":null}"
+                .getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().add("Content-Type", "application/json");
+            ex.sendResponseHeaders(200, body.length);
+            ex.getResponseBody().write(body);
+            ex.close();
+        });
+        stub.start();
+
+        MlClientProperties props = new MlClientProperties();
+        props.setBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+        props.getCache().setEnabled(false);
+        var meters = new SimpleMeterRegistry();
+        var http = new WebClientConfig();
+        var webClient = http.webClient(http.mlConnectionProvider(props), props);
+        var endpoints = new MlEndpointPool(props, webClient, meters);
+        MlTransport transport = new MlTransport(webClient, props, endpoints, new MlWireFormat(props, webClient, endpoints));
+        client = MlClientFixture.with(props).meters(meters).transport(transport).mlClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    void concurrentPredictsOnVirtualThreads_runInParallel_withoutPinning() throws Exception {
+        client.predict(features(0));                                    // warm up the pool and codecs
+
+        var pinned = new ConcurrentLinkedQueue<String>();
+        try (var rs = new RecordingStream()) {
+            rs.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            rs.onEvent("jdk.VirtualThreadPinned", e -> pinned.add(e.getStackTrace() == null ? "?" :
+                e.getStackTrace().getFrames().stream().limit(12).map(RecordedFrame::getMethod)
+                    .map(m -> m.getType().getName() + "." + m.getName()).toList().toString()));
+            rs.startAsync();
+
+            List<Future<PredictResponseDto>> results = new ArrayList<>(CALLS);
+            try (ExecutorService vts = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 1; i <= CALLS; i++) {
+                    Map<String, Object> f = features(i);
+                    results.add(vts.submit(() -> client.predict(f)));
+                }
+            }
+            rs.stop();                                                  // flushes the remaining events
+
+            for (var r : results) {
+                assertEquals(1.0, r.get().getPredicted_price());
+            }
+            // every blocked caller is parked, not holding a carrier, so the ML calls overlap
+            assertTrue(peakInFlight.get() > 50, "ML calls did not overlap, peak " + peakInFlight.get());
+        }
+        assertTrue(pinned.isEmpty(), "virtual threads pinned: " + pinned);
+    }
+
+    private static Map<String, Object> features(int i) {
+        return Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", 100.0 + i, "age_years", 8, "location_index", 4);
+    }
+}
@@ -0,0 +1,118 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.config.WebClientConfig;
+
+class MlEndpointPoolTest {
+
+    private final AtomicBoolean bHealthy = new AtomicBoolean(true);
+    private final List<Disposable> held = new ArrayList<>();
+    private HttpServer a;
+    private HttpServer b;
+    private ConnectionProvider connections;
+    private SimpleMeterRegistry meters;
+    private MlEndpointPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        a = healthStub(new AtomicBoolean(true));
+        b = healthStub(bHealthy);
+        meters = new SimpleMeterRegistry();
+
+        MlClientProperties props = new MlClientProperties();
+        props.setEndpoints(List.of(url(a), url(b) + "/"));
+        props.getBalancing().setProbeInterval(Duration.ofHours(1));    // probes are driven by the test
+        props.getBalancing().setSlowStart(Duration.ofHours(1));
+        var config = new WebClientConfig();
+        connections = config.mlConnectionProvider(props);
+        pool = new MlEndpointPool(props, config.webClient(connections, props), meters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        held.forEach(Disposable::dispose);
+        pool.destroy();
+        connections.dispose();
+        a.stop(0);
+        b.stop(0);
+    }
+
+    @Test
+    void call_goesToTheReplicaWithFewerInFlight() {
+        for (int i = 0; i < 10; i++) {
+            hold();
+        }
+
+        assertEquals(Map.of(url(a), 5L, url(b), 5L), inFlightByUrl());
+        assertEquals(5.0, meters.get("houseiq.ml.endpoint.inflight").tag("endpoint", url(b)).gauge().value());
+    }
+
+    @Test
+    void failedProbes_ejectTheReplica_andItSlowStartsOnReturn() {
+        bHealthy.set(false);
+        pool.probeAll().block();
+        pool.probeAll().block();
+        assertEquals(1.0, meters.get("houseiq.ml.endpoint.healthy").tag("endpoint", url(b)).gauge().value());  // 2 of 3 failures
+        pool.probeAll().block();
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(url(a), pool.choose().url);
+        }
+        assertEquals(0.0, meters.get("houseiq.ml.endpoint.healthy").tag("endpoint", url(b)).gauge().value());
+
+        bHealthy.set(true);
+        pool.probeAll().block();
+        assertEquals(1.0, meters.get("houseiq.ml.endpoint.healthy").tag("endpoint", url(b)).gauge().value());
+        assertTrue(meters.get("houseiq.ml.endpoint.weight").tag("endpoint", url(b)).gauge().value() < 0.2);
+        for (int i = 0; i < 5; i++) {
+            hold();                                                     // a returning replica gets a small share first
+        }
+        assertEquals(Map.of(url(a), 5L, url(b), 0L), inFlightByUrl());
+    }
+
+    private void hold() {
+        held.add(pool.call(url -> Mono.never()).subscribe());
+    }
+
+    private Map<String, Long> inFlightByUrl() {
+        return pool.endpoints().stream().collect(Collectors.toMap(e -> e.url, e -> (long) e.inFlight.get()));
+    }
+
+    private static String url(HttpServer s) {
+        return "http://127.0.0.1:" + s.getAddress().getPort();
+    }
+
+    private static HttpServer healthStub(AtomicBoolean healthy) throws IOException {
+        HttpServer s = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        s.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        s.createContext("/health", ex -> {
+            byte[] body = "{\"status\":\"ok\",\"model_loaded\":true}".getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().add("Content-Type", "application/json");
+            ex.sendResponseHeaders(healthy.get() ? 200 : 503, body.length);
+            ex.getResponseBody().write(body);
+            ex.close();
+        });
+        s.start();
+        return s;
+    }
+}
@@ -0,0 +1,92 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+
+class MlHedgerTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private SimpleMeterRegistry meters;
+    private MlClientProperties props;
+
+    @BeforeEach
+    void setUp() {
+        meters = new SimpleMeterRegistry();
+        props = new MlClientProperties();
+        props.getHedging().setEnabled(true);
+        props.getHedging().setInitialDelay(Duration.ofMillis(20));
+    }
+
+    @Test
+    void slowCall_isHedged_andTheLoserCancelled() {
+        MlHedger hedger = new MlHedger(props, meters);
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> calls.incrementAndGet() == 1
+            ? Mono.<String>never().doOnCancel(() -> primaryCancelled.set(true))
+            : Mono.just("hedge")).block(WAIT);
+
+        assertEquals("hedge", result);
+        assertEquals(2, calls.get());
+        assertTrue(primaryCancelled.get());
+        assertEquals(1.0, meters.get("houseiq.ml.hedging.wins").counter().count());
+    }
+
+    @Test
+    void fastCall_isNotHedged() throws Exception {
+        MlHedger hedger = new MlHedger(props, meters);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("ok", hedger.hedge(() -> {
+            calls.incrementAndGet();
+            return Mono.just("ok");
+        }).block(WAIT));
+        Thread.sleep(100);                                              // well past the hedge delay
+
+        assertEquals(1, calls.get());
+        assertEquals(0.0, meters.get("houseiq.ml.hedging.hedges").counter().count());
+    }
+
+    @Test
+    void failedCall_reportsItsOwnError_withoutHedging() {
+        MlHedger hedger = new MlHedger(props, meters);
+        AtomicInteger calls = new AtomicInteger();
+
+        var err = assertThrows(IllegalStateException.class, () -> hedger.hedge(() -> {
+            calls.incrementAndGet();
+            return Mono.<String>error(new IllegalStateException("ML service error: 500"));
+        }).block(WAIT));
+
+        assertEquals("ML service error: 500", err.getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void hedges_stopWhenTheBudgetIsSpent() {
+        props.getHedging().setMaxRatio(0);                              // only the initial burst
+        MlHedger hedger = new MlHedger(props, meters);
+
+        List<String> winners = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            AtomicBoolean first = new AtomicBoolean(true);
+            winners.add(hedger.hedge(() -> first.getAndSet(false)
+                ? Mono.delay(Duration.ofMillis(100)).thenReturn("primary")
+                : Mono.just("hedge")).block(WAIT));
+        }
+
+        assertEquals(10, winners.stream().filter("hedge"::equals).count());
+        assertEquals(List.of("primary", "primary"), winners.subList(10, 12));
+    }
+}
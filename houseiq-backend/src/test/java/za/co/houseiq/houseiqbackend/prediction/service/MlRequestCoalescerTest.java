@@ -0,0 +1,71 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+class MlRequestCoalescerTest {
+
+    private SimpleMeterRegistry meters;
+    private MlRequestCoalescer coalescer;
+
+    private static final Map<String, Object> FEATURES =
+        Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", 120.5, "age_years", 8, "location_index", 4);
+
+    @BeforeEach
+    void setUp() {
+        meters = new SimpleMeterRegistry();
+        coalescer = new MlRequestCoalescer(new MlClientProperties(), meters);
+    }
+
+    @Test
+    void identicalInFlightCalls_shareOneRequest() {
+        AtomicInteger outbound = new AtomicInteger();
+        Sinks.One<PredictResponseDto> response = Sinks.one();
+
+        Mono<PredictResponseDto> first = coalescer.coalesce(FEATURES, () -> {
+            outbound.incrementAndGet();
+            return response.asMono();
+        });
+        Mono<PredictResponseDto> second = coalescer.coalesce(Map.copyOf(FEATURES), () -> {
+            outbound.incrementAndGet();
+            return response.asMono();
+        });
+        assertSame(first, second);
+
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue(new PredictResponseDto(1.0, "v1", null));
+
+        assertEquals(1, outbound.get());
+        assertEquals(1.0, second.block().getPredicted_price());
+        assertEquals(1.0, meters.get("houseiq.ml.coalescing.coalesced").counter().count());
+
+        // once the call has finished a new request goes out again
+        coalescer.coalesce(FEATURES, () -> {
+            outbound.incrementAndGet();
+            return Mono.just(new PredictResponseDto(2.0, "v1", null));
+        }).block();
+        assertEquals(2, outbound.get());
+    }
+
+    @Test
+    void failure_reachesEveryWaiter() {
+        Sinks.One<PredictResponseDto> response = Sinks.one();
+        Mono<PredictResponseDto> a = coalescer.coalesce(FEATURES, response::asMono);
+        Mono<PredictResponseDto> b = coalescer.coalesce(FEATURES, response::asMono);
+
+        response.tryEmitError(new RuntimeException("ML service error: boom"));
+
+        assertThrows(RuntimeException.class, a::block);
+        assertThrows(RuntimeException.class, b::block);
+    }
+}
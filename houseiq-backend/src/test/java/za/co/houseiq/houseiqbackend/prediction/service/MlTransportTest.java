@@ -0,0 +1,266 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.netty.resources.ConnectionProvider;
+import za.co.houseiq.houseiqbackend.common.ServiceUnavailableException;
+import za.co.houseiq.houseiqbackend.common.UpstreamException;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.config.WebClientConfig;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+// the configured ML transport (ml.http.*) against a local stub server
+class MlTransportTest {
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final List<String> encodings = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer stub;
+    private ConnectionProvider pool;
+    private MlClientProperties props;
+    private MlWireFormat wire;
+    private volatile boolean binarySupported = true;
+    private volatile int binaryFailure;                                 // status /predict/bin answers with, 0 = success
+    private final AtomicInteger binaryCalls = new AtomicInteger();
+    private final List<String> binaryQueries = Collections.synchronizedList(new ArrayList<>());
+    private volatile String modelVersion = "v2";
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/predict/batch", ex -> {
+            String enc = ex.getRequestHeaders().getFirst("Content-Encoding");
+            encodings.add(String.valueOf(enc));
+            byte[] raw = ex.getRequestBody().readAllBytes();
+            if ("gzip".equals(enc)) {
+                raw = new GZIPInputStream(new ByteArrayInputStream(raw)).readAllBytes();
+            }
+            int n = om.readTree(raw).get("items").size();
+            respond(ex, "{\"predictions\":[" + String.join(",", Collections.nCopies(n, PREDICTION)) + "]}");
+        });
+        stub.createContext("/health", ex -> respond(ex, "{\"status\":\"ok\",\"model_loaded\":true,"
+            + "\"features\":[\"bedrooms\",\"bathrooms\",\"area_sqm\",\"age_years\",\"location_index\"],"
+            + "\"wire_formats\":[\"json\",\"f64le\"]}"));
+        stub.createContext("/predict/bin", ex -> {
+            binaryCalls.incrementAndGet();
+            binaryQueries.add(String.valueOf(ex.getRequestURI().getQuery()));
+            ByteBuffer rows = ByteBuffer.wrap(ex.getRequestBody().readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            if (!binarySupported || binaryFailure != 0) {
+                ex.sendResponseHeaders(binarySupported ? binaryFailure : 404, -1);
+                ex.close();
+                return;
+            }
+            ByteBuffer prices = ByteBuffer.allocate(rows.remaining() / 5).order(ByteOrder.LITTLE_ENDIAN);
+            while (rows.hasRemaining()) {
+                double[] row = new double[5];
+                for (int i = 0; i < 5; i++) row[i] = rows.getDouble();
+                prices.putDouble(row[2] * 1000);                         // area_sqm, so the column order is checked
+            }
+            ex.getResponseHeaders().add("Content-Type", "application/x-houseiq-f64le");
+            ex.getResponseHeaders().add("X-Model-Version", modelVersion);
+            if ("explain=true".equals(ex.getRequestURI().getQuery())) {
+                ex.getResponseHeaders().add("X-Explanations", "{\"area_sqm\":1.0}");
+            }
+            ex.sendResponseHeaders(200, prices.capacity());
+            ex.getResponseBody().write(prices.array());
+            ex.close();
+        });
+        stub.createContext("/predict", ex -> {
+            ex.getRequestBody().readAllBytes();
+            try {
+                release.await(5, TimeUnit.SECONDS);                     // held until the test lets go
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(ex, PREDICTION);
+        });
+        stub.start();
+
+        props = new MlClientProperties();
+        props.setBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (pool != null) {
+            pool.dispose();
+        }
+        stub.stop(0);
+    }
+
+    @Test
+    void predictBatch_gzipsOnlyLargeBodies() {
+        props.getHttp().setCompressRequestsOver(DataSize.ofKilobytes(1));
+        MlTransport transport = transport();
+
+        assertEquals(50, transport.predictBatch(items(50), false).block().size());
+        assertEquals(2, transport.predictBatch(items(2), false).block().size());
+
+        assertEquals(List.of("gzip", "null"), encodings);
+    }
+
+    @Test
+    void responseTimeout_failsTheCall() {
+        props.getHttp().setResponseTimeout(Duration.ofMillis(100));
+
+        var err = assertThrows(UpstreamException.class, () -> transport().predict(items(1).get(0)).block());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, err.getStatus());
+        assertEquals("ML_TIMEOUT", err.getCode());
+    }
+
+    @Test
+    void failedMlCall_isBadGateway_butRejectedInputIsNot() throws Exception {
+        props.getWire().setFormat(MlClientProperties.WireFormat.BINARY);
+        MlTransport transport = transport();
+        awaitNegotiated();
+
+        binaryFailure = 500;
+        var failed = assertThrows(UpstreamException.class, () -> transport.predict(items(1).get(0)).block());
+        assertEquals(HttpStatus.BAD_GATEWAY, failed.getStatus());
+        assertEquals("ML_ERROR", failed.getCode());
+
+        binaryFailure = 422;
+        var rejected = assertThrows(RuntimeException.class, () -> transport.predict(items(1).get(0)).block());
+        assertFalse(rejected instanceof UpstreamException, rejected.toString());     // the client's input, stays a 400
+    }
+
+    @Test
+    void saturatedPool_isServiceUnavailable() {
+        props.getHttp().setMaxConnections(1);
+        props.getHttp().setPendingAcquireMaxCount(1);
+        MlTransport transport = transport();
+
+        Disposable holding = transport.predict(items(1).get(0)).subscribe();    // takes the only connection
+        Disposable waiting = transport.predict(items(1).get(0)).subscribe();    // the only pending slot
+        try {
+            var err = assertThrows(ServiceUnavailableException.class, () -> transport.predict(items(1).get(0)).block());
+            assertEquals("ML_OVERLOADED", err.getCode());
+        } finally {
+            holding.dispose();
+            waiting.dispose();
+        }
+    }
+
+    @Test
+    void poolMetrics_arePublished() {
+        var meters = new SimpleMeterRegistry();
+        Metrics.addRegistry(meters);                                    // Boot's registries join the global one too
+        try {
+            release.countDown();
+            transport().predict(items(1).get(0)).block();
+
+            assertNotNull(meters.find("reactor.netty.connection.provider.total.connections").tag("name", "ml").gauge());
+            assertNotNull(meters.find("reactor.netty.connection.provider.max.connections").tag("name", "ml").gauge());
+        } finally {
+            Metrics.removeRegistry(meters);
+        }
+    }
+
+    @Test
+    void binaryWireFormat_isNegotiated_andUsedForSingleAndBatch() throws Exception {
+        props.getWire().setFormat(MlClientProperties.WireFormat.BINARY);
+        MlTransport transport = transport();
+        awaitNegotiated();
+
+        PredictResponseDto one = transport.predict(items(1).get(0)).block();
+        List<PredictResponseDto> many = transport.predictBatch(items(3), true).block();
+
+        assertEquals(100_000.0, one.getPredicted_price());
+        assertEquals("v2", one.getModel_version());
+        assertEquals(Map.of("area_sqm", 1.0), one.getExplanations());
+        assertEquals(List.of(100_000.0, 101_000.0, 102_000.0), many.stream().map(PredictResponseDto::getPredicted_price).toList());
+        assertEquals(2, binaryCalls.get());
+        assertTrue(encodings.isEmpty());                                // no JSON batch call
+    }
+
+    @Test
+    void batchWithoutExplain_reusesTheModelsExplanations_andAsksAgainForANewModel() throws Exception {
+        props.getWire().setFormat(MlClientProperties.WireFormat.BINARY);
+        MlTransport transport = transport();
+        awaitNegotiated();
+
+        transport.predictBatch(items(2), false).block();               // nothing known yet: explained
+        List<PredictResponseDto> reused = transport.predictBatch(items(2), false).block();
+        modelVersion = "v3";
+        List<PredictResponseDto> newModel = transport.predictBatch(items(2), false).block();
+
+        assertEquals(Map.of("area_sqm", 1.0), reused.get(1).getExplanations());
+        assertEquals("v3", newModel.get(0).getModel_version());
+        assertEquals(Map.of("area_sqm", 1.0), newModel.get(0).getExplanations());
+        assertEquals(List.of("explain=true", "null", "null", "explain=true"), binaryQueries);
+    }
+
+    @Test
+    void refusedBinaryCall_fallsBackToJson() throws Exception {
+        props.getWire().setFormat(MlClientProperties.WireFormat.BINARY);
+        binarySupported = false;
+        release.countDown();
+        MlTransport transport = transport();
+        awaitNegotiated();
+
+        assertEquals(1.0, transport.predict(items(1).get(0)).block().getPredicted_price());
+        assertEquals(1, binaryCalls.get());
+        assertNull(wire.binaryFeatures());                              // JSON until renegotiated
+    }
+
+    private void awaitNegotiated() throws InterruptedException {
+        for (int i = 0; i < 100 && wire.binaryFeatures() == null; i++) {
+            Thread.sleep(20);
+        }
+        assertNotNull(wire.binaryFeatures(), "wire format not negotiated");
+    }
+
+    private MlTransport transport() {
+        var config = new WebClientConfig();
+        pool = config.mlConnectionProvider(props);
+        var webClient = config.webClient(pool, props);
+        var endpoints = new MlEndpointPool(props, webClient, new SimpleMeterRegistry());
+        wire = new MlWireFormat(props, webClient, endpoints);
+        return new MlTransport(webClient, props, endpoints, wire);
+    }
+
+    private static final String PREDICTION = "{\"predicted_price\":1.0,\"model_version\":\"v1\",\"explanations\":null}";
+
+    private static void respond(HttpExchange ex, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, body.length);
+        ex.getResponseBody().write(body);
+        ex.close();
+    }
+
+    private static List<Map<String, Object>> items(int n) {
+        return IntStream.range(0, n).<Map<String, Object>>mapToObj(i ->
+            Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", 100.0 + i, "age_years", 8, "location_index", 4)).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+
+class PredictionCacheTest {
+
+    private MongoTemplate mongo;
+    private SimpleMeterRegistry meters;
+    private PredictionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MlClientProperties props = new MlClientProperties();
+        props.getCache().setAreaStep(0.5);
+        mongo = mock(MongoTemplate.class);
+        meters = new SimpleMeterRegistry();
+        cache = new PredictionCache(props, mongo, meters);
+    }
+
+    private static Map<String, Object> features(double area) {
+        return Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", area, "age_years", 8, "location_index", 4);
+    }
+
+    @Test
+    void missesUntilModelVersionKnown_thenHitsOnCanonicalKey() {
+        assertNull(cache.get(features(120.5)));
+
+        cache.put(features(120.5), new PredictResponseDto(100.0, "v1", null));
+
+        // same features in a different map, area within the rounding step
+        PredictResponseDto hit = cache.get(features(120.6));
+        assertNotNull(hit);
+        assertEquals(100.0, hit.getPredicted_price());
+        assertNull(cache.get(features(130.0)));
+
+        assertEquals(1.0, meters.get("houseiq.ml.cache.hits").tag("tier", "l1").counter().count());
+        verifyNoInteractions(mongo);            // L2 is off by default
+    }
+
+    @Test
+    void newModelVersion_stopsMatchingOldEntries_andPurgeRemovesThem() {
+        cache.put(features(120.5), new PredictResponseDto(100.0, "v1", null));
+        cache.put(features(80.0), new PredictResponseDto(50.0, "v2", null));
+
+        assertNull(cache.get(features(120.5)));  // cached under v1, current version is v2
+        assertNotNull(cache.get(features(80.0)));
+
+        assertEquals(1, cache.purge("v1"));
+        assertEquals(1, cache.purge("v2"));
+        assertNull(cache.get(features(80.0)));
+    }
+}
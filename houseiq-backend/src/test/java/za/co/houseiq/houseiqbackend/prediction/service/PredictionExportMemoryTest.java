@@ -0,0 +1,95 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+// a million predictions exported by a child JVM with -Xmx64m: materialising the history (~400 MB of NDJSON) would not fit
+@Testcontainers
+class PredictionExportMemoryTest {
+
+    private static final int DOCS = 1_000_000;
+    private static final String HEAP = "-Xmx64m";
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7"));
+
+    @Test
+    void millionRowExport_runsInASmallHeap() throws Exception {
+        try (MongoClient client = MongoClients.create(mongo.getConnectionString())) {
+            var collection = client.getDatabase("houseiq_export").getCollection("predictions");
+            List<Document> batch = new ArrayList<>(10_000);
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < DOCS; i++) {
+                batch.add(new Document("_id", new ObjectId()).append("ownerId", "big")
+                    .append("features", new Document("bedrooms", 3).append("bathrooms", 2).append("area_sqm", 120.5)
+                        .append("age_years", 8).append("location_index", 4))
+                    .append("predictedPrice", 1_000_000.0 + i).append("modelVersion", "v1")
+                    .append("explanations", new Document("area_sqm", 0.41).append("location_index", 0.27).append("bedrooms", 0.14))
+                    .append("createdAt", new Date(now - i)).append("updatedAt", new Date(now - i)).append("version", 1));
+                if (batch.size() == 10_000) {
+                    collection.insertMany(batch, new InsertManyOptions().ordered(false));
+                    batch = new ArrayList<>(10_000);
+                }
+            }
+            collection.createIndex(Document.parse("{ ownerId: 1, createdAt: -1, _id: -1 }"));
+        }
+
+        Process child = new ProcessBuilder(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java", HEAP,
+                "-cp", System.getProperty("java.class.path"),
+                Probe.class.getName(), mongo.getConnectionString())
+            .redirectErrorStream(true)
+            .start();
+        String output = new String(child.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(child.waitFor(10, TimeUnit.MINUTES), "export did not finish");
+
+        assertEquals(0, child.exitValue(), output);
+        assertTrue(output.contains("rows=" + DOCS), output);
+    }
+
+    /** Runs in the child JVM: exports owner "big" as NDJSON into a byte counter and reports peak heap. */
+    public static class Probe {
+        public static void main(String[] args) throws IOException {
+            try (MongoClient client = MongoClients.create(args[0])) {
+                PredictionExport export = new PredictionExport(new MongoTemplate(client, "houseiq_export"), null,
+                    Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry());
+                long[] bytes = new long[1];
+                OutputStream sink = new OutputStream() {
+                    @Override public void write(int b) { bytes[0]++; }
+                    @Override public void write(byte[] b, int off, int len) { bytes[0] += len; }
+                };
+                long rows = export.write("big", PredictionExport.Format.NDJSON, sink);
+
+                long peak = 0;
+                for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                    if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+                }
+                System.out.printf("rows=%d bytes=%d peakHeapMb=%d%n", rows, bytes[0], peak >> 20);
+            }
+        }
+    }
+}
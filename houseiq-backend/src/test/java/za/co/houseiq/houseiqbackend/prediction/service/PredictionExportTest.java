@@ -0,0 +1,111 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
+
+class PredictionExportTest {
+
+    private MongoTemplate mongo;
+    private SimpleMeterRegistry meters;
+    private PredictionExport export;
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoTemplate.class);
+        meters = new SimpleMeterRegistry();
+        export = new PredictionExport(mongo, null, json, meters);
+    }
+
+    @Test
+    void ndjson_writesOnePredictionPerLine() throws Exception {
+        when(mongo.stream(any(Query.class), eq(Prediction.class))).thenReturn(Stream.of(prediction("p1", "v1"), prediction("p2", "v1")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, export.write("user-1", PredictionExport.Format.NDJSON, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("p1", json.readTree(lines[0]).get("id").asText());
+        assertEquals(3, json.readTree(lines[1]).get("features").get("bedrooms").asInt());
+        assertEquals(2.0, meters.get("houseiq.export.rows").tag("format", "ndjson").counter().count());
+    }
+
+    @Test
+    void ndjson_flushesOncePerBatch_notPerRow() throws Exception {
+        int n = PredictionExport.BATCH_SIZE * 2 + 200;
+        when(mongo.stream(any(Query.class), eq(Prediction.class))).thenReturn(IntStream.range(0, n).mapToObj(i -> prediction("p" + i, "v1")));
+        AtomicInteger flushes = new AtomicInteger();
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        assertEquals(n, export.write("user-1", PredictionExport.Format.NDJSON, out));
+        assertEquals(3, flushes.get());
+    }
+
+    @Test
+    void csv_hasHeader_andQuotesFieldsThatNeedIt() throws Exception {
+        when(mongo.stream(any(Query.class), eq(Prediction.class))).thenReturn(Stream.of(prediction("p1", "v1, \"beta\"")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        export.write("user-1", PredictionExport.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,createdAt,predictedPrice,modelVersion,bedrooms,bathrooms,area_sqm,age_years,location_index", lines[0]);
+        assertEquals("p1,2025-01-01T10:00:00Z,1850000.0,\"v1, \"\"beta\"\"\",3,2,120.5,8,4", lines[1]);
+    }
+
+    @Test
+    void clientDisconnect_closesTheCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Prediction> rows = IntStream.range(0, 10_000).mapToObj(i -> prediction("p" + i, "v1")).onClose(() -> closed.set(true));
+        when(mongo.stream(any(Query.class), eq(Prediction.class))).thenReturn(rows);
+        OutputStream gone = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> export.write("user-1", PredictionExport.Format.NDJSON, gone));
+        assertTrue(closed.get());
+        assertEquals(1.0, meters.get("houseiq.export.aborted").tag("format", "ndjson").counter().count());
+    }
+
+    private static Prediction prediction(String id, String modelVersion) {
+        Instant at = Instant.parse("2025-01-01T10:00:00Z");
+        return Prediction.builder().id(id).ownerId("user-1").predictedPrice(1_850_000.0).modelVersion(modelVersion)
+            .features(new PropertyFeatures(3, 2, 120.5, 8, 4))
+            .explanations(Map.of("area_sqm", 0.41)).createdAt(at).updatedAt(at).version(1)
+            .build();
+    }
+}
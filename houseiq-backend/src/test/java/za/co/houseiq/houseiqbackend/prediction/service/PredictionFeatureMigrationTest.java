@@ -0,0 +1,101 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import za.co.houseiq.houseiqbackend.config.FeatureMigrationProperties;
+import za.co.houseiq.houseiqbackend.config.MongoConfig;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+
+@DataMongoTest
+@Import(MongoConfig.class)
+@Testcontainers
+class PredictionFeatureMigrationTest {
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7"));
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getConnectionString);
+        registry.add("spring.data.mongodb.database", () -> "houseiq_migration");
+    }
+
+    @Autowired MongoTemplate template;
+    @Autowired PredictionRepository repo;
+
+    private PredictionFeatureMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        template.getDb().drop();
+        FeatureMigrationProperties props = new FeatureMigrationProperties();
+        props.setBatchSize(7);
+        props.setPause(Duration.ZERO);
+        migration = new PredictionFeatureMigration(template, props, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void legacyDocuments_areRewritten_andReadTheSameBeforeAndAfter() throws Exception {
+        List<Document> docs = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            docs.add(new Document("_id", new ObjectId()).append("ownerId", "u1")
+                .append("features", new Document("bedrooms", 3).append("bathrooms", 2).append("area_sqm", 100.0 + i)
+                    .append("age_years", 8).append("location_index", 4))
+                .append("predictedPrice", 1_000_000.0 + i).append("modelVersion", "v1")
+                .append("createdAt", new Date(1_700_000_000_000L + i)).append("version", 1));
+        }
+        template.getCollection("predictions").insertMany(docs);
+        repo.save(Prediction.builder().ownerId("u1").features(new PropertyFeatures(2, 1, 60.0, 30, 2))
+            .predictedPrice(500_000.0).modelVersion("v1").createdAt(new Date(1_600_000_000_000L).toInstant()).version(1).build());
+
+        List<Prediction> before = repo.findByOwnerIdOrderByCreatedAtDescIdDesc("u1", PageRequest.ofSize(50));
+        assertEquals(25, migration.migrate());
+
+        assertEquals(0, template.getCollection("predictions").countDocuments(new Document("features.bedrooms", new Document("$exists", true))));
+        assertEquals(26, template.getCollection("predictions").countDocuments(new Document("features.bd", new Document("$exists", true))));
+        assertEquals(before, repo.findByOwnerIdOrderByCreatedAtDescIdDesc("u1", PageRequest.ofSize(50)));
+        assertEquals(0, migration.migrate());               // nothing left to do
+    }
+
+    @Test
+    void predictionsWithoutTopExplanations_getThem_andListTheirFactors() throws Exception {
+        Document explanations = new Document("area_sqm", 0.41).append("age_years", 0.08).append("location_index", 0.27)
+            .append("bathrooms", 0.1).append("bedrooms", 0.14);
+        for (int i = 0; i < 10; i++) {
+            template.getCollection("predictions").insertOne(new Document("ownerId", "u1")
+                .append("features", new Document("bd", 3).append("ba", 2).append("ar", 100.0 + i).append("ag", 8).append("li", 4))
+                .append("predictedPrice", 1_000_000.0 + i).append("modelVersion", "v1").append("explanations", explanations)
+                .append("createdAt", new Date(1_700_000_000_000L + i)).append("version", 1));
+        }
+
+        assertEquals(10, migration.migrate());
+
+        List<Prediction> rows = repo.findViewsByOwnerId("u1", PageRequest.ofSize(50));
+        assertEquals(10, rows.size());
+        assertEquals(List.of("area_sqm", "location_index", "bedrooms"), List.copyOf(rows.get(0).getTopExplanations().keySet()));
+        assertNull(rows.get(0).getExplanations());          // the full map is not projected
+        assertEquals(0, migration.migrate());
+    }
+}
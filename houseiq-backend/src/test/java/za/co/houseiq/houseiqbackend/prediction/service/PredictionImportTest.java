@@ -0,0 +1,220 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.unit.DataSize;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.config.PredictionImportProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.ImportJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+
+class PredictionImportTest {
+
+    private static final String HEADER = "location_index,bedrooms,bathrooms,area_sqm,age_years\n";
+
+    private MlClient mlClient;
+    private MongoTemplate mongo;
+    private ActivityLogService activityLogs;
+    private SimpleMeterRegistry meters;
+    private PredictionImport imports;
+
+    @BeforeEach
+    void setUp() {
+        mlClient = mock(MlClient.class);
+        mongo = mock(MongoTemplate.class);
+        activityLogs = mock(ActivityLogService.class);
+        meters = new SimpleMeterRegistry();
+        when(mongo.bulkOps(any(BulkOperations.BulkMode.class), eq(Prediction.class))).thenAnswer(inv -> insertAll());
+        when(mlClient.predictBatch(anyList())).thenAnswer(inv -> scores(inv.getArgument(0)));
+
+        PredictionImportProperties cfg = new PredictionImportProperties();
+        cfg.setChunkSize(2);
+        cfg.setConcurrency(2);
+        imports = new PredictionImport(mlClient, mongo, Validation.buildDefaultValidatorFactory().getValidator(),
+            activityLogs, cfg, meters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imports.destroy();
+    }
+
+    @Test
+    void validRowsAreScoredInChunks_andBadRowsReportedByLine() throws Exception {
+        String csv = HEADER
+            + "4,3,2,120.5,8\n"
+            + "4,9,2,120.5,8\n"             // bedrooms out of range
+            + "\n"
+            + "3,2,1,eighty,5\n"            // not a number
+            + "\"3\", 2 ,1,80,5\n"
+            + "2,1,1,45,30\n";
+
+        ImportJobDto started = imports.start("user-1", stream(csv));
+        ImportJobDto done = awaitFinished("user-1", started.getId());
+
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals(5, done.getRowsRead());
+        assertEquals(3, done.getRowsSaved());
+        assertEquals(2, done.getRowsInvalid());
+        assertEquals(0, done.getRowsPending());
+        assertEquals(List.of(3L, 5L), done.getErrors().stream().map(ImportJobDto.RowError::getLine).toList());
+        assertTrue(done.getErrors().get(0).getError().startsWith("bedrooms"));
+        verify(mlClient, times(2)).predictBatch(anyList());   // 2 + 1 valid rows
+        assertEquals(3.0, meters.get("houseiq.import.rows").tag("outcome", "saved").counter().count());
+        verify(activityLogs).record(eq("user-1"), eq("PREDICTION_IMPORT_FINISHED"), anyMap());
+    }
+
+    @Test
+    void mlFailure_failsOnlyThatChunk() throws Exception {
+        when(mlClient.predictBatch(anyList()))
+            .thenThrow(new RuntimeException("ML service error: timeout"))
+            .thenAnswer(inv -> scores(inv.getArgument(0)));
+
+        ImportJobDto started = imports.start("user-1", stream(HEADER + "4,3,2,120.5,8\n4,3,2,121,8\n4,3,2,122,8\n"));
+        ImportJobDto done = awaitFinished("user-1", started.getId());
+
+        assertEquals(1, done.getRowsSaved());
+        assertEquals(2, done.getRowsFailed());
+        assertEquals("FAILED", done.getErrors().get(0).getStatus());
+        assertEquals(List.of(2L, 3L), done.getErrors().stream().map(ImportJobDto.RowError::getLine).toList());
+    }
+
+    @Test
+    void chunksInFlight_neverExceedConcurrency() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(mlClient.predictBatch(anyList())).thenAnswer(inv -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return scores(inv.getArgument(0));
+        });
+        String rows = IntStream.range(0, 40).mapToObj(i -> "4,3,2," + (100 + i) + ",8").collect(Collectors.joining("\n"));
+
+        ImportJobDto started = imports.start("user-1", stream(HEADER + rows));
+        ImportJobDto done = awaitFinished("user-1", started.getId());
+
+        assertEquals(40, done.getRowsSaved());
+        assertTrue(peak.get() <= 2, "peak " + peak.get());
+    }
+
+    @Test
+    void start_returnsTheJobBeforeAnyRowIsScored_andDeletesTheUploadAfterReading() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(mlClient.predictBatch(anyList())).thenAnswer(inv -> {
+            release.await();
+            return scores(inv.getArgument(0));
+        });
+        Path upload = Files.createTempFile("import-test-", ".csv");
+        Files.writeString(upload, HEADER + "4,3,2,120.5,8\n4,3,2,121,8\n4,3,2,122,8\n");
+
+        ImportJobDto started = imports.start("user-1", upload);
+
+        assertNotEquals("COMPLETED", started.getStatus());
+        assertEquals(0, started.getRowsSaved());
+        release.countDown();
+        ImportJobDto done = awaitFinished("user-1", started.getId());
+        assertEquals(3, done.getRowsSaved());
+        assertFalse(Files.exists(upload));
+    }
+
+    @Test
+    void uploadOverMaxUploadSize_isRejected_andItsSpoolDeleted() throws Exception {
+        PredictionImportProperties cfg = new PredictionImportProperties();
+        cfg.setMaxUploadSize(DataSize.ofBytes(HEADER.length() + 20));
+        PredictionImport capped = new PredictionImport(mlClient, mongo, Validation.buildDefaultValidatorFactory().getValidator(),
+            activityLogs, cfg, meters);
+        List<Path> before = spools();
+        try {
+            assertThrows(IllegalArgumentException.class,
+                () -> capped.start("user-1", stream(HEADER + "4,3,2,120.5,8\n4,3,2,121,8\n")));
+            assertEquals(before, spools());
+            assertTrue(capped.list("user-1").isEmpty());
+
+            ImportJobDto started = capped.start("user-1", stream(HEADER + "4,3,2,120.5,8\n"));   // under the cap
+            assertEquals(1, awaitFinished(capped, "user-1", started.getId()).getRowsSaved());
+        } finally {
+            capped.destroy();
+        }
+    }
+
+    @Test
+    void headerWithoutRequiredColumns_isRejected_andJobsAreScopedToOwner() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> imports.start("user-1", stream("bedrooms,bathrooms\n3,2\n")));
+        assertTrue(imports.list("user-1").isEmpty());
+        Path rejected = Files.createTempFile("import-test-", ".csv");
+        Files.writeString(rejected, "bedrooms,bathrooms\n");
+        assertThrows(IllegalArgumentException.class, () -> imports.start("user-1", rejected));
+        assertFalse(Files.exists(rejected));
+
+        ImportJobDto started = imports.start("user-1", stream(HEADER));
+        assertTrue(imports.get("user-2", started.getId()).isEmpty());
+        assertEquals(1, imports.list("user-1").size());
+    }
+
+    private ImportJobDto awaitFinished(String ownerId, String jobId) throws InterruptedException {
+        return awaitFinished(imports, ownerId, jobId);
+    }
+
+    private static ImportJobDto awaitFinished(PredictionImport imports, String ownerId, String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobDto job = imports.get(ownerId, jobId).orElseThrow();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("import did not finish");
+    }
+
+    // the import's temp files, so a rejected upload can be shown to leave none behind
+    private static List<Path> spools() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(f -> f.getFileName().toString().startsWith("houseiq-import-")).sorted().toList();
+        }
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<PredictResponseDto> scores(List<Map<String, Object>> items) {
+        return items.stream().map(f -> new PredictResponseDto(1_000_000.0, "v1", null)).toList();
+    }
+
+    // a fresh BulkOperations per chunk that reports every queued document as inserted
+    @SuppressWarnings("unchecked")
+    private static BulkOperations insertAll() {
+        BulkOperations ops = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(ops.insert(anyList())).thenAnswer(inv -> {
+            when(result.getInsertedCount()).thenReturn(((List<Object>) inv.getArgument(0)).size());
+            return ops;
+        });
+        when(ops.execute()).thenReturn(result);
+        return ops;
+    }
+}
@@ -7,15 +7,20 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
  
 import org.springframework.data.domain.PageRequest;
 import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.prediction.dto.BatchPredictionResultDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictionView;
 import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
 import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
 
 class PredictionServiceTest {
@@ -24,13 +29,16 @@ class PredictionServiceTest {
     private MlClient mlClient;
     private ActivityLogService activityLogService;
     private PredictionService service;
+    private SimpleMeterRegistry meters;
 
     @BeforeEach
     void setUp() {
         repo = mock(PredictionRepository.class);
         mlClient = mock(MlClient.class);
         activityLogService = mock(ActivityLogService.class);
-        service = new PredictionService(repo, mlClient, activityLogService);
+        meters = new SimpleMeterRegistry();
+        service = new PredictionService(repo, mlClient, activityLogService,
+            Validation.buildDefaultValidatorFactory().getValidator(), mock(PredictionExport.class), meters);
     }
 
     @Test
@@ -51,7 +59,7 @@ class PredictionServiceTest {
         Prediction saved = Prediction.builder()
             .id("abc123")
             .ownerId("user-1")
-            .features(Map.of())
+            .features(new PropertyFeatures(3, 2, 120.5, 8, 4))
             .predictedPrice(250000.0)
             .modelVersion("v1")
             .explanations(Map.of("area_sqm", 0.6))
@@ -68,8 +76,68 @@ class PredictionServiceTest {
         assertEquals("v1", dto.getModel_version());
 
         verify(mlClient).predict(anyMap());
-        verify(repo).save(any(Prediction.class));
+        verify(repo).save(argThat(p -> Map.of("area_sqm", 0.6).equals(p.getTopExplanations())));    // stored for the history listings
         verify(activityLogService).record(eq("user-1"), eq("PREDICTION_CREATED"), anyMap());
+        assertEquals(1, meters.get("houseiq.prediction.service")
+            .tags("method", "create", "outcome", "success", "model_version", "v1").timer().count());
+    }
+
+    @Test
+    void createPrediction_mlFailure_isTimedAsError() {
+        when(mlClient.predict(any())).thenThrow(new RuntimeException("ML service error: 500"));
+        PredictRequestDto req = PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
+
+        assertThrows(RuntimeException.class, () -> service.createPrediction("user-1", req));
+
+        assertEquals(1, meters.get("houseiq.prediction.service")
+            .tags("method", "create", "outcome", "error", "model_version", "none").timer().count());
+        verify(repo, never()).save(any(Prediction.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createBatch_scoresValidItemsOnce_andReportsInvalidRows() {
+        PredictRequestDto ok1 = PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
+        PredictRequestDto bad = PredictRequestDto.builder().bedrooms(9).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
+        PredictRequestDto ok2 = PredictRequestDto.builder().bedrooms(2).bathrooms(1).area_sqm(80.0).age_years(5).location_index(3).build();
+
+        when(mlClient.predictBatch(anyList())).thenReturn(List.of(
+            new PredictResponseDto(100.0, "v1", null),
+            new PredictResponseDto(200.0, "v1", null)));
+        when(repo.insert(anyList())).thenAnswer(inv -> {
+            List<Prediction> toSave = inv.getArgument(0);
+            for (int i = 0; i < toSave.size(); i++) toSave.get(i).setId("id-" + i);
+            return toSave;
+        });
+
+        BatchPredictionResultDto res = service.createBatch("user-1", List.of(ok1, bad, ok2));
+
+        assertEquals(3, res.getRequested());
+        assertEquals(2, res.getSucceeded());
+        assertEquals(1, res.getFailed());
+        assertEquals("CREATED", res.getResults().get(0).getStatus());
+        assertEquals(100.0, res.getResults().get(0).getPrediction().getPredicted_price());
+        assertEquals("INVALID", res.getResults().get(1).getStatus());
+        assertTrue(res.getResults().get(1).getError().startsWith("bedrooms"));
+        assertEquals("id-1", res.getResults().get(2).getPrediction().getId());
+
+        verify(mlClient, times(1)).predictBatch(argThat(l -> l.size() == 2));
+        verify(repo, times(1)).insert(anyList());
+        verify(repo, never()).save(any(Prediction.class));
+        verify(activityLogService, times(1)).record(eq("user-1"), eq("PREDICTION_BATCH_CREATED"), anyMap());
+    }
+
+    @Test
+    void createBatch_mlFailure_marksItemsFailed_withoutWrites() {
+        PredictRequestDto ok = PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(120.5).age_years(8).location_index(4).build();
+        when(mlClient.predictBatch(anyList())).thenThrow(new RuntimeException("ML service error: connection refused"));
+
+        BatchPredictionResultDto res = service.createBatch("user-1", List.of(ok, ok));
+
+        assertEquals(0, res.getSucceeded());
+        assertEquals(2, res.getFailed());
+        assertEquals("FAILED", res.getResults().get(1).getStatus());
+        verify(repo, never()).insert(anyList());
     }
 
     @Test
@@ -83,6 +151,20 @@ class PredictionServiceTest {
         verify(activityLogService).record(eq("user-1"), eq("PREDICTION_LISTED"), anyMap());
     }
 
+    @Test
+    void listViews_usesProjectedQuery_andServesTheStoredTopFactors() {
+        Prediction row = Prediction.builder().id("p1").predictedPrice(1_850_000.0).modelVersion("v1").createdAt(Instant.now())
+            .features(new PropertyFeatures(3, 2, 120.5, 8, 4))
+            .topExplanations(PredictionView.top(Map.of("area_sqm", 0.41, "location_index", 0.27, "bedrooms", 0.14, "bathrooms", 0.1, "age_years", 0.08)))
+            .build();
+        when(repo.findViewsByOwnerId(eq("user-1"), any(PageRequest.class))).thenReturn(List.of(row));
+
+        List<PredictionView> result = service.listViews("user-1", 0, 10);
+        assertEquals(List.of("area_sqm", "location_index", "bedrooms"), List.copyOf(result.get(0).explanations().keySet()));
+        verify(repo, never()).findByOwnerIdOrderByCreatedAtDesc(any(), any());
+        verify(activityLogService).record(eq("user-1"), eq("PREDICTION_LISTED"), argThat(d -> "summary".equals(d.get("view"))));
+    }
+
     @Test
     void get_filtersByOwner_andLogsWhenPresent() {
         Prediction p = Prediction.builder().id("x").ownerId("user-1").build();
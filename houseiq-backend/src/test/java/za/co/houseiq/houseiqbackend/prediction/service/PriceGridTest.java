@@ -0,0 +1,62 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PriceGridTest {
+
+    // same layout as build_price_grid.py write_grid: one integer axis (bedrooms 1..2), area 50..70 step 10
+    private static PriceGrid grid() {
+        ByteBuffer b = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("HQPG".getBytes(StandardCharsets.US_ASCII)).putInt(1);
+        putString(b, "rf-test");
+        b.putInt(1);
+        putString(b, "area_sqm");
+        b.putDouble(0.4);
+        b.putInt(1);
+        putString(b, "bedrooms");
+        b.putInt(1).putInt(2);
+        b.putDouble(50).putDouble(10).putInt(3);
+        b.position((b.position() + 7) & ~7);
+        for (float p : new float[] {1000, 1010, 2000, 3000, 3010, 3020}) b.putFloat(p);
+        return PriceGrid.read(b.flip());
+    }
+
+    private static void putString(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        b.putInt(bytes.length).put(bytes);
+    }
+
+    @Test
+    void lookup_interpolatesOnArea() {
+        PriceGrid g = grid();
+
+        assertEquals("rf-test", g.modelVersion());
+        assertEquals(Map.of("area_sqm", 0.4), g.explanations());
+        assertEquals(6, g.cells());
+        assertEquals(1005, g.lookup(Map.of("bedrooms", 1, "area_sqm", 55.0), 0.02), 1e-9);
+        assertEquals(3015, g.lookup(Map.of("bedrooms", 2, "area_sqm", 65), 0.02), 1e-9);
+        assertEquals(2000, g.lookup(Map.of("bedrooms", 1, "area_sqm", 70), 0.02));     // exact sample, no neighbour check
+    }
+
+    @Test
+    void lookup_returnsNaNWhenNeighboursAreTooFarApart() {
+        assertTrue(Double.isNaN(grid().lookup(Map.of("bedrooms", 1, "area_sqm", 65), 0.02)));
+    }
+
+    @Test
+    void lookup_returnsNaNOutsideTheGrid() {
+        PriceGrid g = grid();
+
+        assertTrue(Double.isNaN(g.lookup(Map.of("bedrooms", 3, "area_sqm", 55), 0.02)));
+        assertTrue(Double.isNaN(g.lookup(Map.of("bedrooms", 1, "area_sqm", 45), 0.02)));
+        assertTrue(Double.isNaN(g.lookup(Map.of("bedrooms", 1, "area_sqm", 71), 0.02)));
+        assertTrue(Double.isNaN(g.lookup(Map.of("bedrooms", 1.5, "area_sqm", 55), 0.02)));
+        assertTrue(Double.isNaN(g.lookup(Map.of("area_sqm", 55), 0.02)));
+    }
+}
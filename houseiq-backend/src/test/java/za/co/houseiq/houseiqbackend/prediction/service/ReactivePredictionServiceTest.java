@@ -0,0 +1,69 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.activity.ReactiveActivityLogService;
+import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.repo.ReactivePredictionRepository;
+
+class ReactivePredictionServiceTest {
+
+    private ReactivePredictionRepository repo;
+    private MlClient mlClient;
+    private ReactiveActivityLogService activityLogService;
+    private ReactivePredictionService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ReactivePredictionRepository.class);
+        mlClient = mock(MlClient.class);
+        activityLogService = mock(ReactiveActivityLogService.class);
+        when(activityLogService.record(anyString(), anyString(), anyMap())).thenReturn(Mono.empty());
+        service = new ReactivePredictionService(repo, mlClient, activityLogService, mock(PredictionExport.class));
+    }
+
+    @Test
+    void createPrediction_usesNonBlockingMlCall_andSaves() {
+        PredictRequestDto req = new PredictRequestDto();
+        req.setBedrooms(3);
+        req.setBathrooms(2);
+        req.setArea_sqm(120.5);
+        req.setAge_years(8);
+        req.setLocation_index(4);
+
+        when(mlClient.predictAsync(anyMap()))
+            .thenReturn(Mono.just(new PredictResponseDto(250000.0, "v1", Map.of("area_sqm", 0.6))));
+        when(repo.save(any(Prediction.class)))
+            .thenAnswer(inv -> {
+                Prediction p = inv.getArgument(0);
+                p.setId("abc123");
+                return Mono.just(p);
+            });
+
+        CreatePredictionDto dto = service.createPrediction("user-1", req).block();
+
+        assertEquals("abc123", dto.getId());
+        assertEquals(250000.0, dto.getPredicted_price());
+        assertEquals("v1", dto.getModel_version());
+        verify(mlClient, never()).predict(anyMap());
+        verify(activityLogService).record(eq("user-1"), eq("PREDICTION_CREATED"), anyMap());
+    }
+
+    @Test
+    void get_otherOwnersPrediction_isEmpty() {
+        Prediction p = Prediction.builder().id("p1").ownerId("someone-else").createdAt(Instant.now()).build();
+        when(repo.findById("p1")).thenReturn(Mono.just(p));
+
+        assertNull(service.get("user-1", "p1").block());
+        verify(activityLogService, never()).record(anyString(), anyString(), anyMap());
+    }
+}
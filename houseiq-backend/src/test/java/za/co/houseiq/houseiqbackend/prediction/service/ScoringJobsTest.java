@@ -0,0 +1,159 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.config.ScoringJobProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.ScoringJobRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob.Status;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+
+@DataMongoTest
+@Testcontainers
+class ScoringJobsTest {
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7"));
+
+    @DynamicPropertySource
+    static void mongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getConnectionString);
+        registry.add("spring.data.mongodb.database", () -> "houseiq_jobs");
+    }
+
+    @Autowired MongoTemplate template;
+    @Autowired PredictionRepository predictions;
+
+    private ScoringJobProperties props;
+    private ScoringJobs jobs;
+
+    @BeforeEach
+    void setUp() {
+        template.dropCollection(ScoringJob.class);
+        props = new ScoringJobProperties();
+        props.setLeaseDuration(Duration.ofSeconds(60));
+        props.setMaxErrors(3);
+        jobs = new ScoringJobs(template, predictions, Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(ActivityLogService.class), props);
+    }
+
+    @Test
+    void concurrentClaims_handOutEachJobOnce() throws Exception {
+        jobs.submit("user-1", items(3));
+        Instant now = Instant.now();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Callable<ScoringJob>> claims = IntStream.range(0, 8)
+            .<Callable<ScoringJob>>mapToObj(i -> () -> jobs.claim("worker-" + i, now)).toList();
+
+        List<ScoringJob> claimed = pool.invokeAll(claims).stream().map(ScoringJobsTest::join).filter(Objects::nonNull).toList();
+        pool.shutdown();
+
+        assertEquals(1, claimed.size());
+        assertEquals(Status.RUNNING, claimed.get(0).getStatus());
+        assertNull(claimed.get(0).getItems());              // items stay in Mongo until a chunk asks for them
+    }
+
+    @Test
+    void expiredLease_isReclaimed_andTheOldWorkerIsFencedOff() {
+        jobs.submit("user-1", items(3));
+        Instant t0 = Instant.now();
+        ScoringJob a = jobs.claim("worker-a", t0);
+
+        assertNull(jobs.claim("worker-b", t0.plusSeconds(30)));
+        ScoringJob b = jobs.claim("worker-b", t0.plusSeconds(61));
+
+        assertEquals(a.getId(), b.getId());
+        assertEquals(2, b.getAttempts());
+        assertEquals(a.getStartedAt().toEpochMilli(), b.getStartedAt().toEpochMilli());
+        assertFalse(jobs.renew(a.getId(), "worker-a", t0.plusSeconds(62)));
+        assertNull(jobs.next(a, "worker-a", 2, t0.plusSeconds(62)));
+    }
+
+    @Test
+    void chunksAreSliced_progressIsKept_andFinishingDropsTheItems() {
+        ScoringJobDto submitted = jobs.submit("user-1", items(3));
+        ScoringJob job = jobs.claim("worker-a", Instant.now());
+
+        assertEquals(2, jobs.next(job, "worker-a", 2, Instant.now()).getItems().size());
+        job.setProcessed(2);
+        List<ScoringJob.ItemError> errors = IntStream.range(0, 5).mapToObj(i -> new ScoringJob.ItemError(i, null, "boom")).toList();
+        assertTrue(jobs.progress(job, "worker-a", 0, 5, errors, Instant.now()));
+        assertEquals(1, jobs.next(job, "worker-a", 2, Instant.now()).getItems().size());
+
+        jobs.finish(job, "worker-a", Status.COMPLETED, null, Instant.now());
+
+        ScoringJob stored = template.findById(submitted.getId(), ScoringJob.class);
+        assertEquals(Status.COMPLETED, stored.getStatus());
+        assertNull(stored.getItems());
+        assertNotNull(stored.getExpiresAt());
+        assertEquals(3, stored.getErrors().size());         // max-errors
+        assertEquals(5, stored.getFailed());
+    }
+
+    @Test
+    void cancel_stopsQueuedJobsAtOnce_andFlagsRunningOnes() {
+        ScoringJobDto queued = jobs.submit("user-1", items(1));
+        assertEquals("CANCELLED", jobs.cancel("user-1", queued.getId()).orElseThrow().getStatus());
+
+        ScoringJobDto running = jobs.submit("user-1", items(1));
+        jobs.claim("worker-a", Instant.now());
+        ScoringJobDto flagged = jobs.cancel("user-1", running.getId()).orElseThrow();
+        assertEquals("RUNNING", flagged.getStatus());
+        assertTrue(flagged.isCancelRequested());
+
+        assertTrue(jobs.cancel("user-2", running.getId()).isEmpty());
+    }
+
+    @Test
+    void invalidItem_rejectsTheWholeSubmission() {
+        ScoringJobRequestDto req = items(2);
+        req.getItems().get(1).setBedrooms(9);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> jobs.submit("user-1", req));
+        assertTrue(e.getMessage().startsWith("items[1].bedrooms"), e.getMessage());
+        assertEquals(0, template.count(new Query(), ScoringJob.class));
+    }
+
+    private static ScoringJobRequestDto items(int n) {
+        List<PredictRequestDto> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            items.add(PredictRequestDto.builder().bedrooms(3).bathrooms(2).area_sqm(100 + i).age_years(8).location_index(4).build());
+        }
+        return ScoringJobRequestDto.builder().items(items).build();
+    }
+
+    private static <T> T join(Future<T> f) {
+        try {
+            return f.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package za.co.houseiq.houseiqbackend.prediction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import za.co.houseiq.houseiqbackend.config.ScoringJobProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob;
+import za.co.houseiq.houseiqbackend.prediction.model.ScoringJob.Status;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+
+class ScoringWorkersTest {
+
+    private static final Map<String, Object> FEATURES = Map.of("bedrooms", 3, "bathrooms", 2, "area_sqm", 120.5, "age_years", 8, "location_index", 4);
+
+    private ScoringJobs jobs;
+    private MlClient mlClient;
+    private PredictionRepository repo;
+    private MongoTemplate mongo;
+    private BulkOperations bulk;
+    private SimpleMeterRegistry meters;
+    private ScoringWorkers workers;
+
+    @BeforeEach
+    void setUp() {
+        jobs = mock(ScoringJobs.class);
+        mlClient = mock(MlClient.class);
+        repo = mock(PredictionRepository.class);
+        mongo = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, Prediction.class)).thenReturn(bulk);
+        meters = new SimpleMeterRegistry();
+        ScoringJobProperties cfg = new ScoringJobProperties();
+        cfg.setWorkers(0);                                  // process() is driven by the test
+        cfg.setChunkSize(2);
+        cfg.setHeartbeatInterval(Duration.ofHours(1));
+        workers = new ScoringWorkers(jobs, mlClient, repo, mongo, cfg, meters);
+        workers.start();
+
+        when(mlClient.predictBatch(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).stream()
+            .map(f -> new PredictResponseDto(1_000_000.0, "v1", null)).toList());
+        when(jobs.renew(anyString(), anyString(), any())).thenReturn(true);
+        when(jobs.progress(any(), anyString(), anyLong(), anyLong(), anyList(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        workers.destroy();
+    }
+
+    @Test
+    void itemsJob_isScoredChunkByChunk_andCompleted() {
+        ScoringJob job = job(ScoringJob.Kind.ITEMS, 1);
+        List<Long> offsets = new ArrayList<>();
+        when(jobs.next(same(job), anyString(), eq(2), any())).thenAnswer(inv -> {
+            offsets.add(job.getProcessed());
+            int left = (int) Math.min(2, 3 - job.getProcessed());
+            return ScoringJob.builder().items(Collections.nCopies(left, FEATURES)).build();
+        });
+
+        workers.process(job);
+
+        assertEquals(List.of(0L, 2L, 3L), offsets);
+        verify(repo, times(2)).insert(anyList());
+        verify(jobs, times(2)).progress(same(job), anyString(), anyLong(), eq(0L), anyList(), any());
+        verify(jobs).finish(same(job), anyString(), eq(Status.COMPLETED), isNull(), any());
+        assertEquals(3.0, meters.get("houseiq.scoring.rows").tag("outcome", "saved").counter().count());
+    }
+
+    @Test
+    void mlFailure_recordsTheChunkAsFailed_andMovesOn() {
+        ScoringJob job = job(ScoringJob.Kind.ITEMS, 1);
+        when(mlClient.predictBatch(anyList())).thenThrow(new RuntimeException("ML service error: timeout"));
+        when(jobs.next(same(job), anyString(), anyInt(), any())).thenAnswer(inv ->
+            ScoringJob.builder().items(job.getProcessed() == 0 ? List.of(FEATURES, FEATURES) : List.of()).build());
+
+        workers.process(job);
+
+        verify(repo, never()).insert(anyList());
+        verify(jobs).progress(same(job), anyString(), eq(0L), eq(2L), argThat(errors -> errors.size() == 2), any());
+        verify(jobs).finish(same(job), anyString(), eq(Status.COMPLETED), isNull(), any());
+    }
+
+    @Test
+    void revalueJob_updatesOnlyTheScoredFields_inOneBulkPerPage() {
+        ScoringJob job = job(ScoringJob.Kind.REVALUE, 1);
+        when(jobs.next(same(job), anyString(), anyInt(), any())).thenReturn(ScoringJob.builder().build());
+        when(repo.findByOwnerIdOrderByCreatedAtDescIdDesc(eq("user-1"), any())).thenReturn(List.of(stored(), stored()));
+        when(repo.findPageAfter(eq("user-1"), any(), any(), any())).thenReturn(List.of());
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 2, 0, 2, List.of(), List.of()));
+
+        workers.process(job);
+
+        verify(bulk, times(2)).updateOne(any(Query.class), argThat((Update u) -> {
+            Document set = u.getUpdateObject().get("$set", Document.class);
+            return set.keySet().equals(Set.of("predictedPrice", "modelVersion", "explanations", "topExplanations", "updatedAt"))
+                && u.getUpdateObject().get("$inc", Document.class).get("version").equals(1);
+        }));
+        verify(bulk).execute();
+        verify(repo, never()).saveAll(anyIterable());
+        verify(jobs).progress(same(job), anyString(), eq(2L), eq(0L), anyList(), any());
+        verify(jobs).finish(same(job), anyString(), eq(Status.COMPLETED), isNull(), any());
+    }
+
+    @Test
+    void cancelRequested_stopsBeforeScoring() {
+        ScoringJob job = job(ScoringJob.Kind.ITEMS, 1);
+        when(jobs.next(same(job), anyString(), anyInt(), any())).thenReturn(ScoringJob.builder().cancelRequested(true).build());
+
+        workers.process(job);
+
+        verifyNoInteractions(mlClient, repo);
+        verify(jobs).finish(same(job), anyString(), eq(Status.CANCELLED), isNull(), any());
+    }
+
+    @Test
+    void leaseLostBeforeTheWrite_leavesTheChunkToTheNewOwner() {
+        ScoringJob job = job(ScoringJob.Kind.ITEMS, 1);
+        when(jobs.next(same(job), anyString(), anyInt(), any())).thenReturn(ScoringJob.builder().items(List.of(FEATURES)).build());
+        when(jobs.renew(anyString(), anyString(), any())).thenReturn(false);
+
+        workers.process(job);
+
+        verify(repo, never()).insert(anyList());
+        verify(jobs, never()).progress(any(), anyString(), anyLong(), anyLong(), anyList(), any());
+        verify(jobs, never()).finish(any(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void jobAbandonedTooOften_isFailed() {
+        ScoringJob job = job(ScoringJob.Kind.ITEMS, 4);
+
+        workers.process(job);
+
+        verify(jobs).finish(same(job), anyString(), eq(Status.FAILED), contains("abandoned"), any());
+        verifyNoInteractions(mlClient);
+        assertEquals(1.0, meters.get("houseiq.scoring.reclaimed").counter().count());
+    }
+
+    private static Prediction stored() {
+        return Prediction.builder().id(new ObjectId().toHexString()).ownerId("user-1")
+            .features(PropertyFeatures.fromMap(FEATURES)).predictedPrice(900_000.0).modelVersion("v0")
+            .createdAt(Instant.now()).version(3).build();
+    }
+
+    private static ScoringJob job(ScoringJob.Kind kind, int attempts) {
+        return ScoringJob.builder().id("job-1").ownerId("user-1").kind(kind).status(Status.RUNNING).total(3).attempts(attempts).build();
+    }
+}
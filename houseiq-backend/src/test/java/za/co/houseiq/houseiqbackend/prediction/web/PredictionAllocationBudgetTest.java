@@ -0,0 +1,140 @@
+package za.co.houseiq.houseiqbackend.prediction.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogRepository;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogService;
+import za.co.houseiq.houseiqbackend.common.activity.ActivityLogWriter;
+import za.co.houseiq.houseiqbackend.config.ActivityWriterProperties;
+import za.co.houseiq.houseiqbackend.config.MlClientProperties;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictResponseDto;
+import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.repo.PredictionRepository;
+import za.co.houseiq.houseiqbackend.prediction.service.MlClientFixture;
+
+// allocation budget of POST /api/predictions: bytes allocated on the request thread (ThreadMXBean) from
+// request JSON through validation, PredictionController, PredictionService and MlClient (default
+// cache, coalescing and circuit breaker, stage timers) to response JSON. The ML service and both
+// repositories are in-process stubs (no Mockito on the path, it allocates per call), every request
+// has new features so each one misses the cache. Raise the budget with -Dhouseiq.alloc.budget.create-prediction=
+//
+// Where the ~10 KB goes (JDK 21, per request): validation ~3.8 KB, response JSON ~2.3 KB, MlClient's
+// miss path ~2 KB (Reactor operators of the coalesced, breaker-protected call, cache key, timers),
+// request JSON ~1.1 KB, the rest of PredictionService ~1.5 KB. The objects our own code adds stay on
+// purpose because together they are under 5% of that:
+// - feature Map (~200 B): the cache key, coalescer key and ML row all read it, and MlClient takes the
+//   same map from single, batch, import and reactive callers
+// - JSON payload map: only the JSON fallback (/predict) wraps the features in one; the default binary
+//   wire writes the row straight from the feature map
+// - activity details Map (~160 B): it is the stored details document; the entry goes to the writer
+//   queue, so it escapes
+// - Prediction and CreatePredictionDto: the saved entity and the response body; the DTO only copies
+//   references (one ~40 B object)
+// The budget leaves ~15% over the measurement for JIT and JDK differences.
+class PredictionAllocationBudgetTest {
+
+    static final long BUDGET_BYTES = Long.getLong("houseiq.alloc.budget.create-prediction", 12_000);
+
+    private static final int WARMUP = 20_000;                   // enough for C2 and its escape analysis
+    private static final int ROUNDS = 5;
+    private static final int CALLS = 2_000;
+    private static final Map<String, Double> EXPLANATIONS =
+        Map.of("area_sqm", 0.41, "location_index", 0.27, "bedrooms", 0.14, "bathrooms", 0.1, "age_years", 0.08);
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();    // as Spring Boot configures it
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final Authentication auth = new UsernamePasswordAuthenticationToken("user-1", null, List.of());
+    private ActivityLogWriter writer;
+    private PredictionController controller;
+
+    @BeforeEach
+    void setUp() {
+        MlClientProperties props = new MlClientProperties();
+        var meters = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);      // the stage timers' histograms as deployed
+        PredictionRepository predictions = stub(PredictionRepository.class, "save", p -> {
+            ((Prediction) p).setId(new ObjectId().toHexString());      // what the Mongo driver does on insert
+            return p;
+        });
+        writer = new ActivityLogWriter(stub(ActivityLogRepository.class, "insert", batch -> batch), new ActivityWriterProperties(), meters);
+        var service = MlClientFixture.with(props).meters(meters)
+            .predict(features -> Mono.just(new PredictResponseDto(1_000_000.0 + features.hashCode() % 1000, "v1", EXPLANATIONS)))
+            .predictionService(predictions, new ActivityLogService(null, writer, null), validator);
+        controller = new PredictionController(service, null);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writer.destroy();
+    }
+
+    @Test
+    void createPrediction_staysWithinAllocationBudget() throws Exception {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM cannot count allocated bytes per thread");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        byte[][] bodies = new byte[WARMUP + ROUNDS * CALLS][];  // built up front, each one a cache miss
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = ("{\"bedrooms\":3,\"bathrooms\":2,\"area_sqm\":" + (40 + i / 100.0) + ",\"age_years\":8,\"location_index\":4}")
+                .getBytes(StandardCharsets.UTF_8);
+        }
+        int next = 0;
+        while (next < WARMUP) {
+            post(bodies[next++]);
+        }
+
+        long best = Long.MAX_VALUE;                             // least noisy round: GC and JIT activity only add
+        for (int r = 0; r < ROUNDS; r++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < CALLS; i++) {
+                post(bodies[next++]);
+            }
+            best = Math.min(best, (threads.getCurrentThreadAllocatedBytes() - before) / CALLS);
+        }
+        assertTrue(best <= BUDGET_BYTES, "createPrediction allocates " + best + " bytes per request, budget is " + BUDGET_BYTES);
+    }
+
+    // what the servlet stack does around the controller: Jackson reads the body stream, @Valid, Jackson
+    // writes into the response stream
+    private void post(byte[] body) throws IOException {
+        PredictRequestDto req = json.readValue(new ByteArrayInputStream(body), PredictRequestDto.class);
+        assertTrue(validator.validate(req).isEmpty());
+        json.writeValue(OutputStream.nullOutputStream(), controller.create(auth, req));
+    }
+
+    // a repository that implements one method; anything else the path starts calling fails the test
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, String method, java.util.function.UnaryOperator<Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return answer.apply(args[0]);
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + m.getName());
+        });
+    }
+}
@@ -4,14 +4,18 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.Authentication;
+import za.co.houseiq.houseiqbackend.common.PageResponse;
+import za.co.houseiq.houseiqbackend.prediction.dto.BatchPredictionResultDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.CreatePredictionDto;
+import za.co.houseiq.houseiqbackend.prediction.dto.PredictBatchRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.dto.PredictRequestDto;
 import za.co.houseiq.houseiqbackend.prediction.model.Prediction;
+import za.co.houseiq.houseiqbackend.prediction.model.PropertyFeatures;
+import za.co.houseiq.houseiqbackend.prediction.service.PredictionImport;
 import za.co.houseiq.houseiqbackend.prediction.service.PredictionService;
 
 class PredictionControllerUnitTest {
@@ -22,7 +26,7 @@ class PredictionControllerUnitTest {
     @BeforeEach
     void setUp() {
         service = mock(PredictionService.class);
-        controller = new PredictionController(service);
+        controller = new PredictionController(service, mock(PredictionImport.class));
     }
 
     private Authentication auth(String principal) {
@@ -42,17 +46,44 @@ class PredictionControllerUnitTest {
         verify(service).createPrediction(eq("user-1"), eq(req));
     }
 
+    @Test
+    void createBatch_delegatesToService() {
+        List<PredictRequestDto> items = List.of(new PredictRequestDto(), new PredictRequestDto());
+        BatchPredictionResultDto dto = BatchPredictionResultDto.builder().requested(2).succeeded(2).build();
+        when(service.createBatch(eq("user-1"), any())).thenReturn(dto);
+
+        var result = controller.createBatch(auth("user-1"), new PredictBatchRequestDto(items));
+        assertEquals(2, result.getSucceeded());
+        verify(service).createBatch("user-1", items);
+    }
+
     @Test
     void list_delegatesToService() {
-        when(service.list("user-1", 0, 20)).thenReturn(List.of());
+        when(service.listViews("user-1", 0, 20)).thenReturn(List.of());
         var res = controller.list(auth("user-1"), 0, 20);
         assertNotNull(res);
+        verify(service).listViews("user-1", 0, 20);
+    }
+
+    @Test
+    void listFull_returnsWholePredictions() {
+        when(service.list("user-1", 0, 20)).thenReturn(List.of());
+        assertNotNull(controller.listFull(auth("user-1"), 0, 20));
         verify(service).list("user-1", 0, 20);
+        verify(service, never()).listViews(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void page_delegatesToService() {
+        when(service.pageViews("user-1", "abc", 20)).thenReturn(new PageResponse<>(List.of(), null));
+        var res = controller.page(auth("user-1"), "abc", 20);
+        assertNull(res.getNextCursor());
+        verify(service).pageViews("user-1", "abc", 20);
     }
 
     @Test
     void get_returnsEntityOrThrows() {
-        Prediction p = Prediction.builder().id("p1").ownerId("user-1").features(Map.of()).build();
+        Prediction p = Prediction.builder().id("p1").ownerId("user-1").features(new PropertyFeatures(3, 2, 120.5, 8, 4)).build();
         when(service.get("user-1", "p1")).thenReturn(Optional.of(p));
         var res = controller.get(auth("user-1"), "p1");
         assertEquals("p1", res.getId());
@@ -51,6 +51,16 @@ export interface Prediction {
   version: number;
 }
 
+// default row shape of GET /predictions (?view=full returns Prediction)
+export interface PredictionSummary {
+  id: string;
+  predictedPrice: number;
+  modelVersion: string;
+  createdAt: string;
+  features: Record<string, any>; // key features only
+  explanations?: Record<string, number>; // top 3 factors
+}
+
 export interface CreatePredictionResponse {
   id: string;
   features: Record<string, any>;
@@ -212,7 +222,7 @@ export const predictionAPI = {
     return response.json();
   },
 
-  async getPredictions(page: number = 0, size: number = 20): Promise<Prediction[]> {
+  async getPredictions(page: number = 0, size: number = 20): Promise<PredictionSummary[]> {
     const response = await authFetch(
       `${API_BASE_URL}/predictions?page=${page}&size=${size}`
     );
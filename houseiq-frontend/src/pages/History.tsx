@@ -1,7 +1,7 @@
 import { Box, Heading, Text, VStack, HStack, Button, Spinner, Center, useToast } from "@chakra-ui/react";
 import { useNavigate } from "react-router-dom";
 import { useState, useEffect } from "react";
-import { predictionAPI, Prediction } from "../api/client";
+import { predictionAPI, PredictionSummary } from "../api/client";
 import Navbar from "../components/Navbar";
 import AnimatedBackground from "../components/AnimatedBackground";
 import RealEstateTipsFeed from "../components/RealEstateTipsFeed";
@@ -9,7 +9,7 @@ import RealEstateTipsFeed from "../components/RealEstateTipsFeed";
 export default function HistoryPage() {
   const navigate = useNavigate();
   const toast = useToast();
-  const [predictions, setPredictions] = useState<Prediction[]>([]);
+  const [predictions, setPredictions] = useState<PredictionSummary[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [deletingId, setDeletingId] = useState<string | null>(null);
 
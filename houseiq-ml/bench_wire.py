@@ -0,0 +1,85 @@
+# bench_wire.py
+# Compares the JSON and the compact f64le wire format (see /predict/bin in main.py) against a
+# running ML service: request/response payload bytes and end-to-end latency, client encoding and
+# decoding included, for a single row and for batches. Standard library only.
+#
+#   python bench_wire.py --url http://localhost:8000 --rounds 200
+from __future__ import annotations
+import argparse, json, random, struct, time
+import urllib.request
+
+JSON_TYPE = "application/json"
+WIRE_TYPE = "application/x-houseiq-f64le"
+
+
+def post(url: str, body: bytes, content_type: str) -> bytes:
+    req = urllib.request.Request(url, data=body, headers={"Content-Type": content_type})
+    with urllib.request.urlopen(req, timeout=60) as res:
+        return res.read()
+
+
+def sample_rows(n: int, rnd: random.Random) -> list[dict]:
+    return [{
+        "bedrooms": rnd.randint(1, 7),
+        "bathrooms": rnd.randint(1, 5),
+        "area_sqm": round(rnd.uniform(30, 600), 1),
+        "age_years": rnd.randint(0, 120),
+        "location_index": rnd.randint(0, 10),
+    } for _ in range(n)]
+
+
+def call_json(base: str, rows: list[dict]) -> tuple[int, int]:
+    if len(rows) == 1:
+        body = json.dumps({"features": rows[0]}).encode()
+        res = post(base + "/predict", body, JSON_TYPE)
+        json.loads(res)["predicted_price"]
+    else:
+        body = json.dumps({"items": rows}).encode()
+        res = post(base + "/predict/batch", body, JSON_TYPE)
+        [r["predicted_price"] for r in json.loads(res)["predictions"]]
+    return len(body), len(res)
+
+
+def call_binary(base: str, order: list[str], rows: list[dict]) -> tuple[int, int]:
+    body = struct.pack("<%dd" % (len(rows) * len(order)), *(float(r[f]) for r in rows for f in order))
+    res = post(base + "/predict/bin", body, WIRE_TYPE)
+    struct.unpack("<%dd" % len(rows), res)
+    return len(body), len(res)
+
+
+def measure(fn, rounds: int) -> tuple[int, int, float, float]:
+    fn()                                                      # warm up the connection and model
+    times = []
+    for _ in range(rounds):
+        t0 = time.perf_counter()
+        sent, received = fn()
+        times.append(time.perf_counter() - t0)
+    times.sort()
+    return sent, received, times[len(times) // 2] * 1000, times[int(len(times) * 0.99) - 1] * 1000
+
+
+def main() -> None:
+    ap = argparse.ArgumentParser(description="Compare JSON and f64le ML wire formats")
+    ap.add_argument("--url", default="http://localhost:8000")
+    ap.add_argument("--rounds", type=int, default=200)
+    ap.add_argument("--sizes", default="1,64,1000", help="comma-separated batch sizes")
+    args = ap.parse_args()
+
+    base = args.url.rstrip("/")
+    with urllib.request.urlopen(base + "/health", timeout=10) as res:
+        health = json.loads(res.read())
+    if "f64le" not in health.get("wire_formats", []):
+        raise SystemExit("ML service does not offer the f64le wire format")
+    order = health["features"]
+
+    rnd = random.Random(42)
+    print(f"{'rows':>6} {'format':>7} {'req bytes':>10} {'resp bytes':>11} {'p50 ms':>8} {'p99 ms':>8}")
+    for size in (int(s) for s in args.sizes.split(",")):
+        rows = sample_rows(size, rnd)
+        for name, fn in (("json", lambda: call_json(base, rows)), ("f64le", lambda: call_binary(base, order, rows))):
+            sent, received, p50, p99 = measure(fn, args.rounds)
+            print(f"{size:>6} {name:>7} {sent:>10} {received:>11} {p50:>8.2f} {p99:>8.2f}")
+
+
+if __name__ == "__main__":
+    main()
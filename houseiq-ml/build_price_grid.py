@@ -0,0 +1,124 @@
+# build_price_grid.py
+# Offline builder for the backend's price grid (PriceGrid): scores every
+# bedrooms x bathrooms x age_years x location_index combination, with area_sqm sampled at a fixed
+# step, in bulk against a running ML service (/predict/batch) and writes one binary file tagged
+# with the model version. Standard library only, so it runs next to any deployment.
+#
+#   python build_price_grid.py --url http://localhost:8000 --out price_grid.bin
+from __future__ import annotations
+import argparse, json, struct, sys, time
+import urllib.request
+from array import array
+from concurrent.futures import ThreadPoolExecutor
+from pathlib import Path
+
+GRID_MAGIC = b"HQPG"
+GRID_FORMAT_VERSION = 1
+
+# integer axes in storage order (outermost first) with their inclusive ranges, as validated by main.py
+INT_AXES = [
+    ("bedrooms", 1, 7),
+    ("bathrooms", 1, 5),
+    ("age_years", 0, 120),
+    ("location_index", 0, 10),
+]
+
+
+def post_json(url: str, payload: dict) -> dict:
+    req = urllib.request.Request(url, data=json.dumps(payload).encode(), headers={"Content-Type": "application/json"})
+    with urllib.request.urlopen(req, timeout=120) as res:
+        return json.loads(res.read())
+
+
+def get_json(url: str) -> dict:
+    with urllib.request.urlopen(url, timeout=30) as res:
+        return json.loads(res.read())
+
+
+# Layout (little-endian): magic "HQPG", u32 format version, str model_version,
+# u32 n_explanations, n x (str feature, f64 weight), u32 n_int_axes, n x (str name, i32 min, i32 count),
+# f64 area_min, f64 area_step, u32 area_count, pad to 8 bytes, then f32 prices in row-major order
+# (bedrooms, bathrooms, age_years, location_index, area). Strings are u32 byte length + UTF-8.
+def write_grid(path: Path, model_version: str, explanations: dict, area_min: float, area_step: float,
+               area_count: int, prices: array) -> None:
+    def put_str(buf: bytearray, s: str):
+        b = s.encode("utf-8")
+        buf += struct.pack("<I", len(b)) + b
+
+    head = bytearray(GRID_MAGIC)
+    head += struct.pack("<I", GRID_FORMAT_VERSION)
+    put_str(head, model_version)
+    head += struct.pack("<I", len(explanations))
+    for k, v in explanations.items():
+        put_str(head, k)
+        head += struct.pack("<d", float(v))
+    head += struct.pack("<I", len(INT_AXES))
+    for name, lo, hi in INT_AXES:
+        put_str(head, name)
+        head += struct.pack("<ii", lo, hi - lo + 1)
+    head += struct.pack("<ddI", area_min, area_step, area_count)
+    head += b"\0" * (-len(head) % 8)
+    if prices.itemsize != 4:
+        raise ValueError("prices must be float32")
+    with open(path, "wb") as f:
+        f.write(head)
+        if sys.byteorder == "big":
+            prices.byteswap()
+        prices.tofile(f)
+
+
+def main():
+    ap = argparse.ArgumentParser()
+    ap.add_argument("--url", default="http://localhost:8000")
+    ap.add_argument("--out", type=Path, default=Path("price_grid.bin"))
+    ap.add_argument("--area-min", type=float, default=10.0)
+    ap.add_argument("--area-max", type=float, default=1000.0)
+    ap.add_argument("--area-step", type=float, default=5.0)
+    ap.add_argument("--batch", type=int, default=1000, help="rows per /predict/batch call (service max 1000)")
+    ap.add_argument("--workers", type=int, default=4, help="concurrent batch calls")
+    args = ap.parse_args()
+
+    health = get_json(args.url + "/health")
+    version = health.get("model_version", "unknown")
+    area_count = int(round((args.area_max - args.area_min) / args.area_step)) + 1
+    areas = [args.area_min + i * args.area_step for i in range(area_count)]
+
+    # every (bed, bath, age, loc) combination in storage order, each expanded over the area axis
+    combos = [(b, ba, a, l)
+              for b in range(INT_AXES[0][1], INT_AXES[0][2] + 1)
+              for ba in range(INT_AXES[1][1], INT_AXES[1][2] + 1)
+              for a in range(INT_AXES[2][1], INT_AXES[2][2] + 1)
+              for l in range(INT_AXES[3][1], INT_AXES[3][2] + 1)]
+    total = len(combos) * area_count
+    print(f"model {version}: {len(combos)} combinations x {area_count} areas = {total} cells")
+
+    def row(i: int) -> dict:
+        b, ba, a, l = combos[i // area_count]
+        return {"bedrooms": b, "bathrooms": ba, "area_sqm": areas[i % area_count], "age_years": a, "location_index": l}
+
+    def score(start: int):
+        items = [row(i) for i in range(start, min(start + args.batch, total))]
+        res = post_json(args.url + "/predict/batch", {"items": items})["predictions"]
+        return start, res
+
+    prices = array("f", bytes(4 * total))
+    explanations = None
+    t0 = time.time()
+    done = 0
+    with ThreadPoolExecutor(max_workers=args.workers) as pool:
+        for start, res in pool.map(score, range(0, total, args.batch)):
+            for k, p in enumerate(res):
+                if p["model_version"] != version:
+                    raise SystemExit(f"model changed while building: {p['model_version']} != {version}")
+                prices[start + k] = p["predicted_price"]
+            explanations = explanations or res[0].get("explanations") or {}
+            done += len(res)
+            if done % 500_000 < args.batch:
+                print(f"  {done}/{total} ({time.time() - t0:.0f}s)")
+
+    write_grid(args.out, version, explanations, args.area_min, args.area_step, area_count, prices)
+    print(f"Saved grid to: {args.out} ({args.out.stat().st_size / (1024 * 1024):.1f} MB, {time.time() - t0:.0f}s)")
+
+
+if __name__ == "__main__":
+    main()
@@ -1,16 +1,20 @@
 # main.py
 from __future__ import annotations
 import json
+import zlib
 import os
 from pathlib import Path
-from typing import Dict
+from typing import Dict, List
 
 
 import joblib
+import numpy as np
 import pandas as pd
-from fastapi import FastAPI, HTTPException
+from fastapi import FastAPI, HTTPException, Request, Response
+from starlette.concurrency import run_in_threadpool
 from contextlib import asynccontextmanager
 from fastapi.middleware.cors import CORSMiddleware
+from fastapi.middleware.gzip import GZipMiddleware
 from pydantic import BaseModel, Field, conint, confloat
 
 
@@ -50,6 +54,95 @@ class PredictResponse(BaseModel):
     model_version: str
     explanations: Dict[str, float] | None = None
 
+class BatchPredictRequest(BaseModel):
+    items: List[Features] = Field(..., min_length=1, max_length=1000)
+
+class BatchPredictResponse(BaseModel):
+    predictions: List[PredictResponse]
+
+
+#---------------------------------------------------------------------------------------
+# Compact wire format - little-endian float64 rows ordered like FEATURES_ORDER (see /health)
+#---------------------------------------------------------------------------------------
+
+WIRE_F64LE = "f64le"
+WIRE_MEDIA_TYPE = "application/x-houseiq-f64le"
+MAX_BATCH_ROWS = 1000
+
+# (min, max, integer) per feature, same limits as Features; area_sqm excludes its minimum
+FEATURE_BOUNDS = {
+    "bedrooms": (1, 7, True),
+    "bathrooms": (1, 5, True),
+    "area_sqm": (0, 1000, False),
+    "age_years": (0, 120, True),
+    "location_index": (0, 10, True),
+}
+
+def _decode_rows(body: bytes) -> np.ndarray:
+    width = 8 * len(FEATURES_ORDER)
+    if not body or len(body) % width:
+        raise ValueError(f"body must be a non-empty multiple of {width} bytes")
+    X = np.frombuffer(body, dtype="<f8").reshape(-1, len(FEATURES_ORDER))
+    if len(X) > MAX_BATCH_ROWS:
+        raise ValueError(f"at most {MAX_BATCH_ROWS} rows per request")
+    if not np.isfinite(X).all():
+        raise ValueError("features must be finite numbers")
+    for j, name in enumerate(FEATURES_ORDER):
+        lo, hi, integer = FEATURE_BOUNDS.get(name, (-np.inf, np.inf, False))
+        col = X[:, j]
+        bad = (col > hi) | ((col <= lo) if name == "area_sqm" else (col < lo))
+        if integer:
+            bad |= col != np.floor(col)
+        if bad.any():
+            raise ValueError(f"row {int(np.argmax(bad))}: {name} out of range")
+    return X
+
+
+#---------------------------------------------------------------------------------------
+# Compression - the backend gzips large /predict/batch bodies (ml.http.compress-requests-over)
+#---------------------------------------------------------------------------------------
+
+MAX_INFLATED_BODY = 16 * 1024 * 1024  # a full 1000-item batch is ~100 KB, so anything near this is abuse
+
+class GzipRequestMiddleware:
+    """Inflates request bodies sent with Content-Encoding: gzip before FastAPI parses them."""
+
+    def __init__(self, app):
+        self.app = app
+
+    async def __call__(self, scope, receive, send):
+        if scope["type"] != "http" or dict(scope["headers"]).get(b"content-encoding") != b"gzip":
+            await self.app(scope, receive, send)
+            return
+
+        body, more = b"", True
+        while more:
+            message = await receive()
+            body += message.get("body", b"")
+            more = message.get("more_body", False)
+        try:
+            inflater = zlib.decompressobj(wbits=16 + zlib.MAX_WBITS)
+            data = inflater.decompress(body, MAX_INFLATED_BODY)
+            if inflater.unconsumed_tail:
+                raise ValueError("inflated body too large")
+        except (zlib.error, ValueError) as e:
+            await send({"type": "http.response.start", "status": 400, "headers": [(b"content-type", b"application/json")]})
+            await send({"type": "http.response.body", "body": json.dumps({"detail": f"bad gzip body: {e}"}).encode()})
+            return
+
+        headers = [(k, v) for k, v in scope["headers"] if k not in (b"content-encoding", b"content-length")]
+        headers.append((b"content-length", str(len(data)).encode()))
+        replayed = False
+
+        async def replay():
+            nonlocal replayed
+            if replayed:
+                return await receive()  # only http.disconnect is left
+            replayed = True
+            return {"type": "http.request", "body": data, "more_body": False}
+
+        await self.app(dict(scope, headers=headers), replay, send)
+
 
 #---------------------------------------------------------------------------------------
 # Startup / Lifespan - load model, get meta data
@@ -93,6 +186,8 @@ app.add_middleware(
     allow_methods=["*"],
     allow_headers=["*"],
 )
+app.add_middleware(GzipRequestMiddleware)
+app.add_middleware(GZipMiddleware, minimum_size=32 * 1024)  # large batch responses, when the client accepts gzip
 
 
 #---------------------------------------------------------------------------------------
@@ -106,6 +201,7 @@ def health():
         "model_loaded": MODEL is not None,
         "model_version": MODEL_VERSION,
         "features": FEATURES_ORDER,
+        "wire_formats": ["json", WIRE_F64LE],
     }
 
     
@@ -122,6 +218,13 @@ def _predict_dict(d: Dict[str, float]) -> float:
     y = float(MODEL.predict(df)[0])
     return y # return prediction
 
+# vectorised variant: one DataFrame, one MODEL.predict call for every row
+def _predict_rows(rows: List[Dict[str, float]]) -> List[float]:
+    if MODEL is None:
+        raise RuntimeError("Model not loaded")
+    df = pd.DataFrame(rows)[FEATURES_ORDER]
+    return [float(y) for y in MODEL.predict(df)]
+
 def _compute_explanations(d: Dict[str, float]) -> Dict[str, float]:
     # Prefer provided feature importances; normalize to sum 1.0
     if FEATURE_IMPORTANCES and len(FEATURE_IMPORTANCES) > 0:
@@ -156,8 +259,43 @@ def predict_flat(features: Features):
     except Exception as e:
         raise HTTPException(status_code=400, detail=str(e))
 
+# Batch prediction endpoint, scores every item in a single model call
+# this endpoint expects a JSON with {items: [{x:1,y:2,...}, ...]}
+@app.post("/predict/batch", response_model=BatchPredictResponse)
+def predict_batch(body: BatchPredictRequest):
+    try:
+        rows = [item.model_dump() for item in body.items]
+        ys = _predict_rows(rows)
+        # explanations only depend on the model, compute them once for the whole batch
+        explanations = _compute_explanations(rows[0])
+        return BatchPredictResponse(predictions=[
+            PredictResponse(predicted_price=y, model_version=MODEL_VERSION, explanations=explanations)
+            for y in ys
+        ])
+    except Exception as e:
+        raise HTTPException(status_code=400, detail=str(e))
+
+
+
 
 
+# Compact scoring endpoint for one or many rows, same model call as /predict/batch.
+# Request: n x len(features) little-endian float64 values. Response: n float64 prices, the model
+# version in X-Model-Version and, only with ?explain=true, the explanations as JSON in X-Explanations.
+@app.post("/predict/bin")
+async def predict_bin(request: Request, explain: bool = False):
+    body = await request.body()
+    try:
+        X = _decode_rows(body)
+        if MODEL is None:
+            raise RuntimeError("Model not loaded")
+        ys = await run_in_threadpool(MODEL.predict, pd.DataFrame(X, columns=FEATURES_ORDER))
+    except Exception as e:
+        raise HTTPException(status_code=400, detail=str(e))
+    headers = {"X-Model-Version": MODEL_VERSION}
+    if explain:
+        headers["X-Explanations"] = json.dumps(_compute_explanations({}))
+    return Response(content=np.asarray(ys, dtype="<f8").tobytes(), media_type=WIRE_MEDIA_TYPE, headers=headers)
 
 
 #---------------------------------------------------------------------------------------
@@ -1,5 +1,7 @@
 # houseiq-ml/tests/test_api.py
+import json
 import math
+import struct
 from fastapi.testclient import TestClient  # kept for type awareness in IDEs
 
 def test_health_ok(client: TestClient):
@@ -96,3 +98,51 @@ def test_predict_missing_feature(client: TestClient):
     }
     res = client.post("/predict", json=payload)
     assert res.status_code in (400, 422)
+
+def test_predict_batch_matches_single(client: TestClient):
+    items = [
+        {"bedrooms": 3, "bathrooms": 2, "area_sqm": 120.5, "age_years": 8, "location_index": 4},
+        {"bedrooms": 2, "bathrooms": 1, "area_sqm": 80.0, "age_years": 5, "location_index": 3},
+    ]
+    res = client.post("/predict/batch", json={"items": items})
+    assert res.status_code == 200
+    preds = res.json()["predictions"]
+    assert len(preds) == len(items)
+    for item, pred in zip(items, preds):
+        single = client.post("/predict/flat", json=item).json()
+        assert math.isclose(pred["predicted_price"], single["predicted_price"], rel_tol=1e-9)
+        assert pred["model_version"] == single["model_version"]
+
+def test_predict_batch_rejects_empty(client: TestClient):
+    res = client.post("/predict/batch", json={"items": []})
+    assert res.status_code in (400, 422)
+
+def _f64_rows(client: TestClient, items):
+    order = client.get("/health").json()["features"]
+    return b"".join(struct.pack(f"<{len(order)}d", *(float(item[f]) for f in order)) for item in items)
+
+def test_predict_bin_matches_json_batch(client: TestClient):
+    items = [
+        {"bedrooms": 3, "bathrooms": 2, "area_sqm": 120.5, "age_years": 8, "location_index": 4},
+        {"bedrooms": 2, "bathrooms": 1, "area_sqm": 80.0, "age_years": 5, "location_index": 3},
+    ]
+    assert "f64le" in client.get("/health").json()["wire_formats"]
+    res = client.post("/predict/bin", content=_f64_rows(client, items))
+    assert res.status_code == 200
+    assert "X-Explanations" not in res.headers
+    prices = struct.unpack(f"<{len(items)}d", res.content)
+    expected = client.post("/predict/batch", json={"items": items}).json()["predictions"]
+    for price, pred in zip(prices, expected):
+        assert math.isclose(price, pred["predicted_price"], rel_tol=1e-9)
+        assert res.headers["X-Model-Version"] == pred["model_version"]
+
+def test_predict_bin_explanations_on_request(client: TestClient):
+    item = {"bedrooms": 3, "bathrooms": 2, "area_sqm": 120.5, "age_years": 8, "location_index": 4}
+    res = client.post("/predict/bin?explain=true", content=_f64_rows(client, [item]))
+    assert res.status_code == 200
+    assert math.isclose(sum(json.loads(res.headers["X-Explanations"]).values()), 1.0, rel_tol=1e-6)
+
+def test_predict_bin_rejects_bad_rows(client: TestClient):
+    item = {"bedrooms": 9, "bathrooms": 2, "area_sqm": 120.5, "age_years": 8, "location_index": 4}
+    assert client.post("/predict/bin", content=_f64_rows(client, [item])).status_code == 400
+    assert client.post("/predict/bin", content=b"\0" * 12).status_code == 400
@@ -1,6 +1,6 @@
 # train.py
 from __future__ import annotations
-import argparse, json, time
+import argparse, json, struct, time
 from pathlib import Path
 
 import joblib
@@ -18,6 +18,12 @@ FEATURES = [
 TARGET = "price"
 
 
+# flat forest export read by the backend's in-JVM engine (LocalForestEngine)
+FOREST_MAGIC = b"HQRF"
+FOREST_FORMAT_VERSION = 1
+FIXTURE_VERSION = "rf-fixture-1"
+
+
 # Mean Absolute Percentage Error -> Outputs MAPE
 def mape(y_true, y_pred):
     y_true = np.asarray(y_true)
@@ -77,6 +83,68 @@ def train(data_path: Path, seed: int = 42):
 
 
 
+# Explanation weights exactly as main.py serves them: normalised feature importances from the meta,
+# or equal weights when there are none
+def explanation_weights(features, importances=None):
+    if importances:
+        total = sum(abs(v) for v in importances.values()) or 1.0
+        return {k: abs(importances.get(k, 0.0)) / total for k in features}
+    return {k: 1.0 / len(features) for k in features}
+
+
+# Export: writes a fitted RandomForestRegressor as flat little-endian node arrays.
+# Layout: magic "HQRF", u32 format version, str model_version, u32 n_features, n_features x str name,
+# n_features x f64 explanation weight, u32 n_trees, then per tree: u32 n_nodes and
+# i32 feature[n], f64 threshold[n], i32 left[n], i32 right[n], f64 value[n].
+# Strings are u32 byte length + UTF-8. Leaves keep sklearn's convention: feature -2, children -1.
+def export_forest(model, path: Path, model_version: str, features, explanations) -> None:
+    def put_str(f, s):
+        b = s.encode("utf-8")
+        f.write(struct.pack("<I", len(b)))
+        f.write(b)
+
+    with open(path, "wb") as f:
+        f.write(FOREST_MAGIC)
+        f.write(struct.pack("<I", FOREST_FORMAT_VERSION))
+        put_str(f, model_version)
+        f.write(struct.pack("<I", len(features)))
+        for name in features:
+            put_str(f, name)
+        f.write(np.asarray([explanations[k] for k in features], dtype="<f8").tobytes())
+        f.write(struct.pack("<I", len(model.estimators_)))
+        for est in model.estimators_:
+            t = est.tree_
+            f.write(struct.pack("<I", t.node_count))
+            f.write(t.feature.astype("<i4").tobytes())
+            f.write(t.threshold.astype("<f8").tobytes())
+            f.write(t.children_left.astype("<i4").tobytes())
+            f.write(t.children_right.astype("<i4").tobytes())
+            f.write(t.value[:, 0, 0].astype("<f8").tobytes())    # regressor leaf means
+
+
+# Parity sample: rows and the Python predictions for them, checked by the backend's parity test
+def export_parity(model, data_path: Path, path: Path, model_version: str, seed: int, n: int = 200) -> None:
+    X = pd.read_parquet(data_path)[FEATURES].sample(n, random_state=seed)
+    preds = model.predict(X)
+    path.write_text(json.dumps({
+        "model_version": model_version,
+        "rows": X.to_dict("records"),
+        "predictions": [float(y) for y in preds],
+    }))
+
+
+# Fixture for the backend's LocalForestEngineParityTest (houseiq-backend/src/test/resources/forest): a tiny
+# RandomForestRegressor fitted on the same data, written by export_forest/export_parity like the real model,
+# so the expected values are sklearn's own predictions
+def export_fixture(data_path: Path, out_dir: Path, seed: int) -> None:
+    df = pd.read_parquet(data_path)
+    model = RandomForestRegressor(n_estimators=8, max_depth=6, random_state=seed)
+    model.fit(df[FEATURES], df[TARGET])
+    out_dir.mkdir(parents=True, exist_ok=True)
+    export_forest(model, out_dir / "model_forest.bin", FIXTURE_VERSION, FEATURES, explanation_weights(FEATURES))
+    export_parity(model, data_path, out_dir / "model_parity.json", FIXTURE_VERSION, seed, n=100)
+
+
 # CLI Interface
 def main():
     ap = argparse.ArgumentParser()
@@ -86,8 +154,28 @@ def main():
     ap.add_argument("--version", type=str, default="rf-2.0.0")  # Updated version
     ap.add_argument("--seed", type=int, default=42)
     ap.add_argument("--compress", type=int, default=3, help="Compression level 0-9 (higher = smaller file)")
+    ap.add_argument("--forest-out", type=Path, default=Path("model_forest.bin"), help="flat forest for the backend engine")
+    ap.add_argument("--parity-out", type=Path, default=Path("model_parity.json"), help="rows + predictions for the parity test")
+    ap.add_argument("--export-only", action="store_true", help="export the existing --out model without retraining")
+    ap.add_argument("--fixture", type=Path, help="only write the small test forest + parity sample to this directory")
     args = ap.parse_args()
 
+    if args.fixture:
+        export_fixture(args.data, args.fixture, args.seed)
+        print("Saved fixture forest and parity sample to:", args.fixture)
+        return
+
+    if args.export_only:
+        model = joblib.load(args.out)
+        meta = json.loads(args.meta.read_text()) if args.meta.exists() else {}
+        version = meta.get("model_version", args.version)
+        export_forest(model, args.forest_out, version, FEATURES,
+                      explanation_weights(FEATURES, meta.get("feature_importances")))
+        export_parity(model, args.data, args.parity_out, version, args.seed)
+        print("Saved forest to:", args.forest_out)
+        print("Saved parity sample to:", args.parity_out)
+        return
+
     # train model
     model, metrics = train(args.data, args.seed)
 
@@ -109,9 +197,14 @@ def main():
     # write metadata to path
     args.meta.write_text(json.dumps(meta, indent=2))
 
+    # flat export for the backend's in-JVM engine + parity sample
+    export_forest(model, args.forest_out, args.version, FEATURES, explanation_weights(FEATURES))
+    export_parity(model, args.data, args.parity_out, args.version, args.seed)
+
     # output summary
     print("Saved model to:", args.out)
     print("Saved meta to:", args.meta)
+    print("Saved forest to:", args.forest_out)
     print("Metrics:", json.dumps(metrics, indent=2))
     
     # Print file size
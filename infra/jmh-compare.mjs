@@ -0,0 +1,55 @@
+// Usage: node jmh-compare.mjs baseline.json current.json [threshold%]
+// Diffs two JMH JSON results (mvn -Pjmh -DskipTests verify → houseiq-backend/target/jmh/jmh-<version>.json):
+// score and allocated bytes per op per benchmark; exits 1 when a benchmark got slower or allocates more
+// than the threshold (default 10%).
+import { readFileSync } from 'node:fs';
+
+const [baseFile, currFile] = process.argv.slice(2, 4);
+const threshold = Number(process.argv[4] || 10);
+if (!baseFile || !currFile) {
+  console.error('Usage: node jmh-compare.mjs baseline.json current.json [threshold%]');
+  process.exit(2);
+}
+
+function load(file){
+  const byName = new Map();
+  for (const r of JSON.parse(readFileSync(file, 'utf8'))) {
+    const name = r.benchmark.replace(/^za\.co\.houseiq\.houseiqbackend\./, '');
+    const alloc = r.secondaryMetrics?.['gc.alloc.rate.norm'];
+    byName.set(name, { score: r.primaryMetric.score, unit: r.primaryMetric.scoreUnit, alloc: alloc ? alloc.score : null });
+  }
+  return byName;
+}
+
+function delta(a, b){
+  if (a == null || b == null || a === 0) return null;
+  return (b - a) / a * 100;
+}
+
+function fmt(pct){
+  return pct == null ? '' : `${pct >= 0 ? '+' : ''}${pct.toFixed(1)}%`;
+}
+
+const base = load(baseFile);
+const curr = load(currFile);
+const rows = [];
+let regressed = false;
+for (const name of [...new Set([...base.keys(), ...curr.keys()])].sort()) {
+  const a = base.get(name), b = curr.get(name);
+  const time = delta(a?.score, b?.score), alloc = delta(a?.alloc, b?.alloc);
+  const worse = (time ?? 0) > threshold || (alloc ?? 0) > threshold;
+  regressed ||= worse;
+  rows.push({
+    benchmark: name,
+    unit: (b ?? a).unit,
+    base: a ? a.score.toFixed(2) : '-',
+    current: b ? b.score.toFixed(2) : '-',
+    time: fmt(time),
+    'base B/op': a?.alloc != null ? Math.round(a.alloc) : '-',
+    'B/op': b?.alloc != null ? Math.round(b.alloc) : '-',
+    alloc: fmt(alloc),
+    '': worse ? 'REGRESSED' : '',
+  });
+}
+console.table(rows);
+process.exit(regressed ? 1 : 0);
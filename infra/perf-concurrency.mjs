@@ -0,0 +1,98 @@
+// Concurrency benchmark: platform vs virtual threads against a slow ML service.
+//
+// 1. start the slow ML stub (this script does it):   node perf-concurrency.mjs stub 9000 500
+//    -> answers /predict after 500 ms, like an overloaded FastAPI
+// 2. start the backend pointed at it, once per mode:
+//    ML_BASE_URL=http://localhost:9000 ML_CACHE_ENABLED=false mvn spring-boot:run
+//    ML_BASE_URL=http://localhost:9000 ML_CACHE_ENABLED=false mvn spring-boot:run -Dspring-boot.run.profiles=virtual
+// 3. load it:                                        node perf-concurrency.mjs load http://localhost:8080 800 20
+//    -> 800 concurrent clients for 20 s, prints throughput, peak in-flight at the stub and p50/p95/p99
+//
+// With Tomcat's 200 platform threads each slow call holds a thread, so at most ~200 ML calls overlap
+// and the rest queue (p99 ≈ queue wait + ML delay). With virtual threads every client gets a call in flight.
+import http from 'node:http';
+
+const mode = process.argv[2] || 'load';
+
+function sleep(ms){ return new Promise(r => setTimeout(r, ms)); }
+
+function pct(sorted, p){ return sorted.length ? sorted[Math.min(sorted.length - 1, Math.floor(p * sorted.length))] : 0; }
+
+function stub(port, delayMs){
+  let inFlight = 0, peak = 0, served = 0;
+  http.createServer((req, res) => {
+    let body = '';
+    req.on('data', c => body += c);
+    req.on('end', async () => {
+      inFlight++; peak = Math.max(peak, inFlight);
+      await sleep(delayMs);
+      inFlight--; served++;
+      let payload;
+      if (req.url === '/predict/batch') {
+        const n = JSON.parse(body).items.length;
+        payload = { predictions: Array.from({ length: n }, () => ({ predicted_price: 1000000, model_version: 'stub', explanations: null })) };
+      } else {
+        payload = { predicted_price: 1000000, model_version: 'stub', explanations: null };
+      }
+      res.writeHead(200, { 'Content-Type': 'application/json' });
+      res.end(JSON.stringify(payload));
+    });
+  }).listen(port, () => console.log(`slow ML stub on :${port}, ${delayMs} ms per call`));
+  // peak is reset after each report so every load run sees its own number
+  http.createServer((req, res) => { res.end(JSON.stringify({ peak, served })); peak = inFlight; })
+    .listen(port + 1);
+}
+
+async function register(base){
+  const email = `perf${Date.now()}@example.com`;
+  const body = { email, password: 'Secret1!', name: 'Perf' };
+  const res = await fetch(`${base}/api/auth/register`, { method: 'POST', headers: { 'Content-Type': 'application/json' }, body: JSON.stringify(body) });
+  if (!res.ok) throw new Error('Register failed');
+  return (await res.json()).token;
+}
+
+async function load(backend, clients, seconds, stubStats){
+  const token = await register(backend);
+  const headers = { 'Content-Type': 'application/json', 'Authorization': `Bearer ${token}` };
+  const latencies = [];
+  let errors = 0, seq = 0;
+  const deadline = performance.now() + seconds * 1000;
+
+  async function client(){
+    while (performance.now() < deadline) {
+      // distinct features per call so the result cache and coalescing do not hide the ML wait
+      const payload = { bedrooms: 3, bathrooms: 2, area_sqm: 50 + (seq++ % 100000) / 100, age_years: 8, location_index: 4 };
+      const start = performance.now();
+      try {
+        const res = await fetch(`${backend}/api/predictions`, { method: 'POST', headers, body: JSON.stringify(payload) });
+        await res.text();
+        if (res.ok) latencies.push(performance.now() - start); else errors++;
+      } catch { errors++; }
+    }
+  }
+
+  await fetch(stubStats).catch(() => {});          // reset the stub's peak counter
+  await Promise.all(Array.from({ length: clients }, client));
+  const stats = await fetch(stubStats).then(r => r.json()).catch(() => ({}));
+
+  latencies.sort((a, b) => a - b);
+  console.log(JSON.stringify({
+    clients, seconds,
+    requests: latencies.length, errors,
+    throughput_rps: (latencies.length / seconds).toFixed(1),
+    peak_ml_in_flight: stats.peak,
+    p50_ms: pct(latencies, 0.50).toFixed(1),
+    p95_ms: pct(latencies, 0.95).toFixed(1),
+    p99_ms: pct(latencies, 0.99).toFixed(1)
+  }, null, 2));
+}
+
+if (mode === 'stub') {
+  stub(Number(process.argv[3] || 9000), Number(process.argv[4] || 500));
+} else {
+  const backend = process.argv[3] || 'http://localhost:8080';
+  const clients = Number(process.argv[4] || 800);
+  const seconds = Number(process.argv[5] || 20);
+  const stubStats = process.env.STUB_STATS || 'http://localhost:9001/';
+  load(backend, clients, seconds, stubStats).catch(e => { console.error(e); process.exit(1); });
+}